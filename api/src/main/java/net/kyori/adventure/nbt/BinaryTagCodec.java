@@ -0,0 +1,167 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A codec that decodes binary tags directly from a stream into objects, and encodes them back.
+ *
+ * <p>Unlike reading a {@link CompoundBinaryTag} and then extracting values from it, a codec does not build
+ * an intermediate tag tree. The type of every tag is validated against the type expected by the codec,
+ * and a {@link BinaryTagDecodeException} reporting the path to the offending tag is thrown on mismatch.</p>
+ *
+ * @param <T> the decoded type
+ * @see BinaryTagSchema
+ * @since 4.8.0
+ */
+public interface BinaryTagCodec<T> {
+  /**
+   * A codec for {@code boolean} values, stored as a {@link ByteBinaryTag}.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Boolean> BOOLEAN = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.BYTE, input -> input.readByte() != 0, (value, output) -> output.writeByte(value ? 1 : 0));
+  /**
+   * A codec for {@code byte} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Byte> BYTE = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.BYTE, DataInput::readByte, (value, output) -> output.writeByte(value));
+  /**
+   * A codec for {@code short} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Short> SHORT = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.SHORT, DataInput::readShort, (value, output) -> output.writeShort(value));
+  /**
+   * A codec for {@code int} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Integer> INT = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.INT, DataInput::readInt, (value, output) -> output.writeInt(value));
+  /**
+   * A codec for {@code long} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Long> LONG = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.LONG, DataInput::readLong, (value, output) -> output.writeLong(value));
+  /**
+   * A codec for {@code float} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Float> FLOAT = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.FLOAT, DataInput::readFloat, (value, output) -> output.writeFloat(value));
+  /**
+   * A codec for {@code double} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<Double> DOUBLE = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.DOUBLE, DataInput::readDouble, (value, output) -> output.writeDouble(value));
+  /**
+   * A codec for {@link String} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<String> STRING = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.STRING, DataInput::readUTF, (value, output) -> output.writeUTF(value));
+  /**
+   * A codec for {@code byte[]} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<byte[]> BYTE_ARRAY = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.BYTE_ARRAY, BinaryTagTypes::readByteArray, BinaryTagTypes::writeByteArray);
+  /**
+   * A codec for {@code int[]} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<int[]> INT_ARRAY = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.INT_ARRAY, BinaryTagTypes::readIntArray, BinaryTagTypes::writeIntArray);
+  /**
+   * A codec for {@code long[]} values.
+   *
+   * @since 4.8.0
+   */
+  BinaryTagCodec<long[]> LONG_ARRAY = new BinaryTagCodecImpl.Simple<>(BinaryTagTypes.LONG_ARRAY, BinaryTagTypes::readLongArray, BinaryTagTypes::writeLongArray);
+
+  /**
+   * Creates a codec for a list of values, stored as a {@link ListBinaryTag}.
+   *
+   * <p>The decoded list is unmodifiable.</p>
+   *
+   * @param elementCodec the codec for each element
+   * @param <E> the element type
+   * @return a list codec
+   * @since 4.8.0
+   */
+  static <E> @NonNull BinaryTagCodec<List<E>> list(final @NonNull BinaryTagCodec<E> elementCodec) {
+    return new BinaryTagCodecImpl.ListCodec<>(elementCodec);
+  }
+
+  /**
+   * Gets the type of tag this codec reads and writes.
+   *
+   * @return the tag type
+   * @since 4.8.0
+   */
+  @NonNull BinaryTagType<? extends BinaryTag> type();
+
+  /**
+   * Reads the payload of a tag of type {@link #type()} from {@code input}.
+   *
+   * @param input the input
+   * @return the decoded value
+   * @throws IOException if an exception was encountered while reading
+   * @throws BinaryTagDecodeException if the input does not match the structure expected by this codec
+   * @since 4.8.0
+   */
+  @NonNull T read(final @NonNull DataInput input) throws IOException;
+
+  /**
+   * Writes the payload of a tag of type {@link #type()} to {@code output}.
+   *
+   * @param value the value
+   * @param output the output
+   * @throws IOException if an exception was encountered while writing
+   * @since 4.8.0
+   */
+  void write(final @NonNull T value, final @NonNull DataOutput output) throws IOException;
+
+  /**
+   * Creates a codec that converts values of this codec to and from another type.
+   *
+   * @param decode the function converting decoded values
+   * @param encode the function converting values back before encoding
+   * @param <U> the new decoded type
+   * @return a codec
+   * @since 4.8.0
+   */
+  default <U> @NonNull BinaryTagCodec<U> map(final @NonNull Function<? super T, ? extends U> decode, final @NonNull Function<? super U, ? extends T> encode) {
+    return new BinaryTagCodecImpl.Mapped<>(this, decode, encode);
+  }
+}
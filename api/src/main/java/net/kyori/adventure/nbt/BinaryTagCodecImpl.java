@@ -0,0 +1,202 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+final class BinaryTagCodecImpl {
+  private BinaryTagCodecImpl() {
+  }
+
+  // decodes a tag which has already been read, for readers which can only read tags
+  static <T> @NonNull T decode(final @NonNull CompoundBinaryTag tag, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    requireCompound(codec);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagTypes.COMPOUND.write(tag, new DataOutputStream(bytes));
+    final byte[] data = bytes.toByteArray();
+    return codec.read(new BufferDataInput(data, 0, data.length));
+  }
+
+  // encodes a value as a tag, for writers which can only write tags
+  static <T> @NonNull CompoundBinaryTag encode(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    requireCompound(codec);
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    codec.write(value, new DataOutputStream(bytes));
+    final byte[] data = bytes.toByteArray();
+    return BinaryTagTypes.COMPOUND.read(new BufferDataInput(data, 0, data.length));
+  }
+
+  static void requireCompound(final @NonNull BinaryTagCodec<?> codec) throws IOException {
+    if(codec.type() != BinaryTagTypes.COMPOUND) {
+      throw new IOException(String.format("Expected root tag to be a %s, was %s", BinaryTagTypes.COMPOUND, codec.type()));
+    }
+  }
+
+  /**
+   * A value reader.
+   *
+   * @param <T> the value type
+   */
+  interface Reader<T> {
+    @NonNull T read(final @NonNull DataInput input) throws IOException;
+  }
+
+  /**
+   * A value writer.
+   *
+   * @param <T> the value type
+   */
+  interface Writer<T> {
+    void write(final @NonNull T value, final @NonNull DataOutput output) throws IOException;
+  }
+
+  static final class Simple<T> implements BinaryTagCodec<T> {
+    private final BinaryTagType<? extends BinaryTag> type;
+    private final Reader<T> reader;
+    private final Writer<T> writer;
+
+    Simple(final BinaryTagType<? extends BinaryTag> type, final Reader<T> reader, final Writer<T> writer) {
+      this.type = type;
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    @Override
+    public @NonNull BinaryTagType<? extends BinaryTag> type() {
+      return this.type;
+    }
+
+    @Override
+    public @NonNull T read(final @NonNull DataInput input) throws IOException {
+      return this.reader.read(input);
+    }
+
+    @Override
+    public void write(final @NonNull T value, final @NonNull DataOutput output) throws IOException {
+      this.writer.write(value, output);
+    }
+
+    @Override
+    public String toString() {
+      return "BinaryTagCodec[" + this.type + "]";
+    }
+  }
+
+  static final class ListCodec<E> implements BinaryTagCodec<List<E>> {
+    private final BinaryTagCodec<E> elementCodec;
+
+    ListCodec(final BinaryTagCodec<E> elementCodec) {
+      this.elementCodec = elementCodec;
+    }
+
+    @Override
+    public @NonNull BinaryTagType<? extends BinaryTag> type() {
+      return BinaryTagTypes.LIST;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    public @NonNull List<E> read(final @NonNull DataInput input) throws IOException {
+      final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
+      final int length = input.readInt();
+      try(final BinaryTagScope ignored = TrackingDataInput.enterList(input, type, length)) {
+        if(length == 0) return Collections.emptyList();
+        final BinaryTagType<? extends BinaryTag> expected = this.elementCodec.type();
+        if(type != expected) {
+          throw BinaryTagDecodeException.typeMismatch(expected, type).in(0);
+        }
+        final List<E> values = new ArrayList<>(BinaryTagTypes.initialCapacity(length));
+        for(int i = 0; i < length; i++) {
+          try {
+            values.add(this.elementCodec.read(input));
+          } catch(final BinaryTagDecodeException ex) {
+            throw ex.in(i);
+          }
+        }
+        return Collections.unmodifiableList(values);
+      }
+    }
+
+    @Override
+    public void write(final @NonNull List<E> value, final @NonNull DataOutput output) throws IOException {
+      final int size = value.size();
+      output.writeByte((size == 0 ? BinaryTagTypes.END : this.elementCodec.type()).id());
+      output.writeInt(size);
+      for(int i = 0; i < size; i++) {
+        this.elementCodec.write(value.get(i), output);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "BinaryTagCodec[" + BinaryTagTypes.LIST + " of " + this.elementCodec + "]";
+    }
+  }
+
+  static final class Mapped<T, U> implements BinaryTagCodec<U> {
+    private final BinaryTagCodec<T> codec;
+    private final Function<? super T, ? extends U> decode;
+    private final Function<? super U, ? extends T> encode;
+
+    Mapped(final BinaryTagCodec<T> codec, final Function<? super T, ? extends U> decode, final Function<? super U, ? extends T> encode) {
+      this.codec = codec;
+      this.decode = decode;
+      this.encode = encode;
+    }
+
+    @Override
+    public @NonNull BinaryTagType<? extends BinaryTag> type() {
+      return this.codec.type();
+    }
+
+    @Override
+    public @NonNull U read(final @NonNull DataInput input) throws IOException {
+      final T value = this.codec.read(input);
+      try {
+        return this.decode.apply(value);
+      } catch(final RuntimeException ex) {
+        throw new BinaryTagDecodeException("Could not convert value " + value, ex);
+      }
+    }
+
+    @Override
+    public void write(final @NonNull U value, final @NonNull DataOutput output) throws IOException {
+      this.codec.write(this.encode.apply(value), output);
+    }
+
+    @Override
+    public String toString() {
+      return "BinaryTagCodec[mapped " + this.codec + "]";
+    }
+  }
+}
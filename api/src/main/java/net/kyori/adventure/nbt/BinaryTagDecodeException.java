@@ -0,0 +1,104 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * An exception thrown when a binary tag could not be decoded by a {@link BinaryTagCodec}.
+ *
+ * <p>The exception tracks the path to the tag that failed to decode, such as {@code inventory[3].id}.</p>
+ *
+ * @since 4.8.0
+ */
+public class BinaryTagDecodeException extends IOException {
+  private static final long serialVersionUID = -6130402315376186245L;
+  private final Deque<Object> path = new ArrayDeque<>();
+
+  /**
+   * Creates a new exception.
+   *
+   * @param message the message
+   * @since 4.8.0
+   */
+  public BinaryTagDecodeException(final @NonNull String message) {
+    super(message);
+  }
+
+  /**
+   * Creates a new exception.
+   *
+   * @param message the message
+   * @param cause the cause
+   * @since 4.8.0
+   */
+  public BinaryTagDecodeException(final @NonNull String message, final @NonNull Throwable cause) {
+    super(message, cause);
+  }
+
+  static BinaryTagDecodeException typeMismatch(final BinaryTagType<? extends BinaryTag> expected, final BinaryTagType<? extends BinaryTag> actual) {
+    return new BinaryTagDecodeException(String.format("Expected a %s, was %s", expected, actual));
+  }
+
+  // path segments are added while the exception propagates, so they are added to the front
+  BinaryTagDecodeException in(final @NonNull String key) {
+    this.path.addFirst(key);
+    return this;
+  }
+
+  BinaryTagDecodeException in(final int index) {
+    this.path.addFirst(index);
+    return this;
+  }
+
+  /**
+   * Gets the path to the tag that failed to decode.
+   *
+   * <p>Compound keys are separated by a {@code .}, and list indexes are enclosed in square brackets.</p>
+   *
+   * @return the path, or an empty string if the failure was at the root
+   * @since 4.8.0
+   */
+  public @NonNull String path() {
+    final StringBuilder sb = new StringBuilder();
+    for(final Object segment : this.path) {
+      if(segment instanceof Integer) {
+        sb.append('[').append(segment).append(']');
+      } else {
+        if(sb.length() > 0) sb.append('.');
+        sb.append(segment);
+      }
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String getMessage() {
+    if(this.path.isEmpty()) return super.getMessage();
+    return super.getMessage() + " (at " + this.path() + ")";
+  }
+}
@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
@@ -30,11 +31,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.InflaterInputStream;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.ApiStatus;
 
 /**
  * Serialization operations for binary tags.
@@ -88,6 +92,20 @@ public final class BinaryTagIO {
     return new BinaryTagReaderImpl(sizeLimitBytes);
   }
 
+  /**
+   * Creates a builder for a {@link Reader} with configurable limits.
+   *
+   * <p>Limits are validated against the length prefixes of lists, arrays and strings before any
+   * storage is allocated for their contents, so hostile input is rejected without being read. By default the
+   * limits are the same as those of {@link #reader()}.</p>
+   *
+   * @return a reader builder
+   * @since 4.8.0
+   */
+  public static Reader.@NonNull Builder readerBuilder() {
+    return new BinaryTagReaderImpl.BuilderImpl();
+  }
+
   /**
    * Returns {@link Writer}, used to write binary tags.
    *
@@ -304,6 +322,23 @@ public final class BinaryTagIO {
      */
     @NonNull CompoundBinaryTag read(final @NonNull DataInput input) throws IOException;
 
+    /**
+     * Reads a binary tag from {@code data} with a {@code compression} type.
+     *
+     * <p>The readers provided by this class fully decompress compressed data into memory before reading it. If such
+     * a reader was configured to decode {@link Builder#parallel(ForkJoinPool) in parallel}, large lists are decoded
+     * concurrently.</p>
+     *
+     * @param data the data
+     * @param compression the compression type
+     * @return a binary tag
+     * @throws IOException if an exception was encountered while reading the tag
+     * @since 4.8.0
+     */
+    default @NonNull CompoundBinaryTag read(final byte@NonNull[] data, final @NonNull Compression compression) throws IOException {
+      return this.read(new ByteArrayInputStream(data), compression);
+    }
+
     /**
      * Reads a binary tag, with a name, from {@code path}.
      *
@@ -363,6 +398,152 @@ public final class BinaryTagIO {
      * @since 4.4.0
      */
     Map.@NonNull Entry<String, CompoundBinaryTag> readNamed(final @NonNull DataInput input) throws IOException;
+
+    /**
+     * Reads a binary tag from {@code path} with a {@code compression} type, decoding it using {@code codec}.
+     *
+     * @param path the path
+     * @param compression the compression type
+     * @param codec the codec, which must read a {@link CompoundBinaryTag}
+     * @param <T> the decoded type
+     * @return the decoded value
+     * @throws IOException if an exception was encountered while reading the tag
+     * @throws BinaryTagDecodeException if the tag does not match the structure expected by the codec
+     * @since 4.8.0
+     */
+    default <T> @NonNull T read(final @NonNull Path path, final @NonNull Compression compression, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+      return BinaryTagCodecImpl.decode(this.read(path, compression), codec);
+    }
+
+    /**
+     * Reads a binary tag from {@code input} with a {@code compression} type, decoding it using {@code codec}.
+     *
+     * @param input the input stream
+     * @param compression the compression type
+     * @param codec the codec, which must read a {@link CompoundBinaryTag}
+     * @param <T> the decoded type
+     * @return the decoded value
+     * @throws IOException if an exception was encountered while reading the tag
+     * @throws BinaryTagDecodeException if the tag does not match the structure expected by the codec
+     * @since 4.8.0
+     */
+    default <T> @NonNull T read(final @NonNull InputStream input, final @NonNull Compression compression, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+      return BinaryTagCodecImpl.decode(this.read(input, compression), codec);
+    }
+
+    /**
+     * Reads a binary tag from {@code input}, decoding it using {@code codec}.
+     *
+     * @param input the input
+     * @param codec the codec, which must read a {@link CompoundBinaryTag}
+     * @param <T> the decoded type
+     * @return the decoded value
+     * @throws IOException if an exception was encountered while reading the tag
+     * @throws BinaryTagDecodeException if the tag does not match the structure expected by the codec
+     * @since 4.8.0
+     */
+    default <T> @NonNull T read(final @NonNull DataInput input, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+      return BinaryTagCodecImpl.decode(this.read(input), codec);
+    }
+
+    /**
+     * A builder for a {@link Reader} with configurable limits.
+     *
+     * <p>Exceeding any limit while reading causes an {@link IOException} to be thrown.</p>
+     *
+     * @since 4.8.0
+     */
+    @ApiStatus.NonExtendable
+    interface Builder {
+      /**
+       * Sets the approximate maximum number of bytes that may be read for a tag.
+       *
+       * @param maxBytes the maximum number of bytes, or a value of zero or less for no limit
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxBytes(final long maxBytes);
+
+      /**
+       * Sets the maximum depth of nested tags.
+       *
+       * <p>The default depth is {@code 512}.</p>
+       *
+       * @param maxDepth the maximum depth
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxDepth(final int maxDepth);
+
+      /**
+       * Sets the maximum number of elements in a single list tag.
+       *
+       * @param maxListLength the maximum list length
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxListLength(final int maxListLength);
+
+      /**
+       * Sets the maximum number of elements in a single byte, int or long array tag.
+       *
+       * @param maxArrayLength the maximum array length
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxArrayLength(final int maxArrayLength);
+
+      /**
+       * Sets the maximum encoded length, in bytes, of a single string, including the names of compound entries.
+       *
+       * @param maxStringLength the maximum string length
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxStringLength(final int maxStringLength);
+
+      /**
+       * Sets the maximum total number of tags that may be read for a tag, counting every list element and compound entry.
+       *
+       * @param maxTagCount the maximum number of tags
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder maxTagCount(final long maxTagCount);
+
+      /**
+       * Sets the pool used to decode large lists concurrently, or {@code null} to decode sequentially.
+       *
+       * <p>Parallel decoding only applies when reading from {@link Reader#read(byte[], Compression) an in-memory buffer}.
+       * The elements of lists of compound or list tags with at least {@link #parallelThreshold(int) a threshold}
+       * number of elements are first scanned to find their boundaries, and then decoded on the pool.</p>
+       *
+       * @param pool the pool
+       * @return this builder
+       * @since 4.8.0
+       */
+      @NonNull Builder parallel(final @Nullable ForkJoinPool pool);
+
+      /**
+       * Sets the minimum number of elements a list must have to be decoded concurrently.
+       *
+       * <p>The default threshold is {@code 1024}.</p>
+       *
+       * @param minimumListLength the minimum list length
+       * @return this builder
+       * @see #parallel(ForkJoinPool)
+       * @since 4.8.0
+       */
+      @NonNull Builder parallelThreshold(final int minimumListLength);
+
+      /**
+       * Builds the reader.
+       *
+       * @return a reader
+       * @since 4.8.0
+       */
+      @NonNull Reader build();
+    }
   }
 
   /**
@@ -480,6 +661,50 @@ public final class BinaryTagIO {
      * @since 4.4.0
      */
     void writeNamed(final Map.@NonNull Entry<String, CompoundBinaryTag> tag, final @NonNull DataOutput output) throws IOException;
+
+    /**
+     * Encodes a value using {@code codec} and writes it to {@code path} with a {@code compression} type.
+     *
+     * @param value the value
+     * @param codec the codec, which must write a {@link CompoundBinaryTag}
+     * @param path the path
+     * @param compression the compression type
+     * @param <T> the decoded type
+     * @throws IOException if an exception was encountered while writing the tag
+     * @since 4.8.0
+     */
+    default <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull Path path, final @NonNull Compression compression) throws IOException {
+      this.write(BinaryTagCodecImpl.encode(value, codec), path, compression);
+    }
+
+    /**
+     * Encodes a value using {@code codec} and writes it to {@code output} with a {@code compression} type.
+     *
+     * @param value the value
+     * @param codec the codec, which must write a {@link CompoundBinaryTag}
+     * @param output the output stream
+     * @param compression the compression type
+     * @param <T> the decoded type
+     * @throws IOException if an exception was encountered while writing the tag
+     * @since 4.8.0
+     */
+    default <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull OutputStream output, final @NonNull Compression compression) throws IOException {
+      this.write(BinaryTagCodecImpl.encode(value, codec), output, compression);
+    }
+
+    /**
+     * Encodes a value using {@code codec} and writes it to {@code output}.
+     *
+     * @param value the value
+     * @param codec the codec, which must write a {@link CompoundBinaryTag}
+     * @param output the output
+     * @param <T> the decoded type
+     * @throws IOException if an exception was encountered while writing the tag
+     * @since 4.8.0
+     */
+    default <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull DataOutput output) throws IOException {
+      this.write(BinaryTagCodecImpl.encode(value, codec), output);
+    }
   }
 
   /**
@@ -24,6 +24,8 @@
 package net.kyori.adventure.nbt;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -32,18 +34,71 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import static net.kyori.adventure.nbt.IOStreamUtil.closeShield;
 
 @SuppressWarnings("DuplicatedCode")
 final class BinaryTagReaderImpl implements BinaryTagIO.Reader {
-  private final long maxBytes;
+  static final long DEFAULT_MAX_BYTES = 0x20_00a;
+  static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+  final long maxBytes;
+  final int maxDepth;
+  final int maxListLength;
+  final int maxArrayLength;
+  final int maxStringLength;
+  final long maxTagCount;
+  final @Nullable ForkJoinPool pool;
+  final int parallelThreshold;
   static final BinaryTagIO.Reader UNLIMITED = new BinaryTagReaderImpl(-1L);
-  static final BinaryTagIO.Reader DEFAULT_LIMIT = new BinaryTagReaderImpl(0x20_00a);
+  static final BinaryTagIO.Reader DEFAULT_LIMIT = new BinaryTagReaderImpl(DEFAULT_MAX_BYTES);
 
   BinaryTagReaderImpl(final long maxBytes) {
-    this.maxBytes = maxBytes;
+    this(new BuilderImpl(maxBytes));
+  }
+
+  private BinaryTagReaderImpl(final BuilderImpl builder) {
+    this.maxBytes = builder.maxBytes;
+    this.maxDepth = builder.maxDepth;
+    this.maxListLength = builder.maxListLength;
+    this.maxArrayLength = builder.maxArrayLength;
+    this.maxStringLength = builder.maxStringLength;
+    this.maxTagCount = builder.maxTagCount;
+    this.pool = builder.pool;
+    this.parallelThreshold = builder.parallelThreshold;
+  }
+
+  private DataInput tracking(final DataInput input) {
+    if(input instanceof TrackingDataInput) {
+      return input;
+    }
+    return new TrackingDataInput(input, this);
+  }
+
+  @Override
+  public @NonNull CompoundBinaryTag read(final byte@NonNull[] data, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    if(compression != BinaryTagIO.Compression.NONE) {
+      try(final InputStream is = compression.decompress(new ByteArrayInputStream(data))) {
+        return this.read(this.readAll(is), BinaryTagIO.Compression.NONE);
+      }
+    }
+    return this.read(new BufferDataInput(data, 0, data.length));
+  }
+
+  // decompresses the whole input, failing as soon as it is larger than the tags this reader may read
+  private byte[] readAll(final InputStream input) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while((read = input.read(buffer)) != -1) {
+      output.write(buffer, 0, read);
+      if(this.maxBytes > 0 && output.size() > this.maxBytes) {
+        throw new IOException("The read NBT was longer than the maximum allowed size of " + this.maxBytes + " bytes!");
+      }
+    }
+    return output.toByteArray();
   }
 
   @Override
@@ -62,9 +117,7 @@ final class BinaryTagReaderImpl implements BinaryTagIO.Reader {
 
   @Override
   public @NonNull CompoundBinaryTag read(@NonNull DataInput input) throws IOException {
-    if(!(input instanceof TrackingDataInput)) {
-      input = new TrackingDataInput(input, this.maxBytes);
-    }
+    input = this.tracking(input);
 
     final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
     requireCompound(type);
@@ -87,16 +140,124 @@ final class BinaryTagReaderImpl implements BinaryTagIO.Reader {
   }
 
   @Override
-  public Map.@NonNull Entry<String, CompoundBinaryTag> readNamed(final @NonNull DataInput input) throws IOException {
+  public Map.@NonNull Entry<String, CompoundBinaryTag> readNamed(@NonNull DataInput input) throws IOException {
+    input = this.tracking(input);
     final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
     requireCompound(type);
     final String name = input.readUTF();
     return new AbstractMap.SimpleImmutableEntry<>(name, BinaryTagTypes.COMPOUND.read(input));
   }
 
+  @Override
+  public <T> @NonNull T read(final @NonNull Path path, final BinaryTagIO.@NonNull Compression compression, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    try(final InputStream is = Files.newInputStream(path)) {
+      return this.read(is, compression, codec);
+    }
+  }
+
+  @Override
+  public <T> @NonNull T read(final @NonNull InputStream input, final BinaryTagIO.@NonNull Compression compression, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    try(final DataInputStream dis = new DataInputStream(new BufferedInputStream(compression.decompress(closeShield(input))))) {
+      return this.read((DataInput) dis, codec);
+    }
+  }
+
+  @Override
+  public <T> @NonNull T read(@NonNull DataInput input, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    BinaryTagCodecImpl.requireCompound(codec);
+    input = this.tracking(input);
+
+    final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
+    requireCompound(type);
+    input.skipBytes(input.readUnsignedShort()); // read empty name
+    return codec.read(input);
+  }
+
   private static void requireCompound(final BinaryTagType<? extends BinaryTag> type) throws IOException {
     if(type != BinaryTagTypes.COMPOUND) {
       throw new IOException(String.format("Expected root tag to be a %s, was %s", BinaryTagTypes.COMPOUND, type));
     }
   }
+
+  static final class BuilderImpl implements BinaryTagIO.Reader.Builder {
+    private long maxBytes;
+    private int maxDepth = TrackingDataInput.DEFAULT_MAX_DEPTH;
+    private int maxListLength = Integer.MAX_VALUE;
+    private int maxArrayLength = Integer.MAX_VALUE;
+    private int maxStringLength = Integer.MAX_VALUE;
+    private long maxTagCount = Long.MAX_VALUE;
+    private @Nullable ForkJoinPool pool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    BuilderImpl() {
+      this(DEFAULT_MAX_BYTES);
+    }
+
+    BuilderImpl(final long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxBytes(final long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxDepth(final int maxDepth) {
+      this.maxDepth = requirePositive(maxDepth, "maximum depth");
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxListLength(final int maxListLength) {
+      this.maxListLength = requirePositive(maxListLength, "maximum list length");
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxArrayLength(final int maxArrayLength) {
+      this.maxArrayLength = requirePositive(maxArrayLength, "maximum array length");
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxStringLength(final int maxStringLength) {
+      this.maxStringLength = requirePositive(maxStringLength, "maximum string length");
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder maxTagCount(final long maxTagCount) {
+      if(maxTagCount <= 0) {
+        throw new IllegalArgumentException("The maximum tag count must be greater than zero");
+      }
+      this.maxTagCount = maxTagCount;
+      return this;
+    }
+
+    private static int requirePositive(final int value, final String name) {
+      if(value <= 0) {
+        throw new IllegalArgumentException("The " + name + " must be greater than zero");
+      }
+      return value;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder parallel(final @Nullable ForkJoinPool pool) {
+      this.pool = pool;
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.Reader.@NonNull Builder parallelThreshold(final int minimumListLength) {
+      this.parallelThreshold = requirePositive(minimumListLength, "parallel threshold");
+      return this;
+    }
+
+    @Override
+    public BinaryTagIO.@NonNull Reader build() {
+      return new BinaryTagReaderImpl(this);
+    }
+  }
 }
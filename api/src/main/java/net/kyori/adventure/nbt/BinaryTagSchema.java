@@ -0,0 +1,148 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A declarative codec mapping the entries of a {@link CompoundBinaryTag} to the properties of an object.
+ *
+ * <p>Fields are declared on a {@link Builder}, which returns a {@link Field} handle for each declaration. The
+ * handles are then used to retrieve the decoded values when constructing the object:</p>
+ *
+ * <pre>
+ *   final BinaryTagSchema.Builder&lt;Item&gt; builder = BinaryTagSchema.builder();
+ *   final BinaryTagSchema.Field&lt;String&gt; id = builder.field("id", BinaryTagCodec.STRING, Item::id);
+ *   final BinaryTagSchema.Field&lt;Byte&gt; count = builder.field("Count", BinaryTagCodec.BYTE, Item::count, (byte) 1);
+ *   final BinaryTagSchema&lt;Item&gt; schema = builder.build(values -&gt; new Item(values.get(id), values.get(count)));
+ * </pre>
+ *
+ * <p>When decoding, entries which are not declared by the schema are skipped without being read into tags,
+ * entries with a declared type different to the type of their codec are rejected, and required fields
+ * which are missing are rejected.</p>
+ *
+ * @param <T> the decoded type
+ * @since 4.8.0
+ */
+public interface BinaryTagSchema<T> extends BinaryTagCodec<T> {
+  /**
+   * Creates a new schema builder.
+   *
+   * @param <T> the decoded type
+   * @return a builder
+   * @since 4.8.0
+   */
+  static <T> @NonNull Builder<T> builder() {
+    return new BinaryTagSchemaImpl.BuilderImpl<>();
+  }
+
+  /**
+   * A schema builder.
+   *
+   * @param <T> the decoded type
+   * @since 4.8.0
+   */
+  interface Builder<T> {
+    /**
+     * Declares a required field.
+     *
+     * @param name the name of the entry in the compound tag
+     * @param codec the codec for the entry value
+     * @param getter the function extracting the value from an object when encoding
+     * @param <F> the field type
+     * @return a field handle
+     * @since 4.8.0
+     */
+    <F> @NonNull Field<F> field(final @NonNull String name, final @NonNull BinaryTagCodec<F> codec, final @NonNull Function<? super T, ? extends F> getter);
+
+    /**
+     * Declares an optional field.
+     *
+     * <p>If the entry is absent when decoding, {@code defaultValue} is used instead. A {@code null} value
+     * will not be written when encoding.</p>
+     *
+     * @param name the name of the entry in the compound tag
+     * @param codec the codec for the entry value
+     * @param getter the function extracting the value from an object when encoding
+     * @param defaultValue the default value
+     * @param <F> the field type
+     * @return a field handle
+     * @since 4.8.0
+     */
+    <F> @NonNull Field<F> field(final @NonNull String name, final @NonNull BinaryTagCodec<F> codec, final @NonNull Function<? super T, ? extends F> getter, final @Nullable F defaultValue);
+
+    /**
+     * Builds the schema.
+     *
+     * @param factory the function creating an object from the decoded values
+     * @return a schema
+     * @since 4.8.0
+     */
+    @NonNull BinaryTagSchema<T> build(final @NonNull Function<Values, ? extends T> factory);
+  }
+
+  /**
+   * A handle to a declared field.
+   *
+   * @param <F> the field type
+   * @since 4.8.0
+   */
+  interface Field<F> {
+    /**
+     * Gets the name of the entry in the compound tag.
+     *
+     * @return the name
+     * @since 4.8.0
+     */
+    @NonNull String name();
+
+    /**
+     * Gets the codec for the entry value.
+     *
+     * @return the codec
+     * @since 4.8.0
+     */
+    @NonNull BinaryTagCodec<F> codec();
+  }
+
+  /**
+   * The values decoded for each field of a schema.
+   *
+   * @since 4.8.0
+   */
+  interface Values {
+    /**
+     * Gets the value decoded for {@code field}.
+     *
+     * @param field the field
+     * @param <F> the field type
+     * @return the value, or {@code null} if the field is optional and absent with a {@code null} default
+     * @throws IllegalArgumentException if the field was not declared by this schema
+     * @since 4.8.0
+     */
+    <F> @Nullable F get(final @NonNull Field<F> field);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+final class BinaryTagSchemaImpl<T> implements BinaryTagSchema<T> {
+  private final FieldImpl<T, ?>[] fields;
+  private final Map<String, FieldImpl<T, ?>> fieldsByName;
+  private final Function<Values, ? extends T> factory;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  BinaryTagSchemaImpl(final List<FieldImpl<T, ?>> fields, final Function<Values, ? extends T> factory) {
+    this.fields = fields.toArray(new FieldImpl[0]);
+    this.fieldsByName = new HashMap<>(fields.size() * 2);
+    for(final FieldImpl<T, ?> field : this.fields) {
+      this.fieldsByName.put(field.name, field);
+    }
+    this.factory = factory;
+  }
+
+  @Override
+  public @NonNull BinaryTagType<? extends BinaryTag> type() {
+    return BinaryTagTypes.COMPOUND;
+  }
+
+  @Override
+  @SuppressWarnings("try")
+  public @NonNull T read(final @NonNull DataInput input) throws IOException {
+    final Object[] values = new Object[this.fields.length];
+    final boolean[] present = new boolean[this.fields.length];
+    try(final BinaryTagScope scope = TrackingDataInput.enter(input)) {
+      BinaryTagType<? extends BinaryTag> type;
+      while((type = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
+        scope.countTags(1);
+        final String name = input.readUTF();
+        final @Nullable FieldImpl<T, ?> field = this.fieldsByName.get(name);
+        if(field == null) {
+          BinaryTagTypes.skip(type, input);
+          continue;
+        }
+        final BinaryTagType<? extends BinaryTag> expected = field.codec.type();
+        if(type != expected) {
+          throw BinaryTagDecodeException.typeMismatch(expected, type).in(name);
+        }
+        try {
+          values[field.index] = field.codec.read(input);
+        } catch(final BinaryTagDecodeException ex) {
+          throw ex.in(name);
+        }
+        present[field.index] = true;
+      }
+    }
+    for(int i = 0; i < this.fields.length; i++) {
+      if(!present[i]) {
+        final FieldImpl<T, ?> field = this.fields[i];
+        if(!field.optional) {
+          throw new BinaryTagDecodeException("Missing required " + field.codec.type()).in(field.name);
+        }
+        values[i] = field.defaultValue;
+      }
+    }
+    try {
+      return requireNonNull(this.factory.apply(new ValuesImpl(this, values)), "factory returned null");
+    } catch(final RuntimeException ex) {
+      throw new BinaryTagDecodeException("Could not create value", ex);
+    }
+  }
+
+  @Override
+  public void write(final @NonNull T value, final @NonNull DataOutput output) throws IOException {
+    for(final FieldImpl<T, ?> field : this.fields) {
+      field.write(value, output);
+    }
+    output.writeByte(BinaryTagTypes.END.id());
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryTagSchema" + this.fieldsByName.keySet();
+  }
+
+  static final class BuilderImpl<T> implements Builder<T> {
+    private final List<FieldImpl<T, ?>> fields = new ArrayList<>();
+    private @Nullable BinaryTagSchemaImpl<T> built;
+
+    @Override
+    public <F> @NonNull Field<F> field(final @NonNull String name, final @NonNull BinaryTagCodec<F> codec, final @NonNull Function<? super T, ? extends F> getter) {
+      return this.add(new FieldImpl<>(this.fields.size(), name, codec, getter, false, null));
+    }
+
+    @Override
+    public <F> @NonNull Field<F> field(final @NonNull String name, final @NonNull BinaryTagCodec<F> codec, final @NonNull Function<? super T, ? extends F> getter, final @Nullable F defaultValue) {
+      return this.add(new FieldImpl<>(this.fields.size(), name, codec, getter, true, defaultValue));
+    }
+
+    private <F> Field<F> add(final FieldImpl<T, F> field) {
+      if(this.built != null) {
+        throw new IllegalStateException("Schema has already been built");
+      }
+      for(final FieldImpl<T, ?> existing : this.fields) {
+        if(existing.name.equals(field.name)) {
+          throw new IllegalArgumentException("Duplicate field '" + field.name + "'");
+        }
+      }
+      this.fields.add(field);
+      return field;
+    }
+
+    @Override
+    public @NonNull BinaryTagSchema<T> build(final @NonNull Function<Values, ? extends T> factory) {
+      if(this.built != null) {
+        throw new IllegalStateException("Schema has already been built");
+      }
+      return this.built = new BinaryTagSchemaImpl<>(this.fields, requireNonNull(factory, "factory"));
+    }
+  }
+
+  static final class FieldImpl<T, F> implements Field<F> {
+    final int index;
+    final String name;
+    final BinaryTagCodec<F> codec;
+    final Function<? super T, ? extends F> getter;
+    final boolean optional;
+    final @Nullable F defaultValue;
+
+    FieldImpl(final int index, final String name, final BinaryTagCodec<F> codec, final Function<? super T, ? extends F> getter, final boolean optional, final @Nullable F defaultValue) {
+      this.index = index;
+      this.name = requireNonNull(name, "name");
+      this.codec = requireNonNull(codec, "codec");
+      this.getter = requireNonNull(getter, "getter");
+      this.optional = optional;
+      this.defaultValue = defaultValue;
+    }
+
+    void write(final T value, final DataOutput output) throws IOException {
+      final @Nullable F fieldValue = this.getter.apply(value);
+      if(fieldValue == null) {
+        if(this.optional) return;
+        throw new IOException("Required field '" + this.name + "' was null");
+      }
+      output.writeByte(this.codec.type().id());
+      output.writeUTF(this.name);
+      this.codec.write(fieldValue, output);
+    }
+
+    @Override
+    public @NonNull String name() {
+      return this.name;
+    }
+
+    @Override
+    public @NonNull BinaryTagCodec<F> codec() {
+      return this.codec;
+    }
+
+    @Override
+    public String toString() {
+      return "Field[" + this.name + " " + this.codec + "]";
+    }
+  }
+
+  static final class ValuesImpl implements Values {
+    private final BinaryTagSchemaImpl<?> schema;
+    private final Object[] values;
+
+    ValuesImpl(final BinaryTagSchemaImpl<?> schema, final Object[] values) {
+      this.schema = schema;
+      this.values = values;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <F> @Nullable F get(final @NonNull Field<F> field) {
+      if(!(field instanceof FieldImpl<?, ?>)) {
+        throw new IllegalArgumentException("Unknown field " + field);
+      }
+      final FieldImpl<?, F> impl = (FieldImpl<?, F>) field;
+      if(impl.index >= this.values.length || this.schema.fields[impl.index] != impl) {
+        throw new IllegalArgumentException("Field " + field + " is not part of " + this.schema);
+      }
+      return (F) this.values[impl.index];
+    }
+  }
+}
@@ -26,6 +26,14 @@ package net.kyori.adventure.nbt;
 import java.io.IOException;
 
 interface BinaryTagScope extends AutoCloseable {
+  /**
+   * Accounts for tags read within this scope.
+   *
+   * @param count the number of tags
+   * @throws IOException if the maximum number of tags has been exceeded
+   */
+  void countTags(final int count) throws IOException;
+
   @Override
   void close() throws IOException;
 
@@ -35,6 +43,10 @@ interface BinaryTagScope extends AutoCloseable {
     private NoOp() {
     }
 
+    @Override
+    public void countTags(final int count) {
+    }
+
     @Override
     public void close() {
 
@@ -23,7 +23,12 @@
  */
 package net.kyori.adventure.nbt;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -81,19 +86,7 @@ public final class BinaryTagTypes {
    *
    * @since 4.0.0
    */
-  @SuppressWarnings("try")
-  public static final BinaryTagType<ByteArrayBinaryTag> BYTE_ARRAY = BinaryTagType.register(ByteArrayBinaryTag.class, (byte) 7, input -> {
-    final int length = input.readInt();
-    try(final BinaryTagScope ignored = TrackingDataInput.enter(input, length)) {
-      final byte[] value = new byte[length];
-      input.readFully(value);
-      return ByteArrayBinaryTag.of(value);
-    }
-  }, (tag, output) -> {
-    final byte[] value = ByteArrayBinaryTagImpl.value(tag);
-    output.writeInt(value.length);
-    output.write(value);
-  });
+  public static final BinaryTagType<ByteArrayBinaryTag> BYTE_ARRAY = BinaryTagType.register(ByteArrayBinaryTag.class, (byte) 7, input -> ByteArrayBinaryTag.of(readByteArray(input)), (tag, output) -> writeByteArray(ByteArrayBinaryTagImpl.value(tag), output));
   /**
    * {@link StringBinaryTag}.
    *
@@ -109,8 +102,11 @@ public final class BinaryTagTypes {
   public static final BinaryTagType<ListBinaryTag> LIST = BinaryTagType.register(ListBinaryTag.class, (byte) 9, input -> {
     final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(input.readByte());
     final int length = input.readInt();
-    try(final BinaryTagScope ignored = TrackingDataInput.enter(input, length * 8L)) {
-      final List<BinaryTag> tags = new ArrayList<>(length);
+    try(final BinaryTagScope ignored = TrackingDataInput.enterList(input, type, length)) {
+      if(ParallelListDecoder.eligible(input, type, length)) {
+        return ListBinaryTag.of(type, ParallelListDecoder.decode((TrackingDataInput) input, type, length));
+      }
+      final List<BinaryTag> tags = new ArrayList<>(initialCapacity(length));
       for(int i = 0; i < length; i++) {
         tags.add(type.read(input));
       }
@@ -131,10 +127,11 @@ public final class BinaryTagTypes {
    */
   @SuppressWarnings("try")
   public static final BinaryTagType<CompoundBinaryTag> COMPOUND = BinaryTagType.register(CompoundBinaryTag.class, (byte) 10, input -> {
-    try(final BinaryTagScope ignored = TrackingDataInput.enter(input)) {
+    try(final BinaryTagScope scope = TrackingDataInput.enter(input)) {
       final Map<String, BinaryTag> tags = new HashMap<>();
       BinaryTagType<? extends BinaryTag> type;
       while((type = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
+        scope.countTags(1);
         final String key = input.readUTF();
         final BinaryTag tag = type.read(input);
         tags.put(key, tag);
@@ -160,48 +157,189 @@ public final class BinaryTagTypes {
    *
    * @since 4.0.0
    */
+  public static final BinaryTagType<IntArrayBinaryTag> INT_ARRAY = BinaryTagType.register(IntArrayBinaryTag.class, (byte) 11, input -> IntArrayBinaryTag.of(readIntArray(input)), (tag, output) -> writeIntArray(IntArrayBinaryTagImpl.value(tag), output));
+  /**
+   * {@link LongArrayBinaryTag}.
+   *
+   * @since 4.0.0
+   */
+  public static final BinaryTagType<LongArrayBinaryTag> LONG_ARRAY = BinaryTagType.register(LongArrayBinaryTag.class, (byte) 12, input -> LongArrayBinaryTag.of(readLongArray(input)), (tag, output) -> writeLongArray(LongArrayBinaryTagImpl.value(tag), output));
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private BinaryTagTypes() {
+  }
+
+  // lengths are read from the input, so storage is only allocated up front for a few elements and then grown
+  // as elements are actually read: a hostile length fails at the end of the input instead of exhausting memory
+  static int initialCapacity(final int length) {
+    return Math.min(length, INITIAL_CAPACITY);
+  }
+
+  private static int grow(final int capacity, final int length) {
+    return (int) Math.min(length, capacity * 2L);
+  }
+
   @SuppressWarnings("try")
-  public static final BinaryTagType<IntArrayBinaryTag> INT_ARRAY = BinaryTagType.register(IntArrayBinaryTag.class, (byte) 11, input -> {
+  static byte[] readByteArray(final DataInput input) throws IOException {
     final int length = input.readInt();
-    try(final BinaryTagScope ignored = TrackingDataInput.enter(input, length * 4L)) {
-      final int[] value = new int[length];
-      for(int i = 0; i < length; i++) {
-        value[i] = input.readInt();
+    try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 1)) {
+      byte[] value = new byte[initialCapacity(length)];
+      for(int read = 0; read < length; ) {
+        if(read == value.length) value = Arrays.copyOf(value, grow(read, length));
+        input.readFully(value, read, value.length - read);
+        read = value.length;
       }
-      return IntArrayBinaryTag.of(value);
+      return value;
     }
-  }, (tag, output) -> {
-    final int[] value = IntArrayBinaryTagImpl.value(tag);
+  }
+
+  static void writeByteArray(final byte[] value, final DataOutput output) throws IOException {
+    output.writeInt(value.length);
+    output.write(value);
+  }
+
+  @SuppressWarnings("try")
+  static int[] readIntArray(final DataInput input) throws IOException {
+    final int length = input.readInt();
+    try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 4)) {
+      int[] value = new int[initialCapacity(length)];
+      for(int read = 0; read < length; ) {
+        if(read == value.length) value = Arrays.copyOf(value, grow(read, length));
+        if(input instanceof TrackingDataInput) {
+          ((TrackingDataInput) input).readInts(value, read, value.length - read);
+        } else {
+          for(int i = read; i < value.length; i++) {
+            value[i] = input.readInt();
+          }
+        }
+        read = value.length;
+      }
+      return value;
+    }
+  }
+
+  static void writeIntArray(final int[] value, final DataOutput output) throws IOException {
     final int length = value.length;
     output.writeInt(length);
     for(int i = 0; i < length; i++) {
       output.writeInt(value[i]);
     }
-  });
-  /**
-   * {@link LongArrayBinaryTag}.
-   *
-   * @since 4.0.0
-   */
+  }
+
   @SuppressWarnings("try")
-  public static final BinaryTagType<LongArrayBinaryTag> LONG_ARRAY = BinaryTagType.register(LongArrayBinaryTag.class, (byte) 12, input -> {
+  static long[] readLongArray(final DataInput input) throws IOException {
     final int length = input.readInt();
-    try(final BinaryTagScope ignored = TrackingDataInput.enter(input, length * 8L)) {
-      final long[] value = new long[length];
-      for(int i = 0; i < length; i++) {
-        value[i] = input.readLong();
+    try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 8)) {
+      long[] value = new long[initialCapacity(length)];
+      for(int read = 0; read < length; ) {
+        if(read == value.length) value = Arrays.copyOf(value, grow(read, length));
+        if(input instanceof TrackingDataInput) {
+          ((TrackingDataInput) input).readLongs(value, read, value.length - read);
+        } else {
+          for(int i = read; i < value.length; i++) {
+            value[i] = input.readLong();
+          }
+        }
+        read = value.length;
       }
-      return LongArrayBinaryTag.of(value);
+      return value;
     }
-  }, (tag, output) -> {
-    final long[] value = LongArrayBinaryTagImpl.value(tag);
+  }
+
+  static void writeLongArray(final long[] value, final DataOutput output) throws IOException {
     final int length = value.length;
     output.writeInt(length);
     for(int i = 0; i < length; i++) {
       output.writeLong(value[i]);
     }
-  });
+  }
 
-  private BinaryTagTypes() {
+  /**
+   * Skips over the payload of a tag of {@code type} without creating any tags.
+   *
+   * @param type the tag type
+   * @param input the input
+   * @throws IOException if an exception was encountered while reading
+   */
+  @SuppressWarnings("try")
+  static void skip(final BinaryTagType<? extends BinaryTag> type, final DataInput input) throws IOException {
+    switch(type.id()) {
+      case 0: break; // END
+      case 1: input.readByte(); break; // BYTE
+      case 2: input.readShort(); break; // SHORT
+      case 3: input.readInt(); break; // INT
+      case 4: input.readLong(); break; // LONG
+      case 5: input.readFloat(); break; // FLOAT
+      case 6: input.readDouble(); break; // DOUBLE
+      case 7: skipArray(input, 1); break; // BYTE_ARRAY
+      case 8: skipBytes(input, TrackingDataInput.readStringLength(input)); break; // STRING
+      case 9: { // LIST
+        final BinaryTagType<? extends BinaryTag> elementType = BinaryTagType.of(input.readByte());
+        final int length = input.readInt();
+        try(final BinaryTagScope ignored = TrackingDataInput.enterList(input, elementType, length)) {
+          for(int i = 0; i < length; i++) {
+            skip(elementType, input);
+          }
+        }
+        break;
+      }
+      case 10: { // COMPOUND
+        try(final BinaryTagScope scope = TrackingDataInput.enter(input)) {
+          BinaryTagType<? extends BinaryTag> entryType;
+          while((entryType = BinaryTagType.of(input.readByte())) != END) {
+            scope.countTags(1);
+            skipBytes(input, TrackingDataInput.readStringLength(input));
+            skip(entryType, input);
+          }
+        }
+        break;
+      }
+      case 11: skipArray(input, 4); break; // INT_ARRAY
+      case 12: skipArray(input, 8); break; // LONG_ARRAY
+      default: throw new IllegalArgumentException(String.valueOf(type.id()));
+    }
+  }
+
+  /**
+   * Gets the minimum number of bytes the payload of a tag of {@code type} occupies.
+   *
+   * @param type the tag type
+   * @return the minimum size, in bytes
+   */
+  static int minimumSize(final BinaryTagType<? extends BinaryTag> type) {
+    switch(type.id()) {
+      case 0: return 0; // END
+      case 1: return 1; // BYTE
+      case 2: return 2; // SHORT
+      case 3: return 4; // INT
+      case 4: return 8; // LONG
+      case 5: return 4; // FLOAT
+      case 6: return 8; // DOUBLE
+      case 7: return 4; // BYTE_ARRAY
+      case 8: return 2; // STRING
+      case 9: return 5; // LIST
+      case 10: return 1; // COMPOUND
+      case 11: return 4; // INT_ARRAY
+      case 12: return 4; // LONG_ARRAY
+      default: throw new IllegalArgumentException(String.valueOf(type.id()));
+    }
+  }
+
+  @SuppressWarnings("try")
+  private static void skipArray(final DataInput input, final int elementSize) throws IOException {
+    final int length = input.readInt();
+    try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, elementSize)) {
+      skipBytes(input, length * (long) elementSize);
+    }
+  }
+
+  private static void skipBytes(final DataInput input, long length) throws IOException {
+    while(length > 0) {
+      final int skipped = input.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+      if(skipped <= 0) {
+        throw new EOFException();
+      }
+      length -= skipped;
+    }
   }
 }
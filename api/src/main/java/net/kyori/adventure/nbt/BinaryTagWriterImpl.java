@@ -79,4 +79,26 @@ final class BinaryTagWriterImpl implements BinaryTagIO.Writer {
     output.writeUTF(tag.getKey());
     BinaryTagTypes.COMPOUND.write(tag.getValue(), output);
   }
+
+  @Override
+  public <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull Path path, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    try(final OutputStream os = Files.newOutputStream(path)) {
+      this.write(value, codec, os, compression);
+    }
+  }
+
+  @Override
+  public <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull OutputStream output, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    try(final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(compression.compress(closeShield(output))))) {
+      this.write(value, codec, (DataOutput) dos);
+    }
+  }
+
+  @Override
+  public <T> void write(final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final @NonNull DataOutput output) throws IOException {
+    BinaryTagCodecImpl.requireCompound(codec);
+    output.writeByte(BinaryTagTypes.COMPOUND.id());
+    output.writeUTF(""); // write empty name
+    codec.write(value, output);
+  }
 }
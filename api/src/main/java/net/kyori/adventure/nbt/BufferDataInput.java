@@ -0,0 +1,158 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@link DataInput} reading from a region of a byte array, which exposes its position.
+ */
+final class BufferDataInput implements DataInput {
+  private final byte[] array;
+  private final int limit;
+  private int position;
+
+  BufferDataInput(final byte[] array, final int position, final int limit) {
+    this.array = array;
+    this.position = position;
+    this.limit = limit;
+  }
+
+  byte[] array() {
+    return this.array;
+  }
+
+  int position() {
+    return this.position;
+  }
+
+  int remaining() {
+    return this.limit - this.position;
+  }
+
+  private int advance(final int length) throws EOFException {
+    final int position = this.position;
+    if(length > this.limit - position) {
+      throw new EOFException();
+    }
+    this.position = position + length;
+    return position;
+  }
+
+  @Override
+  public void readFully(final byte@NonNull[] b) throws IOException {
+    this.readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(final byte@NonNull[] b, final int off, final int len) throws IOException {
+    System.arraycopy(this.array, this.advance(len), b, off, len);
+  }
+
+  @Override
+  public int skipBytes(final int n) {
+    final int skipped = Math.max(0, Math.min(n, this.limit - this.position));
+    this.position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return this.readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    return this.array[this.advance(1)];
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return this.readByte() & 0xff;
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    return (short) this.readUnsignedShort();
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    final int i = this.advance(2);
+    return ((this.array[i] & 0xff) << 8) | (this.array[i + 1] & 0xff);
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    return (char) this.readUnsignedShort();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    final int i = this.advance(4);
+    final byte[] a = this.array;
+    return ((a[i] & 0xff) << 24) | ((a[i + 1] & 0xff) << 16) | ((a[i + 2] & 0xff) << 8) | (a[i + 3] & 0xff);
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    return ((long) this.readInt() << 32) | (this.readInt() & 0xffffffffL);
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat(this.readInt());
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(this.readLong());
+  }
+
+  @Override
+  public @Nullable String readLine() throws IOException {
+    if(this.position >= this.limit) return null;
+    final StringBuilder sb = new StringBuilder();
+    while(this.position < this.limit) {
+      final char c = (char) (this.array[this.position++] & 0xff);
+      if(c == '\n') break;
+      if(c == '\r') {
+        if(this.position < this.limit && this.array[this.position] == '\n') this.position++;
+        break;
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public @NonNull String readUTF() throws IOException {
+    return DataInputStream.readUTF(this);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodes the elements of large lists concurrently.
+ *
+ * <p>Only lists read from an in-memory buffer are eligible. The list is first scanned to find the
+ * boundaries of each element, which also enforces the limits of the reader, then ranges of elements are
+ * decoded on a {@link ForkJoinPool}.</p>
+ */
+final class ParallelListDecoder {
+  private static final int MIN_TASK_SIZE = 64;
+
+  private ParallelListDecoder() {
+  }
+
+  static boolean eligible(final DataInput input, final BinaryTagType<? extends BinaryTag> type, final int length) {
+    return input instanceof TrackingDataInput
+      && (type == BinaryTagTypes.COMPOUND || type == BinaryTagTypes.LIST)
+      && ((TrackingDataInput) input).parallel(length);
+  }
+
+  static List<BinaryTag> decode(final TrackingDataInput input, final BinaryTagType<? extends BinaryTag> type, final int length) throws IOException {
+    final BufferDataInput buffer = (BufferDataInput) input.input();
+    if(length * (long) BinaryTagTypes.minimumSize(type) > buffer.remaining()) {
+      // checked before allocating the offsets, as the length has not been validated against the input yet
+      throw new EOFException("NBT list of " + length + " elements is longer than the remaining input");
+    }
+    final int[] offsets = new int[length + 1];
+    // skipping through the tracking input checks every length prefix, including those of strings, against the limits
+    for(int i = 0; i < length; i++) {
+      offsets[i] = buffer.position();
+      BinaryTagTypes.skip(type, input);
+    }
+    offsets[length] = buffer.position();
+
+    final ForkJoinPool pool = input.pool();
+    final int taskSize = Math.max(MIN_TASK_SIZE, length / (pool.getParallelism() * 4));
+    final BinaryTag[] tags = new BinaryTag[length];
+    try {
+      pool.invoke(new Task(buffer.array(), offsets, type, tags, 0, length, taskSize));
+    } catch(final UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    return Arrays.asList(tags);
+  }
+
+  static final class Task extends RecursiveAction {
+    private static final long serialVersionUID = 3166384470916271447L;
+    private final byte[] array;
+    private final int[] offsets;
+    private final BinaryTagType<? extends BinaryTag> type;
+    private final BinaryTag[] tags;
+    private final int from;
+    private final int to;
+    private final int taskSize;
+
+    Task(final byte[] array, final int[] offsets, final BinaryTagType<? extends BinaryTag> type, final BinaryTag[] tags, final int from, final int to, final int taskSize) {
+      this.array = array;
+      this.offsets = offsets;
+      this.type = type;
+      this.tags = tags;
+      this.from = from;
+      this.to = to;
+      this.taskSize = taskSize;
+    }
+
+    @Override
+    protected void compute() {
+      final int count = this.to - this.from;
+      if(count > this.taskSize) {
+        final int middle = this.from + count / 2;
+        invokeAll(
+          new Task(this.array, this.offsets, this.type, this.tags, this.from, middle, this.taskSize),
+          new Task(this.array, this.offsets, this.type, this.tags, middle, this.to, this.taskSize)
+        );
+        return;
+      }
+      // the elements were validated while scanning, so they can be read without tracking
+      final BufferDataInput input = new BufferDataInput(this.array, this.offsets[this.from], this.offsets[this.to]);
+      try {
+        for(int i = this.from; i < this.to; i++) {
+          this.tags[i] = this.type.read(input);
+        }
+      } catch(final IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+}
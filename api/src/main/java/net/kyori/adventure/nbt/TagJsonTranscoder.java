@@ -0,0 +1,694 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import static net.kyori.adventure.nbt.IOStreamUtil.closeShield;
+
+/**
+ * A transcoder streaming between the binary tag format and JSON.
+ *
+ * <p>Tags are read from a {@link DataInput} and emitted straight to a {@link JsonWriter}, and JSON read from a
+ * {@link JsonReader} is written straight to a {@link DataOutput}, without building a {@link CompoundBinaryTag}
+ * or a Gson tree in between. String tags are supported by parsing them with {@link TagStringIO} and
+ * transcoding the resulting tag with {@link #toJson(CompoundBinaryTag, JsonWriter)}.</p>
+ *
+ * <p>JSON has a single number type and no arrays of fixed element type, so by default the conversion is lossy:
+ * all numbers are written as JSON numbers, arrays are written as JSON arrays, and when reading JSON integral numbers
+ * become int tags (or long tags when out of range), other numbers become double tags, booleans become byte tags,
+ * {@code null} entries are skipped and arrays become list tags. The typing convention of the string tag format can
+ * be enabled to preserve types:</p>
+ *
+ * <ul>
+ *   <li>with {@link Builder#typedNumbers(boolean)}, byte, short, long and float tags are written as strings with a
+ *     type suffix, such as {@code "1b"}, {@code "2s"}, {@code "3L"} and {@code "4.5f"}, and double tags are always
+ *     written with a fractional part. Be aware that string tags which look like typed numbers are then read back
+ *     as numbers.</li>
+ *   <li>with {@link Builder#typedArrays(boolean)}, array tags are written as JSON arrays whose first element is
+ *     the array type, {@code "B;"}, {@code "I;"} or {@code "L;"}.</li>
+ * </ul>
+ *
+ * <p>Float and double tags holding NaN or an infinity cannot be represented, and are rejected when writing JSON.</p>
+ *
+ * @since 4.8.0
+ */
+public final class TagJsonTranscoder {
+  private static final TagJsonTranscoder INSTANCE = new TagJsonTranscoder(new Builder());
+  private static final String BYTE_ARRAY_PREFIX = "B" + Tokens.ARRAY_SIGNATURE_SEPARATOR;
+  private static final String INT_ARRAY_PREFIX = "I" + Tokens.ARRAY_SIGNATURE_SEPARATOR;
+  private static final String LONG_ARRAY_PREFIX = "L" + Tokens.ARRAY_SIGNATURE_SEPARATOR;
+
+  /**
+   * Get an instance of {@link TagJsonTranscoder} using untyped numbers and arrays.
+   *
+   * @return the basic instance
+   * @since 4.8.0
+   */
+  public static @NonNull TagJsonTranscoder get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Create a new builder to configure a transcoder.
+   *
+   * @return a builder
+   * @since 4.8.0
+   */
+  public static @NonNull Builder builder() {
+    return new Builder();
+  }
+
+  private final boolean typedNumbers;
+  private final boolean typedArrays;
+
+  private TagJsonTranscoder(final @NonNull Builder builder) {
+    this.typedNumbers = builder.typedNumbers;
+    this.typedArrays = builder.typedArrays;
+  }
+
+  /**
+   * Transcodes a root compound tag, in the binary tag format, to JSON.
+   *
+   * <p>The name of the root tag is discarded.</p>
+   *
+   * @param input the input to read the tag from
+   * @param output the writer to write JSON to
+   * @throws IOException if the tag could not be read, or JSON could not be written
+   * @since 4.8.0
+   */
+  public void toJson(final @NonNull DataInput input, final @NonNull JsonWriter output) throws IOException {
+    final DataInput tracking = input instanceof TrackingDataInput ? input : new TrackingDataInput(input, (BinaryTagReaderImpl) BinaryTagReaderImpl.UNLIMITED);
+    final BinaryTagType<? extends BinaryTag> type = BinaryTagType.of(tracking.readByte());
+    if(type != BinaryTagTypes.COMPOUND) {
+      throw new IOException(String.format("Expected root tag to be a %s, was %s", BinaryTagTypes.COMPOUND, type));
+    }
+    tracking.skipBytes(tracking.readUnsignedShort()); // skip name
+    this.writePayload(type, tracking, output);
+  }
+
+  /**
+   * Transcodes a root compound tag, in the binary tag format, to JSON.
+   *
+   * <p>The provided input stream will remain open.</p>
+   *
+   * @param input the input stream to read the tag from
+   * @param compression the compression of the input
+   * @param output the writer to write JSON to
+   * @throws IOException if the tag could not be read, or JSON could not be written
+   * @since 4.8.0
+   */
+  public void toJson(final @NonNull InputStream input, final BinaryTagIO.@NonNull Compression compression, final @NonNull JsonWriter output) throws IOException {
+    try(final DataInputStream dis = new DataInputStream(new BufferedInputStream(compression.decompress(closeShield(input))))) {
+      this.toJson((DataInput) dis, output);
+    }
+  }
+
+  /**
+   * Transcodes a compound tag to JSON.
+   *
+   * @param tag the tag
+   * @param output the writer to write JSON to
+   * @throws IOException if JSON could not be written
+   * @since 4.8.0
+   */
+  public void toJson(final @NonNull CompoundBinaryTag tag, final @NonNull JsonWriter output) throws IOException {
+    this.writeTag(tag, output);
+  }
+
+  /**
+   * Transcodes a JSON object to a root compound tag, in the binary tag format.
+   *
+   * <p>The root tag is written with an empty name.</p>
+   *
+   * @param input the reader to read JSON from
+   * @param output the output to write the tag to
+   * @throws IOException if the JSON is malformed or cannot be represented as a tag, or the tag could not be written
+   * @since 4.8.0
+   */
+  public void fromJson(final @NonNull JsonReader input, final @NonNull DataOutput output) throws IOException {
+    if(input.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new IOException("Expected a JSON object at " + input.getPath() + ", was " + input.peek());
+    }
+    output.writeByte(BinaryTagTypes.COMPOUND.id());
+    output.writeUTF(""); // write empty name
+    this.readCompound(input, output, 0);
+  }
+
+  /**
+   * Transcodes a JSON object to a root compound tag, in the binary tag format.
+   *
+   * <p>The provided output stream will remain open.</p>
+   *
+   * @param input the reader to read JSON from
+   * @param output the output stream to write the tag to
+   * @param compression the compression to use
+   * @throws IOException if the JSON is malformed or cannot be represented as a tag, or the tag could not be written
+   * @since 4.8.0
+   */
+  public void fromJson(final @NonNull JsonReader input, final @NonNull OutputStream output, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    try(final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(compression.compress(closeShield(output))))) {
+      this.fromJson(input, (DataOutput) dos);
+    }
+  }
+
+  /**
+   * Transcodes a JSON object to a compound tag.
+   *
+   * @param input the reader to read JSON from
+   * @return the tag
+   * @throws IOException if the JSON is malformed or cannot be represented as a tag
+   * @since 4.8.0
+   */
+  public @NonNull CompoundBinaryTag fromJson(final @NonNull JsonReader input) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    this.fromJson(input, (DataOutput) new DataOutputStream(bytes));
+    return BinaryTagReaderImpl.UNLIMITED.read(bytes.toByteArray(), BinaryTagIO.Compression.NONE);
+  }
+
+  // binary -> json
+
+  @SuppressWarnings("try")
+  private void writePayload(final BinaryTagType<? extends BinaryTag> type, final DataInput input, final JsonWriter output) throws IOException {
+    switch(type.id()) {
+      case 1: this.writeByte(input.readByte(), output); break; // BYTE
+      case 2: this.writeShort(input.readShort(), output); break; // SHORT
+      case 3: output.value(input.readInt()); break; // INT
+      case 4: this.writeLong(input.readLong(), output); break; // LONG
+      case 5: this.writeFloat(input.readFloat(), output); break; // FLOAT
+      case 6: writeDouble(input.readDouble(), output); break; // DOUBLE
+      case 7: { // BYTE_ARRAY
+        final int length = input.readInt();
+        try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 1)) {
+          this.beginArray(BYTE_ARRAY_PREFIX, output);
+          for(int i = 0; i < length; i++) {
+            output.value(input.readByte());
+          }
+          output.endArray();
+        }
+        break;
+      }
+      case 8: output.value(input.readUTF()); break; // STRING
+      case 9: { // LIST
+        final BinaryTagType<? extends BinaryTag> elementType = BinaryTagType.of(input.readByte());
+        final int length = input.readInt();
+        try(final BinaryTagScope ignored = TrackingDataInput.enterList(input, elementType, length)) {
+          output.beginArray();
+          for(int i = 0; i < length; i++) {
+            this.writePayload(elementType, input, output);
+          }
+          output.endArray();
+        }
+        break;
+      }
+      case 10: { // COMPOUND
+        try(final BinaryTagScope scope = TrackingDataInput.enter(input)) {
+          output.beginObject();
+          BinaryTagType<? extends BinaryTag> entryType;
+          while((entryType = BinaryTagType.of(input.readByte())) != BinaryTagTypes.END) {
+            scope.countTags(1);
+            output.name(input.readUTF());
+            this.writePayload(entryType, input, output);
+          }
+          output.endObject();
+        }
+        break;
+      }
+      case 11: { // INT_ARRAY
+        final int length = input.readInt();
+        try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 4)) {
+          this.beginArray(INT_ARRAY_PREFIX, output);
+          for(int i = 0; i < length; i++) {
+            output.value(input.readInt());
+          }
+          output.endArray();
+        }
+        break;
+      }
+      case 12: { // LONG_ARRAY
+        final int length = input.readInt();
+        try(final BinaryTagScope ignored = TrackingDataInput.enterArray(input, length, 8)) {
+          this.beginArray(LONG_ARRAY_PREFIX, output);
+          for(int i = 0; i < length; i++) {
+            output.value(input.readLong());
+          }
+          output.endArray();
+        }
+        break;
+      }
+      default: throw new IOException("Unexpected " + type);
+    }
+  }
+
+  // tag -> json
+
+  private void writeTag(final BinaryTag tag, final JsonWriter output) throws IOException {
+    switch(tag.type().id()) {
+      case 1: this.writeByte(((ByteBinaryTag) tag).value(), output); break; // BYTE
+      case 2: this.writeShort(((ShortBinaryTag) tag).value(), output); break; // SHORT
+      case 3: output.value(((IntBinaryTag) tag).value()); break; // INT
+      case 4: this.writeLong(((LongBinaryTag) tag).value(), output); break; // LONG
+      case 5: this.writeFloat(((FloatBinaryTag) tag).value(), output); break; // FLOAT
+      case 6: writeDouble(((DoubleBinaryTag) tag).value(), output); break; // DOUBLE
+      case 7: { // BYTE_ARRAY
+        this.beginArray(BYTE_ARRAY_PREFIX, output);
+        for(final byte value : ByteArrayBinaryTagImpl.value((ByteArrayBinaryTag) tag)) {
+          output.value(value);
+        }
+        output.endArray();
+        break;
+      }
+      case 8: output.value(((StringBinaryTag) tag).value()); break; // STRING
+      case 9: { // LIST
+        output.beginArray();
+        for(final BinaryTag element : (ListBinaryTag) tag) {
+          this.writeTag(element, output);
+        }
+        output.endArray();
+        break;
+      }
+      case 10: { // COMPOUND
+        final CompoundBinaryTag compound = (CompoundBinaryTag) tag;
+        output.beginObject();
+        for(final String key : compound.keySet()) {
+          output.name(key);
+          this.writeTag(compound.get(key), output);
+        }
+        output.endObject();
+        break;
+      }
+      case 11: { // INT_ARRAY
+        this.beginArray(INT_ARRAY_PREFIX, output);
+        for(final int value : IntArrayBinaryTagImpl.value((IntArrayBinaryTag) tag)) {
+          output.value(value);
+        }
+        output.endArray();
+        break;
+      }
+      case 12: { // LONG_ARRAY
+        this.beginArray(LONG_ARRAY_PREFIX, output);
+        for(final long value : LongArrayBinaryTagImpl.value((LongArrayBinaryTag) tag)) {
+          output.value(value);
+        }
+        output.endArray();
+        break;
+      }
+      default: throw new IOException("Unexpected " + tag.type());
+    }
+  }
+
+  private void writeByte(final byte value, final JsonWriter output) throws IOException {
+    if(this.typedNumbers) {
+      output.value(String.valueOf(value) + Tokens.TYPE_BYTE);
+    } else {
+      output.value(value);
+    }
+  }
+
+  private void writeShort(final short value, final JsonWriter output) throws IOException {
+    if(this.typedNumbers) {
+      output.value(String.valueOf(value) + Tokens.TYPE_SHORT);
+    } else {
+      output.value(value);
+    }
+  }
+
+  private void writeLong(final long value, final JsonWriter output) throws IOException {
+    if(this.typedNumbers) {
+      output.value(String.valueOf(value) + Character.toUpperCase(Tokens.TYPE_LONG));
+    } else {
+      output.value(value);
+    }
+  }
+
+  private void writeFloat(final float value, final JsonWriter output) throws IOException {
+    if(Float.isNaN(value) || Float.isInfinite(value)) {
+      throw nonFinite(value);
+    }
+    if(this.typedNumbers) {
+      output.value(String.valueOf(value) + Tokens.TYPE_FLOAT);
+    } else {
+      output.value(Float.valueOf(value)); // avoid widening, which would write 0.1f as 0.10000000149011612
+    }
+  }
+
+  private static void writeDouble(final double value, final JsonWriter output) throws IOException {
+    if(Double.isNaN(value) || Double.isInfinite(value)) {
+      throw nonFinite(value);
+    }
+    output.value(value);
+  }
+
+  // neither JSON nor the string tag format can represent these, so they could not be read back as the same tag
+  private static IOException nonFinite(final Number value) {
+    return new IOException("Cannot write the non-finite number " + value + " as JSON");
+  }
+
+  private void beginArray(final String prefix, final JsonWriter output) throws IOException {
+    output.beginArray();
+    if(this.typedArrays) {
+      output.value(prefix);
+    }
+  }
+
+  // json -> binary
+
+  private void readCompound(final JsonReader input, final DataOutput output, final int depth) throws IOException {
+    if(depth >= TrackingDataInput.DEFAULT_MAX_DEPTH) {
+      throw new IOException("JSON exceeded the maximum depth of " + TrackingDataInput.DEFAULT_MAX_DEPTH + " at " + input.getPath());
+    }
+    input.beginObject();
+    while(input.hasNext()) {
+      final String name = input.nextName();
+      final JsonToken token = input.peek();
+      if(token == JsonToken.NULL) {
+        input.nextNull();
+      } else if(token == JsonToken.BEGIN_OBJECT) {
+        output.writeByte(BinaryTagTypes.COMPOUND.id());
+        output.writeUTF(name);
+        this.readCompound(input, output, depth + 1);
+      } else {
+        final Object value = token == JsonToken.BEGIN_ARRAY ? this.readArray(input, depth + 1) : this.readScalar(input);
+        output.writeByte(typeOf(value).id());
+        output.writeUTF(name);
+        writeValue(value, output);
+      }
+    }
+    input.endObject();
+    output.writeByte(BinaryTagTypes.END.id());
+  }
+
+  // returns either a ListBuffer, or an array tag
+  private Object readArray(final JsonReader input, final int depth) throws IOException {
+    if(depth >= TrackingDataInput.DEFAULT_MAX_DEPTH) {
+      throw new IOException("JSON exceeded the maximum depth of " + TrackingDataInput.DEFAULT_MAX_DEPTH + " at " + input.getPath());
+    }
+    input.beginArray();
+    final ListBuffer list = new ListBuffer(!this.typedNumbers);
+    if(this.typedArrays && input.hasNext() && input.peek() == JsonToken.STRING) {
+      final String first = input.nextString();
+      if(first.equals(BYTE_ARRAY_PREFIX) || first.equals(INT_ARRAY_PREFIX) || first.equals(LONG_ARRAY_PREFIX)) {
+        final BinaryTag array = readTypedArray(first, input);
+        input.endArray();
+        return array;
+      }
+      list.add(this.typedNumber(first), input);
+    }
+    while(input.hasNext()) {
+      final JsonToken token = input.peek();
+      if(token == JsonToken.BEGIN_OBJECT) {
+        this.readCompound(input, list.element(BinaryTagTypes.COMPOUND, input), depth + 1);
+      } else if(token == JsonToken.BEGIN_ARRAY) {
+        final Object element = this.readArray(input, depth + 1);
+        writeValue(element, list.element(typeOf(element), input));
+      } else {
+        list.add(this.readScalar(input), input);
+      }
+    }
+    input.endArray();
+    return list;
+  }
+
+  private static BinaryTag readTypedArray(final String prefix, final JsonReader input) throws IOException {
+    if(prefix.equals(BYTE_ARRAY_PREFIX)) {
+      byte[] values = new byte[16];
+      int size = 0;
+      while(input.hasNext()) {
+        final int value = input.nextInt();
+        if(value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+          throw new IOException("Byte array element " + value + " is out of range at " + input.getPath());
+        }
+        if(size == values.length) values = Arrays.copyOf(values, size << 1);
+        values[size++] = (byte) value;
+      }
+      return ByteArrayBinaryTag.of(Arrays.copyOf(values, size));
+    } else if(prefix.equals(INT_ARRAY_PREFIX)) {
+      int[] values = new int[16];
+      int size = 0;
+      while(input.hasNext()) {
+        if(size == values.length) values = Arrays.copyOf(values, size << 1);
+        values[size++] = input.nextInt();
+      }
+      return IntArrayBinaryTag.of(Arrays.copyOf(values, size));
+    } else {
+      long[] values = new long[16];
+      int size = 0;
+      while(input.hasNext()) {
+        if(size == values.length) values = Arrays.copyOf(values, size << 1);
+        values[size++] = input.nextLong();
+      }
+      return LongArrayBinaryTag.of(Arrays.copyOf(values, size));
+    }
+  }
+
+  private BinaryTag readScalar(final JsonReader input) throws IOException {
+    switch(input.peek()) {
+      case STRING: return this.typedNumber(input.nextString());
+      case NUMBER: return untypedNumber(input.nextString());
+      case BOOLEAN: return ByteBinaryTag.of(input.nextBoolean() ? (byte) 1 : (byte) 0);
+      default: throw new IOException("Unexpected " + input.peek() + " at " + input.getPath());
+    }
+  }
+
+  // a string, or a number using the type suffixes of the string tag format when enabled
+  private BinaryTag typedNumber(final String value) {
+    final int length = value.length();
+    if(this.typedNumbers && length > 1) {
+      final String number = value.substring(0, length - 1);
+      try {
+        switch(Character.toLowerCase(value.charAt(length - 1))) {
+          case Tokens.TYPE_BYTE: return ByteBinaryTag.of(Byte.parseByte(number));
+          case Tokens.TYPE_SHORT: return ShortBinaryTag.of(Short.parseShort(number));
+          case Tokens.TYPE_LONG: return LongBinaryTag.of(Long.parseLong(number));
+          case Tokens.TYPE_FLOAT: return isFloatingPoint(number) ? FloatBinaryTag.of(Float.parseFloat(number)) : StringBinaryTag.of(value);
+          case Tokens.TYPE_DOUBLE: return isFloatingPoint(number) ? DoubleBinaryTag.of(Double.parseDouble(number)) : StringBinaryTag.of(value);
+          default: break;
+        }
+      } catch(final NumberFormatException ignored) {
+        // not a number, fall through to a string
+      }
+    }
+    return StringBinaryTag.of(value);
+  }
+
+  private static BinaryTag untypedNumber(final String literal) throws IOException {
+    try {
+      if(literal.indexOf('.') == -1 && literal.indexOf('e') == -1 && literal.indexOf('E') == -1) {
+        final long value;
+        try {
+          value = Long.parseLong(literal);
+        } catch(final NumberFormatException ex) {
+          return DoubleBinaryTag.of(Double.parseDouble(literal)); // too large for a long
+        }
+        if(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+          return IntBinaryTag.of((int) value);
+        }
+        return LongBinaryTag.of(value);
+      }
+      return DoubleBinaryTag.of(Double.parseDouble(literal));
+    } catch(final NumberFormatException ex) {
+      throw new IOException("Invalid number " + literal, ex);
+    }
+  }
+
+  // only accept plain decimal numbers, rejecting the words and hexadecimal forms accepted by Double.parseDouble
+  private static boolean isFloatingPoint(final String value) {
+    for(int i = 0, length = value.length(); i < length; i++) {
+      final char c = value.charAt(i);
+      if(!((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+')) {
+        return false;
+      }
+    }
+    return !value.isEmpty();
+  }
+
+  private static BinaryTagType<? extends BinaryTag> typeOf(final Object value) {
+    return value instanceof ListBuffer ? BinaryTagTypes.LIST : ((BinaryTag) value).type();
+  }
+
+  private static void writeValue(final Object value, final DataOutput output) throws IOException {
+    if(value instanceof ListBuffer) {
+      ((ListBuffer) value).writeTo(output);
+    } else {
+      final BinaryTag tag = (BinaryTag) value;
+      BinaryTagType.write(tag.type(), tag, output);
+    }
+  }
+
+  /**
+   * The elements of a list, which must be buffered as the list header contains the element type and count.
+   */
+  static final class ListBuffer {
+    private final boolean widenNumbers;
+    private BinaryTagType<? extends BinaryTag> type = BinaryTagTypes.END;
+    private int size;
+    private @Nullable List<BinaryTag> scalars;
+    private @Nullable ByteArrayOutputStream bytes;
+    private @Nullable DataOutputStream output;
+
+    ListBuffer(final boolean widenNumbers) {
+      this.widenNumbers = widenNumbers;
+    }
+
+    // begin an element which is written directly, returning the output to write it to
+    DataOutput element(final BinaryTagType<? extends BinaryTag> type, final JsonReader input) throws IOException {
+      if(this.size > 0 && type != this.type) {
+        throw this.mismatch(type, input);
+      }
+      if(this.output == null) {
+        this.bytes = new ByteArrayOutputStream();
+        this.output = new DataOutputStream(this.bytes);
+      }
+      this.type = type;
+      this.size++;
+      return this.output;
+    }
+
+    // add a scalar element, widening untyped numbers to the widest type in the list
+    void add(final BinaryTag tag, final JsonReader input) throws IOException {
+      final BinaryTagType<? extends BinaryTag> type = tag.type();
+      if(this.size > 0 && type != this.type) {
+        final int rank = numericRank(type);
+        final int currentRank = numericRank(this.type);
+        if(!this.widenNumbers || rank < 0 || currentRank < 0) {
+          throw this.mismatch(type, input);
+        }
+        if(rank > currentRank) {
+          this.type = type;
+        }
+      } else {
+        this.type = type;
+      }
+      if(this.scalars == null) {
+        this.scalars = new ArrayList<>();
+      }
+      this.scalars.add(tag);
+      this.size++;
+    }
+
+    void writeTo(final DataOutput output) throws IOException {
+      output.writeByte(this.type.id());
+      output.writeInt(this.size);
+      if(this.scalars != null) {
+        for(final BinaryTag tag : this.scalars) {
+          if(this.type == BinaryTagTypes.LONG) {
+            output.writeLong(((NumberBinaryTag) tag).longValue());
+          } else if(this.type == BinaryTagTypes.DOUBLE) {
+            output.writeDouble(((NumberBinaryTag) tag).doubleValue());
+          } else {
+            BinaryTagType.write(this.type, tag, output);
+          }
+        }
+      } else if(this.bytes != null) {
+        if(output instanceof OutputStream) {
+          this.bytes.writeTo((OutputStream) output);
+        } else {
+          output.write(this.bytes.toByteArray());
+        }
+      }
+    }
+
+    private static int numericRank(final BinaryTagType<? extends BinaryTag> type) {
+      if(type == BinaryTagTypes.INT) return 0;
+      if(type == BinaryTagTypes.LONG) return 1;
+      if(type == BinaryTagTypes.DOUBLE) return 2;
+      return -1;
+    }
+
+    private IOException mismatch(final BinaryTagType<? extends BinaryTag> actual, final JsonReader input) {
+      // the reader may already have moved past the element, so point at the element being added instead
+      final String path = input.getPath();
+      final String element = path.substring(0, path.lastIndexOf('[')) + '[' + this.size + ']';
+      return new IOException(String.format("List elements must all be of the same type, expected a %s but was %s at %s", this.type, actual, element));
+    }
+  }
+
+  /**
+   * Builder for a JSON transcoder.
+   *
+   * @since 4.8.0
+   */
+  public static final class Builder {
+    private boolean typedNumbers = false;
+    private boolean typedArrays = false;
+
+    Builder() {
+    }
+
+    /**
+     * Configure whether byte, short, long and float tags are written as strings with a type suffix.
+     *
+     * <p>When enabled, such strings are read back as numbers of the suffixed type.</p>
+     *
+     * @param typedNumbers whether to type numbers
+     * @return this builder
+     * @since 4.8.0
+     */
+    public @NonNull Builder typedNumbers(final boolean typedNumbers) {
+      this.typedNumbers = typedNumbers;
+      return this;
+    }
+
+    /**
+     * Configure whether array tags are written with their type as the first element.
+     *
+     * <p>When enabled, such arrays are read back as array tags instead of list tags.</p>
+     *
+     * @param typedArrays whether to type arrays
+     * @return this builder
+     * @since 4.8.0
+     */
+    public @NonNull Builder typedArrays(final boolean typedArrays) {
+      this.typedArrays = typedArrays;
+      return this;
+    }
+
+    /**
+     * Create a new transcoder from this builder's configuration.
+     *
+     * @return the new transcoder
+     * @since 4.8.0
+     */
+    public @NonNull TagJsonTranscoder build() {
+      return new TagJsonTranscoder(this);
+    }
+  }
+}
@@ -25,19 +25,42 @@ package net.kyori.adventure.nbt;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class TrackingDataInput implements DataInput, BinaryTagScope {
-  private static final int MAX_DEPTH = 512;
+  static final int DEFAULT_MAX_DEPTH = 512;
+  private static final int SCRATCH_SIZE = 8192;
   private final DataInput input;
   private final long maxLength;
+  private final int maxDepth;
+  private final int maxListLength;
+  private final int maxArrayLength;
+  private final int maxStringLength;
+  private final long maxTagCount;
+  private final @Nullable ForkJoinPool pool;
+  private final int parallelThreshold;
+  private byte@Nullable[] scratch;
+  private char@Nullable[] chars;
   private long counter;
+  private long tagCount;
   private int depth;
 
-  TrackingDataInput(final DataInput input, final long maxLength) {
+  TrackingDataInput(final DataInput input, final BinaryTagReaderImpl reader) {
     this.input = input;
-    this.maxLength = maxLength;
+    this.maxLength = reader.maxBytes;
+    this.maxDepth = reader.maxDepth;
+    this.maxListLength = reader.maxListLength;
+    this.maxArrayLength = reader.maxArrayLength;
+    this.maxStringLength = reader.maxStringLength;
+    this.maxTagCount = reader.maxTagCount;
+    this.pool = reader.pool;
+    this.parallelThreshold = reader.parallelThreshold;
   }
 
   public static BinaryTagScope enter(final DataInput input) throws IOException {
@@ -56,14 +79,74 @@ final class TrackingDataInput implements DataInput, BinaryTagScope {
     }
   }
 
+  // enter a list, validating its header before any storage is allocated for the elements
+  public static BinaryTagScope enterList(final DataInput input, final BinaryTagType<? extends BinaryTag> elementType, final int length) throws IOException {
+    if(length < 0) {
+      throw new IOException("NBT list had a negative length of " + length);
+    }
+    if(elementType == BinaryTagTypes.END && length > 0) {
+      throw new IOException("NBT list of " + length + " elements was missing an element type");
+    }
+    if(input instanceof TrackingDataInput) {
+      final TrackingDataInput tracking = (TrackingDataInput) input;
+      if(length > tracking.maxListLength) {
+        throw new IOException("NBT list length of " + length + " exceeded the maximum of " + tracking.maxListLength);
+      }
+      tracking.countTags(length);
+      return tracking.enter(length * (long) BinaryTagTypes.minimumSize(elementType));
+    } else {
+      return NoOp.INSTANCE;
+    }
+  }
+
+  // enter an array, validating its length before any storage is allocated for the elements
+  public static BinaryTagScope enterArray(final DataInput input, final int length, final int elementSize) throws IOException {
+    if(length < 0) {
+      throw new IOException("NBT array had a negative length of " + length);
+    }
+    if(input instanceof TrackingDataInput) {
+      final TrackingDataInput tracking = (TrackingDataInput) input;
+      if(length > tracking.maxArrayLength) {
+        throw new IOException("NBT array length of " + length + " exceeded the maximum of " + tracking.maxArrayLength);
+      }
+      return tracking.enter(length * (long) elementSize);
+    } else {
+      return NoOp.INSTANCE;
+    }
+  }
+
+  // read the length prefix of a string, validating it before the string is read or skipped
+  public static int readStringLength(final DataInput input) throws IOException {
+    final int length = input.readUnsignedShort();
+    if(input instanceof TrackingDataInput) {
+      ((TrackingDataInput) input).checkStringLength(length);
+    }
+    return length;
+  }
+
+  private void checkStringLength(final int length) throws IOException {
+    if(length > this.maxStringLength) {
+      throw new IOException("NBT string length of " + length + " bytes exceeded the maximum of " + this.maxStringLength);
+    }
+  }
+
   public DataInput input() {
     return this.input;
   }
 
+  // whether a list of this length should be decoded concurrently
+  boolean parallel(final int length) {
+    return this.pool != null && length >= this.parallelThreshold && this.input instanceof BufferDataInput;
+  }
+
+  ForkJoinPool pool() {
+    return this.pool;
+  }
+
   // enter a nesting level that pre-allocates storage
   public TrackingDataInput enter(final long expectedSize) throws IOException {
-    if(this.depth++ > MAX_DEPTH) {
-      throw new IOException("NBT read exceeded maximum depth of " + MAX_DEPTH);
+    if(this.depth++ > this.maxDepth) {
+      throw new IOException("NBT read exceeded maximum depth of " + this.maxDepth);
     }
 
     this.ensureMaxLength(expectedSize);
@@ -71,8 +154,8 @@ final class TrackingDataInput implements DataInput, BinaryTagScope {
   }
 
   public TrackingDataInput enter() throws IOException {
-    if(this.depth++ > MAX_DEPTH) {
-      throw new IOException("NBT read exceeded maximum depth of " + MAX_DEPTH);
+    if(this.depth++ > this.maxDepth) {
+      throw new IOException("NBT read exceeded maximum depth of " + this.maxDepth);
     }
     this.ensureMaxLength(0);
     return this;
@@ -83,12 +166,54 @@ final class TrackingDataInput implements DataInput, BinaryTagScope {
     this.ensureMaxLength(0);
   }
 
+  @Override
+  public void countTags(final int count) throws IOException {
+    this.tagCount += count;
+    if(this.tagCount > this.maxTagCount) {
+      throw new IOException("The read NBT contained more than the maximum allowed number of " + this.maxTagCount + " tags!");
+    }
+  }
+
   private void ensureMaxLength(final long expected) throws IOException {
     if(this.maxLength > 0 && this.counter + expected > this.maxLength) {
       throw new IOException("The read NBT was longer than the maximum allowed size of " + this.maxLength + " bytes!");
     }
   }
 
+  private byte[] scratch(final int length) {
+    byte[] scratch = this.scratch;
+    if(scratch == null || scratch.length < length) {
+      scratch = this.scratch = new byte[Math.max(length, SCRATCH_SIZE)];
+    }
+    return scratch;
+  }
+
+  // bulk reads, accounted once per chunk rather than once per element
+
+  void readInts(final int[] array, final int off, final int len) throws IOException {
+    final byte[] scratch = this.scratch(Math.min(len * 4, SCRATCH_SIZE));
+    final IntBuffer view = ByteBuffer.wrap(scratch).asIntBuffer();
+    for(int offset = off, end = off + len; offset < end; ) {
+      final int count = Math.min(end - offset, scratch.length / 4);
+      this.readFully(scratch, 0, count * 4);
+      view.position(0);
+      view.get(array, offset, count);
+      offset += count;
+    }
+  }
+
+  void readLongs(final long[] array, final int off, final int len) throws IOException {
+    final byte[] scratch = this.scratch(Math.min(len * 8, SCRATCH_SIZE));
+    final LongBuffer view = ByteBuffer.wrap(scratch).asLongBuffer();
+    for(int offset = off, end = off + len; offset < end; ) {
+      final int count = Math.min(end - offset, scratch.length / 8);
+      this.readFully(scratch, 0, count * 8);
+      view.position(0);
+      view.get(array, offset, count);
+      offset += count;
+    }
+  }
+
   @Override
   public void readFully(final byte@NonNull[] array) throws IOException {
     this.counter += array.length;
@@ -103,7 +228,9 @@ final class TrackingDataInput implements DataInput, BinaryTagScope {
 
   @Override
   public int skipBytes(final int n) throws IOException {
-    return this.input.skipBytes(n);
+    final int skipped = this.input.skipBytes(n);
+    this.counter += skipped;
+    return skipped;
   }
 
   @Override
@@ -177,9 +304,45 @@ final class TrackingDataInput implements DataInput, BinaryTagScope {
 
   @Override
   public @NonNull String readUTF() throws IOException {
-    final String result = this.input.readUTF();
-    this.counter += (result.length() * 2L) + 2; // not entirely accurate, but the closest we can get without doing implementation details
-    return result;
+    final int length = this.readUnsignedShort();
+    this.checkStringLength(length);
+    this.ensureMaxLength(length);
+    final byte[] bytes = this.scratch(length);
+    this.readFully(bytes, 0, length);
+    char[] chars = this.chars;
+    if(chars == null || chars.length < length) {
+      chars = this.chars = new char[Math.max(length, SCRATCH_SIZE)];
+    }
+    return decodeUTF(bytes, length, chars);
+  }
+
+  // decodes modified UTF-8, as specified by DataInput#readUTF
+  private static String decodeUTF(final byte[] bytes, final int length, final char[] chars) throws UTFDataFormatException {
+    int index = 0;
+    int count = 0;
+    while(index < length) {
+      final int a = bytes[index] & 0xff;
+      if(a < 0x80) {
+        chars[count++] = (char) a;
+        index++;
+      } else if((a & 0xe0) == 0xc0) {
+        if(index + 1 >= length) throw new UTFDataFormatException("malformed input: partial character at end");
+        final int b = bytes[index + 1];
+        if((b & 0xc0) != 0x80) throw new UTFDataFormatException("malformed input around byte " + index);
+        chars[count++] = (char) (((a & 0x1f) << 6) | (b & 0x3f));
+        index += 2;
+      } else if((a & 0xf0) == 0xe0) {
+        if(index + 2 >= length) throw new UTFDataFormatException("malformed input: partial character at end");
+        final int b = bytes[index + 1];
+        final int c = bytes[index + 2];
+        if((b & 0xc0) != 0x80 || (c & 0xc0) != 0x80) throw new UTFDataFormatException("malformed input around byte " + index);
+        chars[count++] = (char) (((a & 0x0f) << 12) | ((b & 0x3f) << 6) | (c & 0x3f));
+        index += 3;
+      } else {
+        throw new UTFDataFormatException("malformed input around byte " + index);
+      }
+    }
+    return new String(chars, 0, count);
   }
 
   @Override
@@ -0,0 +1,68 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt.region;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * An input stream reading the remaining bytes of a buffer.
+ */
+final class ByteBufferInputStream extends InputStream {
+  private final ByteBuffer buffer;
+
+  ByteBufferInputStream(final ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  @Override
+  public int read() {
+    if(!this.buffer.hasRemaining()) return -1;
+    return this.buffer.get() & 0xff;
+  }
+
+  @Override
+  public int read(final byte@NonNull[] b, final int off, final int len) {
+    if(len == 0) return 0;
+    final int remaining = this.buffer.remaining();
+    if(remaining == 0) return -1;
+    final int count = Math.min(len, remaining);
+    this.buffer.get(b, off, count);
+    return count;
+  }
+
+  @Override
+  public long skip(final long n) {
+    if(n <= 0) return 0;
+    final int count = (int) Math.min(n, this.buffer.remaining());
+    this.buffer.position(this.buffer.position() + count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return this.buffer.remaining();
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt.region;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import net.kyori.adventure.nbt.BinaryTagCodec;
+import net.kyori.adventure.nbt.BinaryTagIO;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An Anvil region file, holding up to 32x32 chunks.
+ *
+ * <p>Region files are memory-mapped, and chunks are decoded directly from the mapping. Chunk
+ * coordinates passed to a region file may be absolute, as only their lowest five bits are used.</p>
+ *
+ * <p>Region files are safe for use by multiple threads. Any number of chunks may be read concurrently,
+ * while writes are exclusive.</p>
+ *
+ * @since 4.8.0
+ */
+public interface RegionFile extends Closeable {
+  /**
+   * The number of chunks along each axis of a region.
+   *
+   * @since 4.8.0
+   */
+  int REGION_SIZE = 32;
+
+  /**
+   * Opens a region file for reading.
+   *
+   * <p>Chunks are read using a reader limited to about 1 MiB of data per chunk, the space available to a chunk
+   * stored within the region itself. Regions holding larger chunks should be opened with a reader such as
+   * {@link BinaryTagIO#unlimitedReader()}.</p>
+   *
+   * @param path the path
+   * @return a region file
+   * @throws IOException if an exception was encountered while opening the file
+   * @since 4.8.0
+   */
+  static @NonNull RegionFile open(final @NonNull Path path) throws IOException {
+    return open(path, RegionFileImpl.DEFAULT_READER);
+  }
+
+  /**
+   * Opens a region file for reading.
+   *
+   * @param path the path
+   * @param reader the reader used to read chunks
+   * @return a region file
+   * @throws IOException if an exception was encountered while opening the file
+   * @since 4.8.0
+   */
+  static @NonNull RegionFile open(final @NonNull Path path, final BinaryTagIO.@NonNull Reader reader) throws IOException {
+    return RegionFileImpl.open(path, reader, false);
+  }
+
+  /**
+   * Opens a region file for reading and writing, creating it if it does not exist.
+   *
+   * <p>Chunks are read using a reader limited to about 1 MiB of data per chunk, the space available to a chunk
+   * stored within the region itself. Regions holding larger chunks should be opened with a reader such as
+   * {@link BinaryTagIO#unlimitedReader()}.</p>
+   *
+   * @param path the path
+   * @return a region file
+   * @throws IOException if an exception was encountered while opening the file
+   * @since 4.8.0
+   */
+  static @NonNull RegionFile openWritable(final @NonNull Path path) throws IOException {
+    return openWritable(path, RegionFileImpl.DEFAULT_READER);
+  }
+
+  /**
+   * Opens a region file for reading and writing, creating it if it does not exist.
+   *
+   * @param path the path
+   * @param reader the reader used to read chunks
+   * @return a region file
+   * @throws IOException if an exception was encountered while opening the file
+   * @since 4.8.0
+   */
+  static @NonNull RegionFile openWritable(final @NonNull Path path, final BinaryTagIO.@NonNull Reader reader) throws IOException {
+    return RegionFileImpl.open(path, reader, true);
+  }
+
+  /**
+   * Gets the path of this region file.
+   *
+   * @return the path
+   * @since 4.8.0
+   */
+  @NonNull Path path();
+
+  /**
+   * Checks if a chunk is present.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return {@code true} if the chunk is present
+   * @since 4.8.0
+   */
+  boolean hasChunk(final int x, final int z);
+
+  /**
+   * Gets the time a chunk was last written.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return the timestamp, in seconds since the epoch, or {@code 0} if the chunk is not present
+   * @since 4.8.0
+   */
+  int timestamp(final int x, final int z);
+
+  /**
+   * Reads a chunk.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @return the chunk tag, or {@code null} if the chunk is not present
+   * @throws IOException if an exception was encountered while reading the chunk
+   * @since 4.8.0
+   */
+  @Nullable CompoundBinaryTag readChunk(final int x, final int z) throws IOException;
+
+  /**
+   * Reads a chunk, decoding it using {@code codec}.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @param codec the codec
+   * @param <T> the decoded type
+   * @return the decoded chunk, or {@code null} if the chunk is not present
+   * @throws IOException if an exception was encountered while reading the chunk
+   * @since 4.8.0
+   */
+  <T> @Nullable T readChunk(final int x, final int z, final @NonNull BinaryTagCodec<T> codec) throws IOException;
+
+  /**
+   * Gets a stream of all chunks present in this region.
+   *
+   * <p>Chunks are decoded as the stream is consumed. The returned stream is sequential, but splits evenly
+   * across the present chunks, so it may be made {@link Stream#parallel() parallel} to decode chunks
+   * concurrently. Exceptions encountered while reading are rethrown as {@link java.io.UncheckedIOException}s.</p>
+   *
+   * @return a stream of chunks
+   * @since 4.8.0
+   */
+  @NonNull Stream<Chunk<CompoundBinaryTag>> chunks();
+
+  /**
+   * Gets a stream of all chunks present in this region, decoded using {@code codec}.
+   *
+   * @param codec the codec
+   * @param <T> the decoded type
+   * @return a stream of chunks
+   * @see #chunks()
+   * @since 4.8.0
+   */
+  <T> @NonNull Stream<Chunk<T>> chunks(final @NonNull BinaryTagCodec<T> codec);
+
+  /**
+   * Writes a chunk using {@link BinaryTagIO.Compression#ZLIB ZLIB} compression.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @param tag the chunk tag
+   * @throws IOException if an exception was encountered while writing the chunk
+   * @since 4.8.0
+   */
+  default void writeChunk(final int x, final int z, final @NonNull CompoundBinaryTag tag) throws IOException {
+    this.writeChunk(x, z, tag, BinaryTagIO.Compression.ZLIB);
+  }
+
+  /**
+   * Writes a chunk.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @param tag the chunk tag
+   * @param compression the compression type
+   * @throws IOException if an exception was encountered while writing the chunk
+   * @since 4.8.0
+   */
+  void writeChunk(final int x, final int z, final @NonNull CompoundBinaryTag tag, final BinaryTagIO.@NonNull Compression compression) throws IOException;
+
+  /**
+   * Encodes a chunk using {@code codec} and writes it.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @param value the chunk value
+   * @param codec the codec
+   * @param compression the compression type
+   * @param <T> the decoded type
+   * @throws IOException if an exception was encountered while writing the chunk
+   * @since 4.8.0
+   */
+  <T> void writeChunk(final int x, final int z, final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final BinaryTagIO.@NonNull Compression compression) throws IOException;
+
+  /**
+   * Removes a chunk.
+   *
+   * @param x the chunk x coordinate
+   * @param z the chunk z coordinate
+   * @throws IOException if an exception was encountered while removing the chunk
+   * @since 4.8.0
+   */
+  void removeChunk(final int x, final int z) throws IOException;
+
+  /**
+   * A chunk read from a region file.
+   *
+   * @param <T> the decoded type
+   * @since 4.8.0
+   */
+  interface Chunk<T> {
+    /**
+     * Gets the x coordinate of this chunk within its region, from {@code 0} to {@code 31}.
+     *
+     * @return the x coordinate
+     * @since 4.8.0
+     */
+    int x();
+
+    /**
+     * Gets the z coordinate of this chunk within its region, from {@code 0} to {@code 31}.
+     *
+     * @return the z coordinate
+     * @since 4.8.0
+     */
+    int z();
+
+    /**
+     * Gets the time this chunk was last written.
+     *
+     * @return the timestamp, in seconds since the epoch
+     * @since 4.8.0
+     */
+    int timestamp();
+
+    /**
+     * Gets the decoded chunk.
+     *
+     * @return the decoded chunk
+     * @since 4.8.0
+     */
+    @NonNull T value();
+  }
+}
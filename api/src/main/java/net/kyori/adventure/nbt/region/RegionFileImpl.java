@@ -0,0 +1,474 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt.region;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import net.kyori.adventure.nbt.BinaryTagCodec;
+import net.kyori.adventure.nbt.BinaryTagIO;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+final class RegionFileImpl implements RegionFile {
+  private static final int SECTOR_SIZE = 4096;
+  private static final int HEADER_SECTORS = 2;
+  private static final int CHUNKS = REGION_SIZE * REGION_SIZE;
+  private static final int MAX_CHUNK_SECTORS = 0xff;
+  private static final int CHUNK_HEADER_SIZE = 5; // length, compression type
+  private static final int EXTERNAL = 0x80;
+  private static final byte GZIP = 1;
+  private static final byte ZLIB = 2;
+  private static final byte NONE = 3;
+  // chunks are limited to about the size of the largest chunk which can be stored within the region itself
+  static final BinaryTagIO.Reader DEFAULT_READER = BinaryTagIO.reader((long) MAX_CHUNK_SECTORS * SECTOR_SIZE);
+  private static final Pattern REGION_NAME = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+
+  private final Path path;
+  private final FileChannel channel;
+  private final BinaryTagIO.Reader reader;
+  private final boolean writable;
+  private final int @Nullable[] regionCoordinates;
+  private final int[] locations = new int[CHUNKS];
+  private final int[] timestamps = new int[CHUNKS];
+  private final BitSet usedSectors = new BitSet();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private MappedByteBuffer mapping;
+
+  private RegionFileImpl(final Path path, final FileChannel channel, final BinaryTagIO.Reader reader, final boolean writable) throws IOException {
+    this.path = path;
+    this.channel = channel;
+    this.reader = reader;
+    this.writable = writable;
+    this.regionCoordinates = regionCoordinates(path);
+
+    if(channel.size() < HEADER_SECTORS * SECTOR_SIZE) {
+      if(!writable || channel.size() != 0) {
+        throw new IOException("Region file " + path + " has a truncated header");
+      }
+      channel.write(ByteBuffer.allocate(HEADER_SECTORS * SECTOR_SIZE), 0);
+    }
+    this.mapping = this.map();
+
+    this.usedSectors.set(0, HEADER_SECTORS);
+    final int sectors = (int) (channel.size() / SECTOR_SIZE);
+    for(int i = 0; i < CHUNKS; i++) {
+      final int location = this.mapping.getInt(i * 4);
+      final int offset = location >>> 8;
+      final int count = location & 0xff;
+      // ignore chunks pointing into the header or past the end of the file
+      if(count > 0 && offset >= HEADER_SECTORS && offset + count <= sectors) {
+        this.locations[i] = location;
+        this.timestamps[i] = this.mapping.getInt(SECTOR_SIZE + i * 4);
+        this.usedSectors.set(offset, offset + count);
+      }
+    }
+  }
+
+  static RegionFile open(final Path path, final BinaryTagIO.Reader reader, final boolean writable) throws IOException {
+    final FileChannel channel = writable
+      ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)
+      : FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new RegionFileImpl(path, channel, reader, writable);
+    } catch(final IOException | RuntimeException ex) {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  private static int @Nullable[] regionCoordinates(final Path path) {
+    final @Nullable Path name = path.getFileName();
+    if(name == null) return null;
+    final Matcher matcher = REGION_NAME.matcher(name.toString());
+    if(!matcher.matches()) return null;
+    try {
+      return new int[]{Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))};
+    } catch(final NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  private static int index(final int x, final int z) {
+    return (x & (REGION_SIZE - 1)) + (z & (REGION_SIZE - 1)) * REGION_SIZE;
+  }
+
+  private MappedByteBuffer map() throws IOException {
+    return this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.channel.size());
+  }
+
+  @Override
+  public @NonNull Path path() {
+    return this.path;
+  }
+
+  @Override
+  public boolean hasChunk(final int x, final int z) {
+    this.lock.readLock().lock();
+    try {
+      return this.locations[index(x, z)] != 0;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int timestamp(final int x, final int z) {
+    this.lock.readLock().lock();
+    try {
+      return this.timestamps[index(x, z)];
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public @Nullable CompoundBinaryTag readChunk(final int x, final int z) throws IOException {
+    return this.read(index(x, z), this.reader::read);
+  }
+
+  @Override
+  public <T> @Nullable T readChunk(final int x, final int z, final @NonNull BinaryTagCodec<T> codec) throws IOException {
+    return this.read(index(x, z), (input, compression) -> this.reader.read(input, compression, codec));
+  }
+
+  private <T> @Nullable T read(final int index, final Decoder<T> decoder) throws IOException {
+    this.lock.readLock().lock();
+    try {
+      this.ensureOpen();
+      final int location = this.locations[index];
+      if(location == 0) return null;
+      final int offset = (location >>> 8) * SECTOR_SIZE;
+      final int sectors = location & 0xff;
+      final ByteBuffer buffer = this.mapping.duplicate();
+      final int length = buffer.getInt(offset); // includes the compression type
+      final int type = buffer.get(offset + 4) & 0xff;
+      if((type & EXTERNAL) != 0) {
+        try(final InputStream is = Files.newInputStream(this.externalPath(index))) {
+          return decoder.decode(is, compression(type & ~EXTERNAL));
+        }
+      }
+      if(length <= 1 || length + 4 > sectors * SECTOR_SIZE) {
+        throw new IOException("Chunk " + this.describe(index) + " has an invalid length of " + length);
+      }
+      buffer.limit(offset + 4 + length);
+      buffer.position(offset + CHUNK_HEADER_SIZE);
+      return decoder.decode(new ByteBufferInputStream(buffer), compression(type));
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public @NonNull Stream<Chunk<CompoundBinaryTag>> chunks() {
+    return this.chunks(this.reader::read);
+  }
+
+  @Override
+  public <T> @NonNull Stream<Chunk<T>> chunks(final @NonNull BinaryTagCodec<T> codec) {
+    return this.chunks((input, compression) -> this.reader.read(input, compression, codec));
+  }
+
+  private <T> Stream<Chunk<T>> chunks(final Decoder<T> decoder) {
+    final int[] present;
+    this.lock.readLock().lock();
+    try {
+      present = IntStream.range(0, CHUNKS).filter(index -> this.locations[index] != 0).toArray();
+    } finally {
+      this.lock.readLock().unlock();
+    }
+    return Arrays.stream(present).<Chunk<T>>mapToObj(index -> {
+      try {
+        final int timestamp = this.timestamps[index];
+        final @Nullable T value = this.read(index, decoder);
+        return value == null ? null : new ChunkImpl<>(index % REGION_SIZE, index / REGION_SIZE, timestamp, value);
+      } catch(final IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }).filter(Objects::nonNull);
+  }
+
+  @Override
+  public void writeChunk(final int x, final int z, final @NonNull CompoundBinaryTag tag, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    this.write(index(x, z), compression, output -> BinaryTagIO.writer().write(tag, output, compression));
+  }
+
+  @Override
+  public <T> void writeChunk(final int x, final int z, final @NonNull T value, final @NonNull BinaryTagCodec<T> codec, final BinaryTagIO.@NonNull Compression compression) throws IOException {
+    this.write(index(x, z), compression, output -> BinaryTagIO.writer().write(value, codec, output, compression));
+  }
+
+  private void write(final int index, final BinaryTagIO.Compression compression, final Encoder encoder) throws IOException {
+    final byte type = compressionType(compression);
+    // encode outside of the lock, reserving space for the chunk header
+    final ExposedByteArrayOutputStream output = new ExposedByteArrayOutputStream();
+    output.write(new byte[CHUNK_HEADER_SIZE]);
+    encoder.encode(output);
+    final ByteBuffer data = ByteBuffer.wrap(output.buffer(), 0, output.size());
+    data.putInt(0, output.size() - 4);
+    data.put(4, type);
+
+    this.lock.writeLock().lock();
+    try {
+      this.ensureWritable();
+      @Nullable Path pending = null;
+      ByteBuffer sectorData = data;
+      int sectors = sectorCount(output.size());
+      if(sectors > MAX_CHUNK_SECTORS) {
+        // too large to be stored in the region, write the chunk to its own file instead
+        // it is written beside the existing file, which is only replaced once the header points at the new chunk
+        final Path external = this.externalPath(index);
+        pending = external.resolveSibling(external.getFileName() + ".tmp");
+        try(final OutputStream os = Files.newOutputStream(pending)) {
+          os.write(output.buffer(), CHUNK_HEADER_SIZE, output.size() - CHUNK_HEADER_SIZE);
+        }
+        sectorData = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
+        sectorData.putInt(0, 1);
+        sectorData.put(4, (byte) (type | EXTERNAL));
+        sectors = 1;
+      }
+
+      // the old chunk stays in place until the header points at the new one, so a failed write leaves it intact
+      final int previous = this.locations[index];
+      final int previousTimestamp = this.timestamps[index];
+      final int start = this.allocate(sectors);
+      try {
+        this.channel.write(sectorData, (long) start * SECTOR_SIZE);
+        final int padding = sectors * SECTOR_SIZE - sectorData.limit();
+        if(padding > 0) {
+          this.channel.write(ByteBuffer.allocate(padding), (long) start * SECTOR_SIZE + sectorData.limit());
+        }
+        this.writeHeader(index, (start << 8) | sectors, (int) (System.currentTimeMillis() / 1000L));
+      } catch(final IOException | RuntimeException ex) {
+        if(pending != null) Files.deleteIfExists(pending);
+        throw ex;
+      }
+      this.usedSectors.set(start, start + sectors);
+
+      if(pending != null) {
+        try {
+          Files.move(pending, this.externalPath(index), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(final IOException | RuntimeException ex) {
+          // point the header back at the old chunk, which is still untouched
+          this.writeHeader(index, previous, previousTimestamp);
+          this.usedSectors.clear(start, start + sectors);
+          Files.deleteIfExists(pending);
+          throw ex;
+        }
+      } else if(this.regionCoordinates != null) {
+        Files.deleteIfExists(this.externalPath(index));
+      }
+      this.release(previous);
+
+      // sectors written within the mapped region are visible through the mapping, so only growth requires a new one
+      if(this.channel.size() > this.mapping.capacity()) {
+        this.mapping = this.map();
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeChunk(final int x, final int z) throws IOException {
+    final int index = index(x, z);
+    this.lock.writeLock().lock();
+    try {
+      this.ensureWritable();
+      final int previous = this.locations[index];
+      if(previous == 0) return;
+      this.writeHeader(index, 0, 0);
+      this.release(previous);
+      if(this.regionCoordinates != null) {
+        Files.deleteIfExists(this.externalPath(index));
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  private int allocate(final int sectors) {
+    int start = HEADER_SECTORS;
+    while(true) {
+      final int next = this.usedSectors.nextSetBit(start);
+      if(next == -1 || next - start >= sectors) return start;
+      start = this.usedSectors.nextClearBit(next);
+    }
+  }
+
+  private void release(final int location) {
+    if(location != 0) {
+      final int offset = location >>> 8;
+      this.usedSectors.clear(offset, offset + (location & 0xff));
+    }
+  }
+
+  private void writeHeader(final int index, final int location, final int timestamp) throws IOException {
+    final ByteBuffer buffer = ByteBuffer.allocate(4);
+    buffer.putInt(0, location);
+    this.channel.write(buffer, index * 4L);
+    buffer.clear();
+    buffer.putInt(0, timestamp);
+    this.channel.write(buffer, SECTOR_SIZE + index * 4L);
+    this.locations[index] = location;
+    this.timestamps[index] = timestamp;
+  }
+
+  private Path externalPath(final int index) throws IOException {
+    if(this.regionCoordinates == null) {
+      throw new IOException("Cannot locate the external file for chunk " + this.describe(index) + ", as " + this.path + " is not named r.<x>.<z>.mca");
+    }
+    final int x = this.regionCoordinates[0] * REGION_SIZE + index % REGION_SIZE;
+    final int z = this.regionCoordinates[1] * REGION_SIZE + index / REGION_SIZE;
+    return this.path.resolveSibling("c." + x + "." + z + ".mcc");
+  }
+
+  private String describe(final int index) {
+    return "(" + (index % REGION_SIZE) + ", " + (index / REGION_SIZE) + ") in " + this.path;
+  }
+
+  private static int sectorCount(final int bytes) {
+    return (bytes + SECTOR_SIZE - 1) / SECTOR_SIZE;
+  }
+
+  private static BinaryTagIO.Compression compression(final int type) throws IOException {
+    switch(type) {
+      case GZIP: return BinaryTagIO.Compression.GZIP;
+      case ZLIB: return BinaryTagIO.Compression.ZLIB;
+      case NONE: return BinaryTagIO.Compression.NONE;
+      default: throw new IOException("Unknown chunk compression type " + type);
+    }
+  }
+
+  private static byte compressionType(final BinaryTagIO.Compression compression) {
+    if(compression == BinaryTagIO.Compression.GZIP) {
+      return GZIP;
+    } else if(compression == BinaryTagIO.Compression.ZLIB) {
+      return ZLIB;
+    } else if(compression == BinaryTagIO.Compression.NONE) {
+      return NONE;
+    }
+    throw new IllegalArgumentException("Unsupported chunk compression " + compression);
+  }
+
+  private void ensureOpen() throws IOException {
+    if(!this.channel.isOpen()) {
+      throw new IOException("Region file " + this.path + " is closed");
+    }
+  }
+
+  private void ensureWritable() throws IOException {
+    this.ensureOpen();
+    if(!this.writable) {
+      throw new IOException("Region file " + this.path + " was not opened for writing");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.lock.writeLock().lock();
+    try {
+      this.channel.close();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RegionFile[" + this.path + "]";
+  }
+
+  interface Decoder<T> {
+    @NonNull T decode(final @NonNull InputStream input, final BinaryTagIO.@NonNull Compression compression) throws IOException;
+  }
+
+  interface Encoder {
+    void encode(final @NonNull OutputStream output) throws IOException;
+  }
+
+  static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+    byte[] buffer() {
+      return this.buf;
+    }
+  }
+
+  static final class ChunkImpl<T> implements Chunk<T> {
+    private final int x;
+    private final int z;
+    private final int timestamp;
+    private final T value;
+
+    ChunkImpl(final int x, final int z, final int timestamp, final T value) {
+      this.x = x;
+      this.z = z;
+      this.timestamp = timestamp;
+      this.value = value;
+    }
+
+    @Override
+    public int x() {
+      return this.x;
+    }
+
+    @Override
+    public int z() {
+      return this.z;
+    }
+
+    @Override
+    public int timestamp() {
+      return this.timestamp;
+    }
+
+    @Override
+    public @NonNull T value() {
+      return this.value;
+    }
+
+    @Override
+    public String toString() {
+      return "Chunk[x=" + this.x + ", z=" + this.z + "]";
+    }
+  }
+}
@@ -117,12 +117,19 @@ public abstract class AbstractComponent implements Component {
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof AbstractComponent)) return false;
+    if(!(other instanceof AbstractComponent)) return this.equalsStandIn(other);
     final AbstractComponent that = (AbstractComponent) other;
     return Objects.equals(this.children, that.children)
       && Objects.equals(this.style, that.style);
   }
 
+  // a component standing in for another, such as one parsed lazily, is compared as the component it stands in for
+  final boolean equalsStandIn(final @Nullable Object other) {
+    if(!(other instanceof Component) || other instanceof AbstractComponent) return false;
+    final Component component = ((Component) other).asComponent();
+    return component != other && this.equals(component);
+  }
+
   @Override
   public int hashCode() {
     int result = this.children.hashCode();
@@ -78,7 +78,7 @@ final class BlockNBTComponentImpl extends NBTComponentImpl<BlockNBTComponent, Bl
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof BlockNBTComponent)) return false;
+    if(!(other instanceof BlockNBTComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final BlockNBTComponent that = (BlockNBTComponent) other;
     return Objects.equals(this.pos, that.pos());
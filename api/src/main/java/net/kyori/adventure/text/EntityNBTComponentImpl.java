@@ -75,7 +75,7 @@ final class EntityNBTComponentImpl extends NBTComponentImpl<EntityNBTComponent,
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof EntityNBTComponent)) return false;
+    if(!(other instanceof EntityNBTComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final EntityNBTComponentImpl that = (EntityNBTComponentImpl) other;
     return Objects.equals(this.selector, that.selector());
@@ -65,7 +65,7 @@ final class KeybindComponentImpl extends AbstractComponent implements KeybindCom
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof KeybindComponent)) return false;
+    if(!(other instanceof KeybindComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final KeybindComponent that = (KeybindComponent) other;
     return Objects.equals(this.keybind, that.keybind());
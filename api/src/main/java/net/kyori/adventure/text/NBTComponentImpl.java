@@ -55,7 +55,7 @@ abstract class NBTComponentImpl<C extends NBTComponent<C, B>, B extends NBTCompo
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof NBTComponent)) return false;
+    if(!(other instanceof NBTComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final NBTComponent<?, ?> that = (NBTComponent<?, ?>) other;
     return Objects.equals(this.nbtPath, that.nbtPath()) && this.interpret == that.interpret();
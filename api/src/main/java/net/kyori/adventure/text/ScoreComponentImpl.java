@@ -95,7 +95,7 @@ final class ScoreComponentImpl extends AbstractComponent implements ScoreCompone
   @SuppressWarnings("deprecation")
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof ScoreComponent)) return false;
+    if(!(other instanceof ScoreComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final ScoreComponent that = (ScoreComponent) other;
     return Objects.equals(this.name, that.name())
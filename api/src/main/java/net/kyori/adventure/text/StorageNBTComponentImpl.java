@@ -77,7 +77,7 @@ final class StorageNBTComponentImpl extends NBTComponentImpl<StorageNBTComponent
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof StorageNBTComponent)) return false;
+    if(!(other instanceof StorageNBTComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final StorageNBTComponentImpl that = (StorageNBTComponentImpl) other;
     return Objects.equals(this.storage, that.storage());
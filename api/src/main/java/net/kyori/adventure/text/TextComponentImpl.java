@@ -95,7 +95,7 @@ final class TextComponentImpl extends AbstractComponent implements TextComponent
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof TextComponentImpl)) return false;
+    if(!(other instanceof TextComponentImpl)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final TextComponentImpl that = (TextComponentImpl) other;
     return Objects.equals(this.content, that.content);
@@ -44,8 +44,9 @@ final class TextReplacementRenderer implements ComponentRenderer<TextReplacement
   }
 
   @Override
-  public @NonNull Component render(final @NonNull Component component, final @NonNull State state) {
-    if(!state.running) return component;
+  public @NonNull Component render(final @NonNull Component input, final @NonNull State state) {
+    if(!state.running) return input;
+    final Component component = input.asComponent();
     final boolean prevFirstMatch = state.firstMatch;
     state.firstMatch = true;
 
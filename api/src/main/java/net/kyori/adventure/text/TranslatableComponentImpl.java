@@ -90,7 +90,7 @@ final class TranslatableComponentImpl extends AbstractComponent implements Trans
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
-    if(!(other instanceof TranslatableComponent)) return false;
+    if(!(other instanceof TranslatableComponent)) return this.equalsStandIn(other);
     if(!super.equals(other)) return false;
     final TranslatableComponent that = (TranslatableComponent) other;
     return Objects.equals(this.key, that.key()) && Objects.equals(this.args, that.args());
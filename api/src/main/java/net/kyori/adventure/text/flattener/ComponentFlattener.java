@@ -23,10 +23,12 @@
  */
 package net.kyori.adventure.text.flattener;
 
+import java.io.IOException;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.util.Buildable;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -81,6 +83,79 @@ public interface ComponentFlattener extends Buildable<ComponentFlattener, Compon
    */
   void flatten(final @NonNull Component input, final @NonNull FlattenerListener listener);
 
+  /**
+   * Perform a flattening on the component, appending only its text to {@code output}.
+   *
+   * <p>The text is the same as that provided to the listener by {@link #flatten(Component, FlattenerListener)},
+   * but styles are not tracked. The flatteners provided by adventure walk deep component trees without recursion,
+   * while other implementations append the text provided by {@link #flatten(Component, FlattenerListener)}.</p>
+   *
+   * @param input the component to be flattened
+   * @param output the output to append to
+   * @throws IOException if an error occurs appending to {@code output}
+   * @since 4.8.0
+   */
+  default void flattenText(final @NonNull Component input, final @NonNull Appendable output) throws IOException {
+    final ComponentFlattenerImpl.Appending appending = new ComponentFlattenerImpl.Appending(output);
+    this.flatten(input, new ComponentFlattenerImpl.ConsumingListener(appending, false));
+    if(appending.failure != null) {
+      throw appending.failure;
+    }
+  }
+
+  /**
+   * Measures the length of the text of a component, in {@code char}s.
+   *
+   * <p>Measuring stops as soon as the length exceeds {@code limit}, so a longer component can be rejected
+   * without visiting all of it.</p>
+   *
+   * @param input the component to be measured
+   * @param limit the greatest length of interest, or {@link Integer#MAX_VALUE} to measure the whole component
+   * @return the length, or a value greater than {@code limit} if the text is longer than {@code limit}
+   * @since 4.8.0
+   */
+  default int length(final @NonNull Component input, final int limit) {
+    final ComponentFlattenerImpl.Length length = new ComponentFlattenerImpl.Length(limit);
+    this.flatten(input, new ComponentFlattenerImpl.ConsumingListener(length, false));
+    return length.length;
+  }
+
+  /**
+   * Measures the length of the text of a component, in code points.
+   *
+   * <p>Measuring stops as soon as the count exceeds {@code limit}, so a longer component can be rejected
+   * without visiting all of it.</p>
+   *
+   * @param input the component to be measured
+   * @param limit the greatest count of interest, or {@link Integer#MAX_VALUE} to measure the whole component
+   * @return the number of code points, or a value greater than {@code limit} if there are more than {@code limit}
+   * @since 4.8.0
+   */
+  default int codePointCount(final @NonNull Component input, final int limit) {
+    final ComponentFlattenerImpl.CodePointCount count = new ComponentFlattenerImpl.CodePointCount(limit);
+    this.flatten(input, new ComponentFlattenerImpl.ConsumingListener(count, false));
+    return count.count;
+  }
+
+  /**
+   * Measures the rendered width of the text of a component.
+   *
+   * <p>Each code point is measured using the glyph widths of the font inherited by its component, or of
+   * {@link Style#DEFAULT_FONT} when no font is set. Measuring stops as soon as the width exceeds
+   * {@code limit}, so a wider component can be rejected without visiting all of it.</p>
+   *
+   * @param input the component to be measured
+   * @param widths the glyph widths of each font
+   * @param limit the greatest width of interest, or {@link Integer#MAX_VALUE} to measure the whole component
+   * @return the width, or a value greater than {@code limit} if the text is wider than {@code limit}
+   * @since 4.8.0
+   */
+  default int width(final @NonNull Component input, final @NonNull GlyphWidths widths, final int limit) {
+    final ComponentFlattenerImpl.Width width = new ComponentFlattenerImpl.Width(widths, limit);
+    this.flatten(input, new ComponentFlattenerImpl.ConsumingListener(width, true));
+    return width.width;
+  }
+
   /**
    * A builder for a component flattener.
    *
@@ -23,14 +23,21 @@
  */
 package net.kyori.adventure.text.flattener;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.KeybindComponent;
 import net.kyori.adventure.text.ScoreComponent;
@@ -75,21 +82,27 @@ final class ComponentFlattenerImpl implements ComponentFlattener {
     this.flatten0(input, listener, 0);
   }
 
-  private void flatten0(final @NonNull Component input, final @NonNull FlattenerListener listener, final int depth) {
-    requireNonNull(input, "input");
+  private void flatten0(final @NonNull Component component, final @NonNull FlattenerListener listener, final int depth) {
+    requireNonNull(component, "input");
     requireNonNull(listener, "listener");
+    // handlers are found by type, so look through stand-ins such as components that are yet to be parsed
+    final Component input = component.asComponent();
     if(input == Component.empty()) return;
     if(depth > MAX_DEPTH) {
       throw new IllegalStateException("Exceeded maximum depth of " + MAX_DEPTH + " while attempting to flatten components!");
     }
 
-    final @Nullable Handler flattener = this.flattener(input);
+    final Handler handler = this.handler(input.getClass());
     final Style inputStyle = input.style();
 
     listener.pushStyle(inputStyle);
     try {
-      if(flattener != null) {
-        flattener.handle(input, listener, depth + 1);
+      if(handler.mapper != null) {
+        listener.component(handler.mapper.apply(input));
+      } else if(handler.complexMapper != null) {
+        handler.complexMapper.accept(input, c -> this.flatten0(c, listener, depth + 1));
+      } else if(this.unknownHandler != null) {
+        this.unknownHandler.apply(input);
       }
 
       if(!input.children().isEmpty()) {
@@ -102,37 +115,138 @@ final class ComponentFlattenerImpl implements ComponentFlattener {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private <T extends Component> @Nullable Handler flattener(final T test) {
-    final Handler flattener = this.propagatedFlatteners.computeIfAbsent(test.getClass(), key -> {
-      // direct flatteners (just return strings)
-      final @Nullable Function<Component, String> value = (Function<Component, String>) this.flatteners.get(key);
-      if(value != null) return (component, listener, depth) -> listener.component(value.apply(component));
-
-      for(final Map.Entry<Class<?>, Function<?, String>> entry : this.flatteners.entrySet()) {
-        if(entry.getKey().isAssignableFrom(key)) {
-          return (component, listener, depth) -> listener.component(((Function<Component, String>) entry.getValue()).apply(component));
-        }
+  @Override
+  public void flattenText(final @NonNull Component input, final @NonNull Appendable output) throws IOException {
+    final Appending appending = new Appending(output);
+    this.traverse(input, appending, false);
+    if(appending.failure != null) {
+      throw appending.failure;
+    }
+  }
+
+  @Override
+  public int length(final @NonNull Component input, final int limit) {
+    final Length length = new Length(limit);
+    this.traverse(input, length, false);
+    return length.length;
+  }
+
+  @Override
+  public int codePointCount(final @NonNull Component input, final int limit) {
+    final CodePointCount count = new CodePointCount(limit);
+    this.traverse(input, count, false);
+    return count.count;
+  }
+
+  @Override
+  public int width(final @NonNull Component input, final @NonNull GlyphWidths widths, final int limit) {
+    final Width width = new Width(widths, limit);
+    this.traverse(input, width, true);
+    return width.width;
+  }
+
+  // visits the text of each component in order, without recursion, until the consumer asks to stop
+  private void traverse(final @NonNull Component input, final @NonNull TextConsumer consumer, final boolean trackFonts) {
+    requireNonNull(input, "input");
+    // the components still to visit, with the component to visit next at the top
+    Component[] stack = new Component[16];
+    int[] depths = new int[16];
+    // the font inherited by each component, when fonts are tracked
+    @Nullable Key[] fonts = trackFonts ? new Key[16] : null;
+    int size = 0;
+    stack[size++] = input;
+    @Nullable Class<?> lastType = null;
+    @Nullable Handler lastHandler = null;
+    while(size > 0) {
+      final Component component = stack[--size].asComponent();
+      final int depth = depths[size];
+      stack[size] = null;
+      if(component == Component.empty()) continue;
+      if(depth > MAX_DEPTH) {
+        throw new IllegalStateException("Exceeded maximum depth of " + MAX_DEPTH + " while attempting to flatten components!");
+      }
+      @Nullable Key font = null;
+      if(fonts != null) {
+        font = component.style().font();
+        if(font == null) font = fonts[size];
       }
 
-      // complex flatteners (these provide extra components)
-      final @Nullable BiConsumer<Component, Consumer<Component>> complexValue = (BiConsumer<Component, Consumer<Component>>) this.complexFlatteners.get(key);
-      if(complexValue != null) return (component, listener, depth) -> complexValue.accept(component, c -> this.flatten0(c, listener, depth));
+      // consecutive components are usually of the same type
+      final Class<?> type = component.getClass();
+      if(type != lastType) {
+        lastType = type;
+        lastHandler = this.handler(type);
+      }
+      final Handler handler = lastHandler;
 
-      for(final Map.Entry<Class<?>, BiConsumer<?, Consumer<Component>>> entry : this.complexFlatteners.entrySet()) {
-        if(entry.getKey().isAssignableFrom(key)) {
-          return (component, listener, depth) -> ((BiConsumer<Component, Consumer<Component>>) entry.getValue()).accept(component, c -> this.flatten0(c, listener, depth));
+      // children are visited after anything provided by a complex mapper, so are pushed first
+      final List<Component> children = component.children();
+      final int childCount = children.size();
+      if(size + childCount > stack.length) {
+        final int length = Math.max(stack.length << 1, size + childCount);
+        stack = Arrays.copyOf(stack, length);
+        depths = Arrays.copyOf(depths, length);
+        if(fonts != null) fonts = Arrays.copyOf(fonts, length);
+      }
+      for(int i = childCount - 1; i >= 0; i--) {
+        stack[size] = children.get(i);
+        if(fonts != null) fonts[size] = font;
+        depths[size++] = depth + 1;
+      }
+
+      if(handler.mapper != null) {
+        if(!consumer.accept(handler.mapper.apply(component), font)) return;
+      } else if(handler.complexMapper != null) {
+        final List<Component> provided = new ArrayList<>();
+        handler.complexMapper.accept(component, provided::add);
+        final int providedCount = provided.size();
+        if(size + providedCount > stack.length) {
+          final int length = Math.max(stack.length << 1, size + providedCount);
+          stack = Arrays.copyOf(stack, length);
+          depths = Arrays.copyOf(depths, length);
+          if(fonts != null) fonts = Arrays.copyOf(fonts, length);
+        }
+        for(int i = providedCount - 1; i >= 0; i--) {
+          stack[size] = requireNonNull(provided.get(i), "input");
+          if(fonts != null) fonts[size] = font;
+          depths[size++] = depth + 1;
         }
+      } else if(this.unknownHandler != null) {
+        this.unknownHandler.apply(component);
+      }
+    }
+  }
+
+  private @NonNull Handler handler(final @NonNull Class<?> type) {
+    // look up before computing, as computing locks even when a handler is present
+    final @Nullable Handler handler = this.propagatedFlatteners.get(type);
+    if(handler != null) return handler;
+    return this.propagatedFlatteners.computeIfAbsent(type, this::resolve);
+  }
+
+  @SuppressWarnings("unchecked")
+  private @NonNull Handler resolve(final @NonNull Class<?> type) {
+    // direct flatteners (just return strings)
+    final @Nullable Function<Component, String> value = (Function<Component, String>) this.flatteners.get(type);
+    if(value != null) return new Handler(value, null);
+
+    for(final Map.Entry<Class<?>, Function<?, String>> entry : this.flatteners.entrySet()) {
+      if(entry.getKey().isAssignableFrom(type)) {
+        return new Handler((Function<Component, String>) entry.getValue(), null);
       }
+    }
 
-      return Handler.NONE;
-    });
+    // complex flatteners (these provide extra components)
+    final @Nullable BiConsumer<Component, Consumer<Component>> complexValue = (BiConsumer<Component, Consumer<Component>>) this.complexFlatteners.get(type);
+    if(complexValue != null) return new Handler(null, complexValue);
 
-    if(flattener == Handler.NONE) {
-      return this.unknownHandler == null ? null : (component, listener, depth) -> this.unknownHandler.apply(component);
-    } else {
-      return flattener;
+    for(final Map.Entry<Class<?>, BiConsumer<?, Consumer<Component>>> entry : this.complexFlatteners.entrySet()) {
+      if(entry.getKey().isAssignableFrom(type)) {
+        return new Handler(null, (BiConsumer<Component, Consumer<Component>>) entry.getValue());
+      }
     }
+
+    return Handler.NONE;
   }
 
   @Override
@@ -140,12 +254,139 @@ final class ComponentFlattenerImpl implements ComponentFlattener {
     return new BuilderImpl(this.flatteners, this.complexFlatteners, this.unknownHandler);
   }
 
-  // A function that allows nesting other flatten operations
+  // How a type of component is flattened, either to a string or to other components
+  static final class Handler {
+    static final Handler NONE = new Handler(null, null);
+    final @Nullable Function<Component, String> mapper;
+    final @Nullable BiConsumer<Component, Consumer<Component>> complexMapper;
+
+    Handler(final @Nullable Function<Component, String> mapper, final @Nullable BiConsumer<Component, Consumer<Component>> complexMapper) {
+      this.mapper = mapper;
+      this.complexMapper = complexMapper;
+    }
+  }
+
+  // Receives the text of each component in turn, returning false to stop the traversal
   @FunctionalInterface
-  interface Handler {
-    Handler NONE = (input, listener, depth) -> {};
+  interface TextConsumer {
+    boolean accept(final @NonNull String text, final @Nullable Key font);
+  }
+
+  // Feeds the text provided to a listener to a consumer, until the consumer asks to stop
+  static final class ConsumingListener implements FlattenerListener {
+    private final TextConsumer consumer;
+    // the font inherited by each pushed style, when fonts are tracked
+    private @Nullable Key[] fonts;
+    private int depth;
+    private boolean stopped;
+
+    ConsumingListener(final TextConsumer consumer, final boolean trackFonts) {
+      this.consumer = consumer;
+      this.fonts = trackFonts ? new Key[16] : null;
+    }
+
+    @Override
+    public void pushStyle(final @NonNull Style style) {
+      if(this.fonts == null) return;
+      @Nullable Key font = style.font();
+      if(font == null && this.depth > 0) font = this.fonts[this.depth - 1];
+      if(this.depth == this.fonts.length) this.fonts = Arrays.copyOf(this.fonts, this.depth << 1);
+      this.fonts[this.depth++] = font;
+    }
+
+    @Override
+    public void component(final @NonNull String text) {
+      if(this.stopped) return;
+      final @Nullable Key font = this.fonts != null && this.depth > 0 ? this.fonts[this.depth - 1] : null;
+      if(!this.consumer.accept(text, font)) {
+        this.stopped = true;
+      }
+    }
+
+    @Override
+    public void popStyle(final @NonNull Style style) {
+      if(this.fonts != null) this.fonts[--this.depth] = null;
+    }
+  }
+
+  static final class Appending implements TextConsumer {
+    private final Appendable output;
+    @Nullable IOException failure;
+
+    Appending(final Appendable output) {
+      this.output = requireNonNull(output, "output");
+    }
+
+    @Override
+    public boolean accept(final @NonNull String text, final @Nullable Key font) {
+      try {
+        this.output.append(text);
+        return true;
+      } catch(final IOException ex) {
+        this.failure = ex;
+        return false;
+      }
+    }
+  }
+
+  static final class Length implements TextConsumer {
+    private final int limit;
+    int length;
 
-    void handle(final Component input, final FlattenerListener listener, final int depth);
+    Length(final int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean accept(final @NonNull String text, final @Nullable Key font) {
+      this.length += text.length();
+      return this.length <= this.limit;
+    }
+  }
+
+  static final class CodePointCount implements TextConsumer {
+    private final int limit;
+    int count;
+
+    CodePointCount(final int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean accept(final @NonNull String text, final @Nullable Key font) {
+      this.count += text.codePointCount(0, text.length());
+      return this.count <= this.limit;
+    }
+  }
+
+  static final class Width implements TextConsumer {
+    private final GlyphWidths widths;
+    private final int limit;
+    private @Nullable Key font;
+    private @Nullable IntUnaryOperator glyphs;
+    int width;
+
+    Width(final GlyphWidths widths, final int limit) {
+      this.widths = requireNonNull(widths, "widths");
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean accept(final @NonNull String text, final @Nullable Key font) {
+      // the font rarely changes between components
+      if(this.glyphs == null || !Objects.equals(font, this.font)) {
+        this.font = font;
+        this.glyphs = requireNonNull(this.widths.font(font == null ? Style.DEFAULT_FONT : font), "glyph widths");
+      }
+      final IntUnaryOperator glyphs = this.glyphs;
+      for(int i = 0, length = text.length(); i < length; ) {
+        final int codePoint = text.codePointAt(i);
+        this.width += glyphs.applyAsInt(codePoint);
+        if(this.width > this.limit) return false;
+        i += Character.charCount(codePoint);
+      }
+      return true;
+    }
   }
 
   static final class BuilderImpl implements Builder {
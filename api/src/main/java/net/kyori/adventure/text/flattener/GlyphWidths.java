@@ -0,0 +1,99 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.flattener;
+
+import java.util.function.IntUnaryOperator;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.util.Buildable;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * The widths of the glyphs in each font, used to measure the rendered width of components.
+ *
+ * @see ComponentFlattener#width(net.kyori.adventure.text.Component, GlyphWidths, int)
+ * @since 4.8.0
+ */
+@FunctionalInterface
+public interface GlyphWidths {
+  /**
+   * Create a new builder for glyph widths.
+   *
+   * @return a new builder
+   * @since 4.8.0
+   */
+  static @NonNull Builder builder() {
+    return new GlyphWidthsImpl.BuilderImpl();
+  }
+
+  /**
+   * Gets the glyph widths of a font.
+   *
+   * <p>This is called once for each run of text in the same font, rather than for every code point.</p>
+   *
+   * @param font the font, which is {@link Style#DEFAULT_FONT} for text without a font
+   * @return a function providing the width of the glyph for a code point
+   * @since 4.8.0
+   */
+  @NonNull IntUnaryOperator font(final @NonNull Key font);
+
+  /**
+   * A builder for glyph widths.
+   *
+   * <p>A new builder will start out measuring every glyph as zero wide.</p>
+   *
+   * @since 4.8.0
+   */
+  interface Builder extends Buildable.Builder<GlyphWidths> {
+    /**
+     * Register the glyph widths of a font.
+     *
+     * @param font the font
+     * @param widths a function providing the width of the glyph for a code point
+     * @return this builder
+     * @since 4.8.0
+     */
+    @NonNull Builder font(final @NonNull Key font, final @NonNull IntUnaryOperator widths);
+
+    /**
+     * Register the glyph widths of a font, from a table indexed by code point.
+     *
+     * @param font the font
+     * @param widths the width of the glyph for each code point
+     * @param defaultWidth the width of the glyph for code points beyond the end of the table
+     * @return this builder
+     * @since 4.8.0
+     */
+    @NonNull Builder font(final @NonNull Key font, final int@NonNull[] widths, final int defaultWidth);
+
+    /**
+     * Register the glyph widths for fonts which have not been registered.
+     *
+     * @param widths a function providing the width of the glyph for a code point
+     * @return this builder
+     * @since 4.8.0
+     */
+    @NonNull Builder unknownFont(final @NonNull IntUnaryOperator widths);
+  }
+}
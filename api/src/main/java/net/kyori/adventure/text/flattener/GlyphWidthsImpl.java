@@ -0,0 +1,77 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.flattener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import net.kyori.adventure.key.Key;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import static java.util.Objects.requireNonNull;
+
+final class GlyphWidthsImpl implements GlyphWidths {
+  private static final IntUnaryOperator ZERO = codePoint -> 0;
+  private final Map<Key, IntUnaryOperator> fonts;
+  private final IntUnaryOperator unknownFont;
+
+  GlyphWidthsImpl(final Map<Key, IntUnaryOperator> fonts, final IntUnaryOperator unknownFont) {
+    this.fonts = Collections.unmodifiableMap(new HashMap<>(fonts));
+    this.unknownFont = unknownFont;
+  }
+
+  @Override
+  public @NonNull IntUnaryOperator font(final @NonNull Key font) {
+    return this.fonts.getOrDefault(font, this.unknownFont);
+  }
+
+  static final class BuilderImpl implements Builder {
+    private final Map<Key, IntUnaryOperator> fonts = new HashMap<>();
+    private IntUnaryOperator unknownFont = ZERO;
+
+    @Override
+    public @NonNull Builder font(final @NonNull Key font, final @NonNull IntUnaryOperator widths) {
+      this.fonts.put(requireNonNull(font, "font"), requireNonNull(widths, "widths"));
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder font(final @NonNull Key font, final int@NonNull[] widths, final int defaultWidth) {
+      final int[] table = requireNonNull(widths, "widths").clone();
+      return this.font(font, codePoint -> codePoint < table.length ? table[codePoint] : defaultWidth);
+    }
+
+    @Override
+    public @NonNull Builder unknownFont(final @NonNull IntUnaryOperator widths) {
+      this.unknownFont = requireNonNull(widths, "widths");
+      return this;
+    }
+
+    @Override
+    public @NonNull GlyphWidths build() {
+      return new GlyphWidthsImpl(this.fonts, this.unknownFont);
+    }
+  }
+}
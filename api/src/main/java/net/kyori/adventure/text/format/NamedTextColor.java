@@ -161,6 +161,11 @@ public final class NamedTextColor implements TextColor {
    */
   public static final Index<String, NamedTextColor> NAMES = Index.create(constant -> constant.name, VALUES);
 
+  // The nearest named colours of recently matched colours, each packed as (value << 5 | index << 1 | 1) into a slot
+  // chosen by the colour value. Slots are read and written whole, so racing threads can at worst repeat a search.
+  private static final int NEAREST_BITS = 12;
+  private static final int[] NEAREST = new int[1 << NEAREST_BITS];
+
   /**
    * Gets the named color exactly matching the provided color.
    *
@@ -202,13 +207,29 @@ public final class NamedTextColor implements TextColor {
 
     requireNonNull(any, "color");
 
+    if(!(any instanceof TextColorImpl)) {
+      // other implementations may convert to HSV differently, so they are not remembered by value
+      return VALUES.get(nearestIndex(any.asHSV()));
+    }
+
+    final int value = any.value();
+    final int slot = (value * 0x9e3779b1) >>> (32 - NEAREST_BITS); // the upper bits of a multiplicative hash
+    final int nearest = NEAREST[slot];
+    if((nearest & 1) != 0 && nearest >>> 5 == value) {
+      return VALUES.get((nearest >>> 1) & 0xf);
+    }
+    final int index = nearestIndex(any.asHSV());
+    NEAREST[slot] = value << 5 | index << 1 | 1;
+    return VALUES.get(index);
+  }
+
+  private static int nearestIndex(final @NonNull HSVLike any) {
     float matchedDistance = Float.MAX_VALUE;
-    NamedTextColor match = VALUES.get(0);
+    int match = 0;
     for(int i = 0, length = VALUES.size(); i < length; i++) {
-      final NamedTextColor potential = VALUES.get(i);
-      final float distance = distance(any.asHSV(), potential.asHSV());
+      final float distance = distance(any, VALUES.get(i).hsv);
       if(distance < matchedDistance) {
-        match = potential;
+        match = i;
         matchedDistance = distance;
       }
       if(distance == 0) {
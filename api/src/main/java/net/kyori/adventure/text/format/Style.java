@@ -108,7 +108,7 @@ public interface Style extends Buildable<Style, Style.Builder>, Examinable {
    */
   static @NonNull Style style(final @Nullable TextColor color) {
     if(color == null) return empty();
-    return new StyleImpl(null, color, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, null, null, null);
+    return StyleImpl.create(null, color, 0, null, null, null);
   }
 
   /**
@@ -546,8 +546,11 @@ public interface Style extends Buildable<Style, Style.Builder>, Examinable {
      */
     FONT;
 
-    static final Set<Merge> ALL = of(values());
+    private static final Merge[] VALUES = values();
+    static final Set<Merge> ALL = of(VALUES);
     static final Set<Merge> COLOR_AND_DECORATIONS = of(COLOR, DECORATIONS);
+    static final int ALL_MASK = (1 << VALUES.length) - 1;
+    static final int COLOR_AND_DECORATIONS_MASK = COLOR.bit() | DECORATIONS.bit();
 
     /**
      * Gets a merge set of all merge types.
@@ -580,8 +583,30 @@ public interface Style extends Buildable<Style, Style.Builder>, Examinable {
       return ShadyPines.enumSet(Merge.class, merges);
     }
 
-    static boolean hasAll(final @NonNull Set<Merge> merges) {
-      return merges.size() == ALL.size();
+    /**
+     * Gets the bit representing this merge type in a mask.
+     *
+     * @return the bit
+     */
+    int bit() {
+      return 1 << this.ordinal();
+    }
+
+    /**
+     * Compiles a merge set into a mask of {@link #bit() bits}.
+     *
+     * @param merges the merge set
+     * @return the mask
+     */
+    static int mask(final @NonNull Set<Merge> merges) {
+      // the shared sets are by far the most common, so they are recognised without looking inside
+      if(merges == ALL) return ALL_MASK;
+      if(merges == COLOR_AND_DECORATIONS) return COLOR_AND_DECORATIONS_MASK;
+      int mask = 0;
+      for(int i = 0; i < VALUES.length; i++) {
+        if(merges.contains(VALUES[i])) mask |= VALUES[i].bit();
+      }
+      return mask;
     }
 
     /**
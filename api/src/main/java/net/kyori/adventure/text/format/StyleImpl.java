@@ -27,6 +27,7 @@ import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.event.ClickEvent;
@@ -40,15 +41,16 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import static java.util.Objects.requireNonNull;
 
 final class StyleImpl implements Style {
-  static final StyleImpl EMPTY = new StyleImpl(null, null, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, TextDecoration.State.NOT_SET, null, null, null);
+  static final StyleImpl EMPTY = new StyleImpl(null, null, 0, null, null, null);
   private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+  private static final TextDecoration.State[] STATES = TextDecoration.State.values();
+  // Styles with only a colour and decorations are often built again with the same values, so recently built ones
+  // are reused. Each is kept in a slot chosen by its values, and slots are replaced whole, so no locking is required.
+  private static final int INTERNED_BITS = 10;
+  private static final @Nullable StyleImpl[] INTERNED = new StyleImpl[1 << INTERNED_BITS];
   private final @Nullable Key font;
   private final @Nullable TextColor color;
-  private final TextDecoration.State obfuscated;
-  private final TextDecoration.State bold;
-  private final TextDecoration.State strikethrough;
-  private final TextDecoration.State underlined;
-  private final TextDecoration.State italic;
+  private final int decorations; // two bits per decoration, in declaration order, holding the ordinal of its state
   private final @Nullable ClickEvent clickEvent;
   private final @Nullable HoverEvent<?> hoverEvent;
   private final @Nullable String insertion;
@@ -60,30 +62,66 @@ final class StyleImpl implements Style {
     }
   }
 
-  StyleImpl(
+  private StyleImpl(
     final @Nullable Key font,
     final @Nullable TextColor color,
-    final TextDecoration.State obfuscated,
-    final TextDecoration.State bold,
-    final TextDecoration.State strikethrough,
-    final TextDecoration.State underlined,
-    final TextDecoration.State italic,
+    final int decorations,
     final @Nullable ClickEvent clickEvent,
     final @Nullable HoverEvent<?> hoverEvent,
     final @Nullable String insertion
   ) {
     this.font = font;
     this.color = color;
-    this.obfuscated = obfuscated;
-    this.bold = bold;
-    this.strikethrough = strikethrough;
-    this.underlined = underlined;
-    this.italic = italic;
+    this.decorations = decorations;
     this.clickEvent = clickEvent;
     this.hoverEvent = hoverEvent;
     this.insertion = insertion;
   }
 
+  static @NonNull StyleImpl create(
+    final @Nullable Key font,
+    final @Nullable TextColor color,
+    final int decorations,
+    final @Nullable ClickEvent clickEvent,
+    final @Nullable HoverEvent<?> hoverEvent,
+    final @Nullable String insertion
+  ) {
+    if(font == null && clickEvent == null && hoverEvent == null && insertion == null) {
+      if(color == null && decorations == 0) {
+        return EMPTY;
+      } else if(color == null || color instanceof NamedTextColor || color instanceof TextColorImpl) {
+        // other colour implementations are kept as given, rather than replaced by an equal colour
+        return intern(color, decorations);
+      }
+    }
+    return new StyleImpl(font, color, decorations, clickEvent, hoverEvent, insertion);
+  }
+
+  private static @NonNull StyleImpl intern(final @Nullable TextColor color, final int decorations) {
+    final int hash = ((color == null ? 0 : color.value() + 1) * 31 + decorations) * 0x9e3779b1;
+    final int slot = hash >>> (32 - INTERNED_BITS);
+    final @Nullable StyleImpl interned = INTERNED[slot];
+    if(interned != null && interned.decorations == decorations && Objects.equals(interned.color, color)) {
+      return interned;
+    }
+    final StyleImpl style = new StyleImpl(null, color, decorations, null, null, null);
+    INTERNED[slot] = style;
+    return style;
+  }
+
+  static int shift(final @NonNull TextDecoration decoration) {
+    return decoration.ordinal() << 1;
+  }
+
+  static TextDecoration.@NonNull State state(final int decorations, final @NonNull TextDecoration decoration) {
+    return STATES[(decorations >>> shift(decoration)) & 0b11];
+  }
+
+  static int withState(final int decorations, final @NonNull TextDecoration decoration, final TextDecoration.@NonNull State state) {
+    final int shift = shift(decoration);
+    return (decorations & ~(0b11 << shift)) | (state.ordinal() << shift);
+  }
+
   @Override
   public @Nullable Key font() {
     return this.font;
@@ -92,7 +130,7 @@ final class StyleImpl implements Style {
   @Override
   public @NonNull Style font(final @Nullable Key font) {
     if(Objects.equals(this.font, font)) return this;
-    return new StyleImpl(font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
+    return create(font, this.color, this.decorations, this.clickEvent, this.hoverEvent, this.insertion);
   }
 
   @Override
@@ -103,7 +141,7 @@ final class StyleImpl implements Style {
   @Override
   public @NonNull Style color(final @Nullable TextColor color) {
     if(Objects.equals(this.color, color)) return this;
-    return new StyleImpl(this.font, color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
+    return create(this.font, color, this.decorations, this.clickEvent, this.hoverEvent, this.insertion);
   }
 
   @Override
@@ -116,35 +154,15 @@ final class StyleImpl implements Style {
 
   @Override
   public TextDecoration.@NonNull State decoration(final @NonNull TextDecoration decoration) {
-    if(decoration == TextDecoration.BOLD) {
-      return this.bold;
-    } else if(decoration == TextDecoration.ITALIC) {
-      return this.italic;
-    } else if(decoration == TextDecoration.UNDERLINED) {
-      return this.underlined;
-    } else if(decoration == TextDecoration.STRIKETHROUGH) {
-      return this.strikethrough;
-    } else if(decoration == TextDecoration.OBFUSCATED) {
-      return this.obfuscated;
-    }
-    throw new IllegalArgumentException(String.format("unknown decoration '%s'", decoration));
+    return state(this.decorations, decoration);
   }
 
   @Override
   public @NonNull Style decoration(final @NonNull TextDecoration decoration, final TextDecoration.@NonNull State state) {
     requireNonNull(state, "state");
-    if(decoration == TextDecoration.BOLD) {
-      return new StyleImpl(this.font, this.color, this.obfuscated, state, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
-    } else if(decoration == TextDecoration.ITALIC) {
-      return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, state, this.clickEvent, this.hoverEvent, this.insertion);
-    } else if(decoration == TextDecoration.UNDERLINED) {
-      return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, state, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
-    } else if(decoration == TextDecoration.STRIKETHROUGH) {
-      return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, state, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
-    } else if(decoration == TextDecoration.OBFUSCATED) {
-      return new StyleImpl(this.font, this.color, state, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
-    }
-    throw new IllegalArgumentException(String.format("unknown decoration '%s'", decoration));
+    final int decorations = withState(this.decorations, decoration, state);
+    if(decorations == this.decorations) return this;
+    return create(this.font, this.color, decorations, this.clickEvent, this.hoverEvent, this.insertion);
   }
 
   @Override
@@ -160,12 +178,12 @@ final class StyleImpl implements Style {
 
   @Override
   public @NonNull Style decorations(final @NonNull Map<TextDecoration, TextDecoration.State> decorations) {
-    final TextDecoration.State obfuscated = decorations.getOrDefault(TextDecoration.OBFUSCATED, this.obfuscated);
-    final TextDecoration.State bold = decorations.getOrDefault(TextDecoration.BOLD, this.bold);
-    final TextDecoration.State strikethrough = decorations.getOrDefault(TextDecoration.STRIKETHROUGH, this.strikethrough);
-    final TextDecoration.State underlined = decorations.getOrDefault(TextDecoration.UNDERLINED, this.underlined);
-    final TextDecoration.State italic = decorations.getOrDefault(TextDecoration.ITALIC, this.italic);
-    return new StyleImpl(this.font, this.color, obfuscated, bold, strikethrough, underlined, italic, this.clickEvent, this.hoverEvent, this.insertion);
+    int bits = this.decorations;
+    for(final Map.Entry<TextDecoration, TextDecoration.State> entry : decorations.entrySet()) {
+      bits = withState(bits, entry.getKey(), requireNonNull(entry.getValue(), "state"));
+    }
+    if(bits == this.decorations) return this;
+    return create(this.font, this.color, bits, this.clickEvent, this.hoverEvent, this.insertion);
   }
 
   @Override
@@ -175,7 +193,8 @@ final class StyleImpl implements Style {
 
   @Override
   public @NonNull Style clickEvent(final @Nullable ClickEvent event) {
-    return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, event, this.hoverEvent, this.insertion);
+    if(Objects.equals(this.clickEvent, event)) return this;
+    return create(this.font, this.color, this.decorations, event, this.hoverEvent, this.insertion);
   }
 
   @Override
@@ -185,7 +204,9 @@ final class StyleImpl implements Style {
 
   @Override
   public @NonNull Style hoverEvent(final @Nullable HoverEventSource<?> source) {
-    return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, HoverEventSource.unbox(source), this.insertion);
+    final @Nullable HoverEvent<?> event = HoverEventSource.unbox(source);
+    if(this.hoverEvent == event) return this; // comparing the values of hover events could compare entire components
+    return create(this.font, this.color, this.decorations, this.clickEvent, event, this.insertion);
   }
 
   @Override
@@ -196,27 +217,130 @@ final class StyleImpl implements Style {
   @Override
   public @NonNull Style insertion(final @Nullable String insertion) {
     if(Objects.equals(this.insertion, insertion)) return this;
-    return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, insertion);
+    return create(this.font, this.color, this.decorations, this.clickEvent, this.hoverEvent, insertion);
   }
 
   @Override
   public @NonNull Style merge(final @NonNull Style that, final Merge.@NonNull Strategy strategy, final @NonNull Set<Merge> merges) {
-    if(that.isEmpty() || strategy == Merge.Strategy.NEVER || merges.isEmpty()) {
+    final int mask = Merge.mask(merges);
+    if(mask == 0 || strategy == Merge.Strategy.NEVER || that.isEmpty()) {
       // nothing to merge
       return this;
     }
 
-    if(this.isEmpty() && Merge.hasAll(merges)) {
+    if(this.isEmpty() && mask == Merge.ALL_MASK) {
       // if the current style is empty and all merge types have been requested
       // we can just return the other style instead of trying to merge
       return that;
     }
 
-    final Builder builder = this.toBuilder();
-    builder.merge(that, strategy, merges);
+    final boolean ifAbsent = ifAbsent(strategy);
+    @Nullable TextColor color = this.color;
+    int decorations = this.decorations;
+    @Nullable ClickEvent clickEvent = this.clickEvent;
+    @Nullable HoverEvent<?> hoverEvent = this.hoverEvent;
+    @Nullable String insertion = this.insertion;
+    @Nullable Key font = this.font;
+
+    if((mask & Merge.COLOR.bit()) != 0) {
+      final TextColor thatColor = that.color();
+      if(thatColor != null && (!ifAbsent || color == null)) color = thatColor;
+    }
+
+    if((mask & Merge.DECORATIONS.bit()) != 0) {
+      decorations = mergeDecorations(decorations, decorations(that), ifAbsent);
+    }
+
+    if((mask & Merge.EVENTS.bit()) != 0) {
+      final ClickEvent thatClickEvent = that.clickEvent();
+      if(thatClickEvent != null && (!ifAbsent || clickEvent == null)) clickEvent = thatClickEvent;
+
+      final HoverEvent<?> thatHoverEvent = that.hoverEvent();
+      if(thatHoverEvent != null && (!ifAbsent || hoverEvent == null)) hoverEvent = thatHoverEvent;
+    }
+
+    if((mask & Merge.INSERTION.bit()) != 0) {
+      final String thatInsertion = that.insertion();
+      if(thatInsertion != null && (!ifAbsent || insertion == null)) insertion = thatInsertion;
+    }
+
+    if((mask & Merge.FONT.bit()) != 0) {
+      final Key thatFont = that.font();
+      if(thatFont != null && (!ifAbsent || font == null)) font = thatFont;
+    }
+
+    // only allocate when the result differs from both styles
+    if(this.holds(font, color, decorations, clickEvent, hoverEvent, insertion)) return this;
+    if(that instanceof StyleImpl && ((StyleImpl) that).holds(font, color, decorations, clickEvent, hoverEvent, insertion)) return that;
+    return create(font, color, decorations, clickEvent, hoverEvent, insertion);
+  }
+
+  @Override
+  public @NonNull Style edit(final @NonNull Consumer<Builder> consumer, final Merge.@NonNull Strategy strategy) {
+    // merging this style into an empty builder with the ALWAYS strategy is the same as starting from this style
+    final BuilderImpl builder = strategy == Merge.Strategy.ALWAYS ? new BuilderImpl(this) : new BuilderImpl();
+    consumer.accept(builder);
+    if(strategy == Merge.Strategy.IF_ABSENT_ON_TARGET) {
+      builder.merge(this, strategy);
+    }
+    return this.rebuild(builder);
+  }
+
+  // the style built, or this style if the builder holds exactly the same values
+  private @NonNull StyleImpl rebuild(final @NonNull BuilderImpl builder) {
+    if(this.holds(builder.font, builder.color, builder.decorations, builder.clickEvent, builder.hoverEvent, builder.insertion)) {
+      return this;
+    }
     return builder.build();
   }
 
+  private boolean holds(
+    final @Nullable Key font,
+    final @Nullable TextColor color,
+    final int decorations,
+    final @Nullable ClickEvent clickEvent,
+    final @Nullable HoverEvent<?> hoverEvent,
+    final @Nullable String insertion
+  ) {
+    return font == this.font
+      && color == this.color
+      && decorations == this.decorations
+      && clickEvent == this.clickEvent
+      && hoverEvent == this.hoverEvent
+      && insertion == this.insertion;
+  }
+
+  private static boolean ifAbsent(final Merge.@NonNull Strategy strategy) {
+    if(strategy == Merge.Strategy.ALWAYS) {
+      return false;
+    } else if(strategy == Merge.Strategy.IF_ABSENT_ON_TARGET) {
+      return true;
+    }
+    throw new IllegalArgumentException(strategy.name());
+  }
+
+  private static int decorations(final @NonNull Style style) {
+    if(style instanceof StyleImpl) return ((StyleImpl) style).decorations;
+    int decorations = 0;
+    for(int i = 0, length = DECORATIONS.length; i < length; i++) {
+      final TextDecoration decoration = DECORATIONS[i];
+      decorations = withState(decorations, decoration, style.decoration(decoration));
+    }
+    return decorations;
+  }
+
+  // merges every decoration set in source, either over the target or only where the target has not set it
+  private static int mergeDecorations(final int target, final int source, final boolean ifAbsent) {
+    if(ifAbsent) return target | (source & ~setDecorations(target));
+    return (target & ~setDecorations(source)) | source;
+  }
+
+  // both bits of every decoration which is not NOT_SET
+  private static int setDecorations(final int decorations) {
+    final int low = (decorations | (decorations >>> 1)) & 0x155;
+    return low | (low << 1);
+  }
+
   @Override
   public boolean isEmpty() {
     return this == EMPTY;
@@ -236,11 +360,11 @@ final class StyleImpl implements Style {
   public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
     return Stream.of(
       ExaminableProperty.of("color", this.color),
-      ExaminableProperty.of("obfuscated", this.obfuscated),
-      ExaminableProperty.of("bold", this.bold),
-      ExaminableProperty.of("strikethrough", this.strikethrough),
-      ExaminableProperty.of("underlined", this.underlined),
-      ExaminableProperty.of("italic", this.italic),
+      ExaminableProperty.of("obfuscated", this.decoration(TextDecoration.OBFUSCATED)),
+      ExaminableProperty.of("bold", this.decoration(TextDecoration.BOLD)),
+      ExaminableProperty.of("strikethrough", this.decoration(TextDecoration.STRIKETHROUGH)),
+      ExaminableProperty.of("underlined", this.decoration(TextDecoration.UNDERLINED)),
+      ExaminableProperty.of("italic", this.decoration(TextDecoration.ITALIC)),
       ExaminableProperty.of("clickEvent", this.clickEvent),
       ExaminableProperty.of("hoverEvent", this.hoverEvent),
       ExaminableProperty.of("insertion", this.insertion),
@@ -259,11 +383,7 @@ final class StyleImpl implements Style {
     if(!(other instanceof StyleImpl)) return false;
     final StyleImpl that = (StyleImpl) other;
     return Objects.equals(this.color, that.color)
-      && this.obfuscated == that.obfuscated
-      && this.bold == that.bold
-      && this.strikethrough == that.strikethrough
-      && this.underlined == that.underlined
-      && this.italic == that.italic
+      && this.decorations == that.decorations
       && Objects.equals(this.clickEvent, that.clickEvent)
       && Objects.equals(this.hoverEvent, that.hoverEvent)
       && Objects.equals(this.insertion, that.insertion)
@@ -273,11 +393,7 @@ final class StyleImpl implements Style {
   @Override
   public int hashCode() {
     int result = Objects.hashCode(this.color);
-    result = (31 * result) + this.obfuscated.hashCode();
-    result = (31 * result) + this.bold.hashCode();
-    result = (31 * result) + this.strikethrough.hashCode();
-    result = (31 * result) + this.underlined.hashCode();
-    result = (31 * result) + this.italic.hashCode();
+    result = (31 * result) + this.decorations;
     result = (31 * result) + Objects.hashCode(this.clickEvent);
     result = (31 * result) + Objects.hashCode(this.hoverEvent);
     result = (31 * result) + Objects.hashCode(this.insertion);
@@ -288,11 +404,7 @@ final class StyleImpl implements Style {
   static final class BuilderImpl implements Builder {
     @Nullable Key font;
     @Nullable TextColor color;
-    TextDecoration.State obfuscated = TextDecoration.State.NOT_SET;
-    TextDecoration.State bold = TextDecoration.State.NOT_SET;
-    TextDecoration.State strikethrough = TextDecoration.State.NOT_SET;
-    TextDecoration.State underlined = TextDecoration.State.NOT_SET;
-    TextDecoration.State italic = TextDecoration.State.NOT_SET;
+    int decorations;
     @Nullable ClickEvent clickEvent;
     @Nullable HoverEvent<?> hoverEvent;
     @Nullable String insertion;
@@ -302,11 +414,7 @@ final class StyleImpl implements Style {
 
     BuilderImpl(final @NonNull StyleImpl style) {
       this.color = style.color;
-      this.obfuscated = style.obfuscated;
-      this.bold = style.bold;
-      this.strikethrough = style.strikethrough;
-      this.underlined = style.underlined;
-      this.italic = style.italic;
+      this.decorations = style.decorations;
       this.clickEvent = style.clickEvent;
       this.hoverEvent = style.hoverEvent;
       this.insertion = style.insertion;
@@ -349,23 +457,8 @@ final class StyleImpl implements Style {
     @Override
     public @NonNull Builder decoration(final @NonNull TextDecoration decoration, final TextDecoration.@NonNull State state) {
       requireNonNull(state, "state");
-      if(decoration == TextDecoration.BOLD) {
-        this.bold = state;
-        return this;
-      } else if(decoration == TextDecoration.ITALIC) {
-        this.italic = state;
-        return this;
-      } else if(decoration == TextDecoration.UNDERLINED) {
-        this.underlined = state;
-        return this;
-      } else if(decoration == TextDecoration.STRIKETHROUGH) {
-        this.strikethrough = state;
-        return this;
-      } else if(decoration == TextDecoration.OBFUSCATED) {
-        this.obfuscated = state;
-        return this;
-      }
-      throw new IllegalArgumentException(String.format("unknown decoration '%s'", decoration));
+      this.decorations = withState(this.decorations, decoration, state);
+      return this;
     }
 
     @Override
@@ -388,179 +481,59 @@ final class StyleImpl implements Style {
 
     @Override
     public @NonNull Builder merge(final @NonNull Style that, final Merge.@NonNull Strategy strategy, final @NonNull Set<Merge> merges) {
-      if(that.isEmpty() || strategy == Merge.Strategy.NEVER || merges.isEmpty()) {
+      final int mask = Merge.mask(merges);
+      if(mask == 0 || strategy == Merge.Strategy.NEVER || that.isEmpty()) {
         // nothing to merge
         return this;
       }
 
-      final MergeLogic logic = mergeLogic(strategy);
+      final boolean ifAbsent = ifAbsent(strategy);
 
-      if(merges.contains(Merge.COLOR)) {
+      if((mask & Merge.COLOR.bit()) != 0) {
         final TextColor color = that.color();
-        if(color != null && logic.mergeColor(this, color)) this.color(color);
+        if(color != null && (!ifAbsent || this.color == null)) this.color = color;
       }
 
-      if(merges.contains(Merge.DECORATIONS)) {
-        for(int i = 0, length = DECORATIONS.length; i < length; i++) {
-          final TextDecoration decoration = DECORATIONS[i];
-          final TextDecoration.State state = that.decoration(decoration);
-          if(state != TextDecoration.State.NOT_SET && logic.mergeDecoration(this, decoration)) this.decoration(decoration, state);
-        }
+      if((mask & Merge.DECORATIONS.bit()) != 0) {
+        this.decorations = mergeDecorations(this.decorations, decorations(that), ifAbsent);
       }
 
-      if(merges.contains(Merge.EVENTS)) {
+      if((mask & Merge.EVENTS.bit()) != 0) {
         final ClickEvent clickEvent = that.clickEvent();
-        if(clickEvent != null && logic.mergeClickEvent(this, clickEvent)) this.clickEvent(clickEvent);
+        if(clickEvent != null && (!ifAbsent || this.clickEvent == null)) this.clickEvent = clickEvent;
 
         final HoverEvent<?> hoverEvent = that.hoverEvent();
-        if(hoverEvent != null && logic.mergeHoverEvent(this, hoverEvent)) this.hoverEvent(hoverEvent);
+        if(hoverEvent != null && (!ifAbsent || this.hoverEvent == null)) this.hoverEvent = hoverEvent;
       }
 
-      if(merges.contains(Merge.INSERTION)) {
+      if((mask & Merge.INSERTION.bit()) != 0) {
         final String insertion = that.insertion();
-        if(insertion != null && logic.mergeInsertion(this, insertion)) this.insertion(insertion);
+        if(insertion != null && (!ifAbsent || this.insertion == null)) this.insertion = insertion;
       }
 
-      if(merges.contains(Merge.FONT)) {
+      if((mask & Merge.FONT.bit()) != 0) {
         final Key font = that.font();
-        if(font != null && logic.mergeFont(this, font)) this.font(font);
+        if(font != null && (!ifAbsent || this.font == null)) this.font = font;
       }
 
       return this;
     }
 
-    private static MergeLogic mergeLogic(final Merge.Strategy strategy) {
-      if(strategy == Merge.Strategy.ALWAYS) {
-        return MergeLogic.Constant.TRUE;
-      } else if(strategy == Merge.Strategy.NEVER) {
-        return MergeLogic.Constant.FALSE;
-      } else if(strategy == Merge.Strategy.IF_ABSENT_ON_TARGET) {
-        return MergeLogic.IfAbsentOnTarget.INSTANCE;
-      }
-      throw new IllegalArgumentException(strategy.name());
-    }
-
     @Override
     public @NonNull StyleImpl build() {
       if(this.isEmpty()) {
         return EMPTY;
       }
-      return new StyleImpl(this.font, this.color, this.obfuscated, this.bold, this.strikethrough, this.underlined, this.italic, this.clickEvent, this.hoverEvent, this.insertion);
+      return create(this.font, this.color, this.decorations, this.clickEvent, this.hoverEvent, this.insertion);
     }
 
     private boolean isEmpty() {
       return this.color == null
-        && this.obfuscated == TextDecoration.State.NOT_SET
-        && this.bold == TextDecoration.State.NOT_SET
-        && this.strikethrough == TextDecoration.State.NOT_SET
-        && this.underlined == TextDecoration.State.NOT_SET
-        && this.italic == TextDecoration.State.NOT_SET
+        && this.decorations == 0
         && this.clickEvent == null
         && this.hoverEvent == null
         && this.insertion == null
         && this.font == null;
     }
   }
-
-  static abstract class MergeLogic {
-    abstract boolean mergeColor(final BuilderImpl target, final @Nullable TextColor color);
-
-    abstract boolean mergeDecoration(final BuilderImpl target, final @NonNull TextDecoration decoration);
-
-    abstract boolean mergeClickEvent(final BuilderImpl target, final @Nullable ClickEvent event);
-
-    abstract boolean mergeHoverEvent(final BuilderImpl target, final @Nullable HoverEvent<?> event);
-
-    abstract boolean mergeInsertion(final BuilderImpl target, final @Nullable String insertion);
-
-    abstract boolean mergeFont(final BuilderImpl target, final @Nullable Key font);
-
-    static final class Constant extends MergeLogic {
-      static final Constant FALSE = new Constant(false);
-      static final Constant TRUE = new Constant(true);
-      private final boolean value;
-
-      private Constant(final boolean value) {
-        this.value = value;
-      }
-
-      @Override
-      boolean mergeColor(final BuilderImpl target, final @Nullable TextColor color) {
-        return this.value;
-      }
-
-      @Override
-      boolean mergeDecoration(final BuilderImpl target, final @NonNull TextDecoration decoration) {
-        return this.value;
-      }
-
-      @Override
-      boolean mergeClickEvent(final BuilderImpl target, final @Nullable ClickEvent event) {
-        return this.value;
-      }
-
-      @Override
-      boolean mergeHoverEvent(final BuilderImpl target, final @Nullable HoverEvent<?> event) {
-        return this.value;
-      }
-
-      @Override
-      boolean mergeInsertion(final BuilderImpl target, final @Nullable String insertion) {
-        return this.value;
-      }
-
-      @Override
-      boolean mergeFont(final BuilderImpl target, final @Nullable Key font) {
-        return this.value;
-      }
-    }
-
-    static final class IfAbsentOnTarget extends MergeLogic {
-      static final IfAbsentOnTarget INSTANCE = new IfAbsentOnTarget();
-
-      private IfAbsentOnTarget() {
-      }
-
-      @Override
-      boolean mergeColor(final BuilderImpl target, final @Nullable TextColor color) {
-        return target.color == null;
-      }
-
-      @Override
-      boolean mergeDecoration(final BuilderImpl target, final @NonNull TextDecoration decoration) {
-        if(decoration == TextDecoration.OBFUSCATED) {
-          return target.obfuscated == TextDecoration.State.NOT_SET;
-        } else if(decoration == TextDecoration.BOLD) {
-          return target.bold == TextDecoration.State.NOT_SET;
-        } else if(decoration == TextDecoration.STRIKETHROUGH) {
-          return target.strikethrough == TextDecoration.State.NOT_SET;
-        } else if(decoration == TextDecoration.UNDERLINED) {
-          return target.underlined == TextDecoration.State.NOT_SET;
-        } else if(decoration == TextDecoration.ITALIC) {
-          return target.italic == TextDecoration.State.NOT_SET;
-        }
-        throw new IllegalArgumentException();
-      }
-
-      @Override
-      boolean mergeClickEvent(final BuilderImpl target, final @Nullable ClickEvent event) {
-        return target.clickEvent == null;
-      }
-
-      @Override
-      boolean mergeHoverEvent(final BuilderImpl target, final @Nullable HoverEvent<?> event) {
-        return target.hoverEvent == null;
-      }
-
-      @Override
-      boolean mergeInsertion(final BuilderImpl target, final @Nullable String insertion) {
-        return target.insertion == null;
-      }
-
-      @Override
-      boolean mergeFont(final BuilderImpl target, final @Nullable Key font) {
-        return target.font == null;
-      }
-    }
-  }
 }
@@ -47,14 +47,16 @@ public interface TextColor extends Comparable<TextColor>, Examinable, RGBLike, S
   /**
    * Creates a new text colour.
    *
+   * <p>Colours are compared by value, so a recently created colour with the same value may be returned instead.</p>
+   *
    * @param value the rgb value
-   * @return a new text colour
+   * @return a text colour
    * @since 4.0.0
    */
   static @NonNull TextColor color(final int value) {
     final int truncatedValue = value & 0xffffff;
     final NamedTextColor named = NamedTextColor.ofExact(truncatedValue);
-    return named != null ? named : new TextColorImpl(truncatedValue);
+    return named != null ? named : TextColorImpl.color(truncatedValue);
   }
 
   /**
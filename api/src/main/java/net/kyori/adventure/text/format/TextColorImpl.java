@@ -23,22 +23,59 @@
  */
 package net.kyori.adventure.text.format;
 
+import net.kyori.adventure.util.HSVLike;
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Debug;
 
 @Debug.Renderer(text = "asHexString()")
 final class TextColorImpl implements TextColor {
+  // Colours are often created again with the same values, such as by gradients, so recently created colours are
+  // reused. Each is kept in a slot chosen by its value, and slots are replaced whole, so no locking is required.
+  // The number of slots can be set with a system property, rounded down to a power of two, and 0 disables reuse.
+  private static final @Nullable TextColorImpl[] CACHE = createCache(Integer.getInteger(String.join(".", "net", "kyori", "adventure", "text", "format", "colorCacheSize"), 4096));
+
   private final int value;
+  private @Nullable HSVLike hsv; // computed when first needed; racing threads compute equal values
 
   TextColorImpl(final int value) {
     this.value = value;
   }
 
+  private static @Nullable TextColorImpl[] createCache(final int size) {
+    return size > 0 ? new TextColorImpl[Integer.highestOneBit(size)] : null;
+  }
+
+  static @NonNull TextColorImpl color(final int value) {
+    final @Nullable TextColorImpl[] cache = CACHE;
+    if(cache == null) {
+      return new TextColorImpl(value);
+    }
+    final int hash = value * 0x9e3779b1;
+    final int slot = (hash ^ (hash >>> 16)) & (cache.length - 1);
+    final @Nullable TextColorImpl cached = cache[slot];
+    if(cached != null && cached.value == value) {
+      return cached;
+    }
+    final TextColorImpl color = new TextColorImpl(value);
+    cache[slot] = color;
+    return color;
+  }
+
   @Override
   public int value() {
     return this.value;
   }
 
+  @Override
+  public @NonNull HSVLike asHSV() {
+    @Nullable HSVLike hsv = this.hsv;
+    if(hsv == null) {
+      this.hsv = hsv = HSVLike.fromRGB(this.red(), this.green(), this.blue());
+    }
+    return hsv;
+  }
+
   @Override
   public boolean equals(final @Nullable Object other) {
     if(this == other) return true;
@@ -43,7 +43,9 @@ import org.checkerframework.checker.nullness.qual.NonNull;
  */
 public abstract class AbstractComponentRenderer<C> implements ComponentRenderer<C> {
   @Override
-  public @NonNull Component render(final @NonNull Component component, final @NonNull C context) {
+  public @NonNull Component render(final @NonNull Component input, final @NonNull C context) {
+    // dispatch on the component a stand-in represents, such as one that is yet to be parsed
+    final Component component = input.asComponent();
     if(component instanceof TextComponent) {
       return this.renderText((TextComponent) component, context);
     } else if(component instanceof TranslatableComponent) {
@@ -23,18 +23,17 @@
  */
 package net.kyori.adventure.text.serializer.gson;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import java.lang.reflect.Type;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.BlockNBTComponent;
 import net.kyori.adventure.text.BuildableComponent;
@@ -50,9 +49,11 @@ import net.kyori.adventure.text.StorageNBTComponent;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.util.BoundedCache;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-final class ComponentSerializerImpl implements JsonDeserializer<Component>, JsonSerializer<Component> {
+final class ComponentSerializerImpl extends TypeAdapter<Component> {
   static final String TEXT = "text";
   static final String TRANSLATE = "translate";
   static final String TRANSLATE_WITH = "with";
@@ -69,98 +70,243 @@ final class ComponentSerializerImpl implements JsonDeserializer<Component>, Json
   static final String NBT_ENTITY = "entity";
   static final String NBT_STORAGE = "storage";
 
+  private final TypeAdapter<Component> nullSafe;
+  private final StyleSerializer style;
+  private final TypeAdapter<Key> key;
+  private final TypeAdapter<BlockNBTComponent.Pos> pos;
+
+  ComponentSerializerImpl(final @Nullable LegacyHoverEventSerializer legacyHover, final boolean emitLegacyHover, final TypeAdapter<TextColor> color, final @Nullable BoundedCache<Component, String> cache) {
+    this.nullSafe = this.nullSafe();
+    // hover values refer back to this serializer directly, rather than through a lookup for each value
+    this.style = new StyleSerializer(legacyHover, emitLegacyHover, color, this.nullSafe, cache);
+    this.key = KeySerializer.INSTANCE;
+    this.pos = BlockNBTComponentPosSerializer.INSTANCE;
+  }
+
+  TypeAdapter<Component> nullSafeAdapter() {
+    return this.nullSafe;
+  }
+
+  StyleSerializer style() {
+    return this.style;
+  }
+
   @Override
-  public Component deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) throws JsonParseException {
-    return this.deserialize0(json, context);
-  }
-
-  private BuildableComponent<?, ?> deserialize0(final JsonElement element, final JsonDeserializationContext context) throws JsonParseException {
-    if(element.isJsonPrimitive()) {
-      return Component.text(element.getAsString());
-    } else if(element.isJsonArray()) {
-      ComponentBuilder<?, ?> parent = null;
-      for(final JsonElement childElement : element.getAsJsonArray()) {
-        final BuildableComponent<?, ?> child = this.deserialize0(childElement, context);
-        if(parent == null) {
-          parent = child.toBuilder();
-        } else {
-          parent.append(child);
+  public BuildableComponent<?, ?> read(final JsonReader in) throws IOException {
+    if(in instanceof LimitedJsonReader) ((LimitedJsonReader) in).countComponent();
+    switch(in.peek()) {
+      case STRING:
+      case NUMBER:
+      case BOOLEAN:
+        return Component.text(readString(in));
+      case BEGIN_ARRAY:
+        in.beginArray();
+        if(!in.hasNext()) {
+          throw notSureHowToDeserialize(in);
         }
-      }
-      if(parent == null) {
-        throw notSureHowToDeserialize(element);
-      }
-      return parent.build();
-    } else if(!element.isJsonObject()) {
-      throw notSureHowToDeserialize(element);
+        final ComponentBuilder<?, ?> parent = this.read(in).toBuilder();
+        while(in.hasNext()) {
+          parent.append(this.read(in));
+        }
+        in.endArray();
+        return parent.build();
+      case BEGIN_OBJECT:
+        return this.readObject(in);
+      default:
+        throw notSureHowToDeserialize(in);
     }
+  }
 
-    final JsonObject object = element.getAsJsonObject();
-    final ComponentBuilder<?, ?> component;
-    if(object.has(TEXT)) {
-      component = Component.text().content(object.get(TEXT).getAsString());
-    } else if(object.has(TRANSLATE)) {
-      final String key = object.get(TRANSLATE).getAsString();
-      if(!object.has(TRANSLATE_WITH)) {
-        component = Component.translatable().key(key);
-      } else {
-        final JsonArray with = object.getAsJsonArray(TRANSLATE_WITH);
-        final List<Component> args = new ArrayList<>(with.size());
-        for(int i = 0, size = with.size(); i < size; i++) {
-          final JsonElement argElement = with.get(i);
-          args.add(this.deserialize0(argElement, context));
+  // read each entry exactly once, in whatever order the entries appear
+  private BuildableComponent<?, ?> readObject(final JsonReader in) throws IOException {
+    @Nullable String text = null;
+    @Nullable String translate = null;
+    @Nullable List<Component> with = null;
+    boolean score = false;
+    @Nullable String scoreName = null;
+    @Nullable String scoreObjective = null;
+    @Nullable String scoreValue = null;
+    @Nullable String selector = null;
+    @Nullable String keybind = null;
+    @Nullable String nbt = null;
+    boolean nbtInterpret = false;
+    BlockNBTComponent.@Nullable Pos nbtBlock = null;
+    @Nullable String nbtEntity = null;
+    @Nullable Key nbtStorage = null;
+    @Nullable List<Component> extra = null;
+    @Nullable Set<String> nulls = null;
+    final StyleSerializer.Entries entries = new StyleSerializer.Entries();
+
+    in.beginObject();
+    while(in.hasNext()) {
+      final String name = in.nextName();
+      if(in.peek() == JsonToken.NULL) {
+        // null entries are only rejected if they would be used, as when components were read from a tree
+        if(name.equals(EXTRA) || StyleSerializer.isNonNullEntry(name)) {
+          throw nullEntry(name, in);
         }
-        component = Component.translatable().key(key).args(args);
+        in.nextNull();
+        if(nulls == null) nulls = new HashSet<>();
+        nulls.add(name);
+        continue;
       }
-    } else if(object.has(SCORE)) {
-      final JsonObject score = object.getAsJsonObject(SCORE);
-      if(!score.has(SCORE_NAME) || !score.has(SCORE_OBJECTIVE)) {
-        throw new JsonParseException("A score component requires a " + SCORE_NAME + " and " + SCORE_OBJECTIVE);
+      switch(name) {
+        case TEXT: text = readString(in); break;
+        case TRANSLATE: translate = readString(in); break;
+        case TRANSLATE_WITH: with = this.readList(in, false); break;
+        case SCORE:
+          score = true;
+          in.beginObject();
+          while(in.hasNext()) {
+            final String scoreEntry = in.nextName();
+            if(in.peek() == JsonToken.NULL) {
+              in.nextNull();
+              if(scoreEntry.equals(SCORE_NAME) || scoreEntry.equals(SCORE_OBJECTIVE) || scoreEntry.equals(SCORE_VALUE)) {
+                if(nulls == null) nulls = new HashSet<>();
+                nulls.add(SCORE + '.' + scoreEntry);
+              }
+            } else if(scoreEntry.equals(SCORE_NAME)) {
+              scoreName = readString(in);
+            } else if(scoreEntry.equals(SCORE_OBJECTIVE)) {
+              scoreObjective = readString(in);
+            } else if(scoreEntry.equals(SCORE_VALUE)) {
+              scoreValue = readString(in);
+            } else {
+              in.skipValue();
+            }
+          }
+          in.endObject();
+          break;
+        case SELECTOR: selector = readString(in); break;
+        case KEYBIND: keybind = readString(in); break;
+        case NBT: nbt = readString(in); break;
+        case NBT_INTERPRET: nbtInterpret = in.peek() == JsonToken.BOOLEAN ? in.nextBoolean() : Boolean.parseBoolean(readString(in)); break;
+        case NBT_BLOCK: nbtBlock = this.pos.read(in); break;
+        case NBT_ENTITY: nbtEntity = readString(in); break;
+        case NBT_STORAGE: nbtStorage = this.key.read(in); break;
+        case EXTRA: extra = this.readList(in, true); break;
+        default:
+          if(!this.style.readEntry(in, name, entries)) {
+            in.skipValue();
+          }
+          break;
       }
-      final ScoreComponent.Builder builder = Component.score()
-        .name(score.get(SCORE_NAME).getAsString())
-        .objective(score.get(SCORE_OBJECTIVE).getAsString());
-      // score components can have a value sometimes, let's grab it
-      if(score.has(SCORE_VALUE)) {
-        component = builder.value(score.get(SCORE_VALUE).getAsString());
+    }
+
+    // components are constructed directly, only falling back to builders for the less common types
+    // the first content entry present decides the type of the component, even if it is null
+    final Style style = entries.build();
+    final BuildableComponent<?, ?> component;
+    if(has(text, nulls, TEXT)) {
+      final String content = nonNull(text, TEXT, in);
+      if(content.isEmpty() && style.isEmpty() && (extra == null || extra.isEmpty())) {
+        // a builder would also produce the empty component, which is then dropped from any parent's children
+        component = Component.empty();
       } else {
-        component = builder;
+        final TextComponent textComponent = Component.text(content, style);
+        component = extra == null ? textComponent : textComponent.children(extra);
       }
-    } else if(object.has(SELECTOR)) {
-      component = Component.selector().pattern(object.get(SELECTOR).getAsString());
-    } else if(object.has(KEYBIND)) {
-      component = Component.keybind().keybind(object.get(KEYBIND).getAsString());
-    } else if(object.has(NBT)) {
-      final String nbt = object.get(NBT).getAsString();
-      final boolean interpret = object.has(NBT_INTERPRET) && object.getAsJsonPrimitive(NBT_INTERPRET).getAsBoolean();
-      if(object.has(NBT_BLOCK)) {
-        final BlockNBTComponent.Pos pos = context.deserialize(object.get(NBT_BLOCK), BlockNBTComponent.Pos.class);
-        component = nbt(Component.blockNBT(), nbt, interpret).pos(pos);
-      } else if(object.has(NBT_ENTITY)) {
-        component = nbt(Component.entityNBT(), nbt, interpret).selector(object.get(NBT_ENTITY).getAsString());
-      } else if(object.has(NBT_STORAGE)) {
-        component = nbt(Component.storageNBT(), nbt, interpret).storage(context.deserialize(object.get(NBT_STORAGE), Key.class));
+    } else if(has(translate, nulls, TRANSLATE)) {
+      final String key = nonNull(translate, TRANSLATE, in);
+      if(isNull(nulls, TRANSLATE_WITH)) throw nullEntry(TRANSLATE_WITH, in);
+      final TranslatableComponent translatable = with == null ? Component.translatable(key, style) : Component.translatable(key, style, with);
+      component = extra == null ? translatable : translatable.children(extra);
+    } else if(keybind != null && !score && selector == null && nulls == null) {
+      final KeybindComponent keybindComponent = Component.keybind(keybind, style);
+      component = extra == null ? keybindComponent : keybindComponent.children(extra);
+    } else {
+      final ComponentBuilder<?, ?> builder;
+      if(score || isNull(nulls, SCORE)) {
+        if(!score) throw nullEntry(SCORE, in);
+        if(isNull(nulls, SCORE + '.' + SCORE_NAME) || isNull(nulls, SCORE + '.' + SCORE_OBJECTIVE) || isNull(nulls, SCORE + '.' + SCORE_VALUE)) {
+          throw new JsonParseException("A score component cannot have null entries, at " + in.getPath());
+        }
+        if(scoreName == null || scoreObjective == null) {
+          throw new JsonParseException("A score component requires a " + SCORE_NAME + " and " + SCORE_OBJECTIVE);
+        }
+        // score components can have a value sometimes
+        builder = Component.score().name(scoreName).objective(scoreObjective).value(scoreValue);
+      } else if(has(selector, nulls, SELECTOR)) {
+        builder = Component.selector().pattern(nonNull(selector, SELECTOR, in));
+      } else if(has(keybind, nulls, KEYBIND)) {
+        builder = Component.keybind().keybind(nonNull(keybind, KEYBIND, in));
+      } else if(has(nbt, nulls, NBT)) {
+        final String path = nonNull(nbt, NBT, in);
+        if(isNull(nulls, NBT_INTERPRET)) throw nullEntry(NBT_INTERPRET, in);
+        if(has(nbtBlock, nulls, NBT_BLOCK)) {
+          builder = nbt(Component.blockNBT(), path, nbtInterpret).pos(nonNull(nbtBlock, NBT_BLOCK, in));
+        } else if(has(nbtEntity, nulls, NBT_ENTITY)) {
+          builder = nbt(Component.entityNBT(), path, nbtInterpret).selector(nonNull(nbtEntity, NBT_ENTITY, in));
+        } else if(has(nbtStorage, nulls, NBT_STORAGE)) {
+          builder = nbt(Component.storageNBT(), path, nbtInterpret).storage(nonNull(nbtStorage, NBT_STORAGE, in));
+        } else {
+          throw notSureHowToDeserialize(in);
+        }
       } else {
-        throw notSureHowToDeserialize(element);
+        throw notSureHowToDeserialize(in);
       }
-    } else {
-      throw notSureHowToDeserialize(element);
+      if(extra != null) builder.append(extra);
+      component = builder.style(style).build();
     }
+    in.endObject();
 
-    if(object.has(EXTRA)) {
-      final JsonArray extra = object.getAsJsonArray(EXTRA);
-      for(int i = 0, size = extra.size(); i < size; i++) {
-        final JsonElement extraElement = extra.get(i);
-        component.append(this.deserialize0(extraElement, context));
-      }
+    return component;
+  }
+
+  // children skip empty components, as appending them to a builder would
+  private List<Component> readList(final JsonReader in, final boolean children) throws IOException {
+    in.beginArray();
+    if(!in.hasNext()) {
+      in.endArray();
+      return Collections.emptyList();
     }
+    final List<Component> components = new ArrayList<>();
+    do {
+      final Component component = this.read(in);
+      if(!children || component != Component.empty()) {
+        components.add(component);
+      }
+    } while(in.hasNext());
+    in.endArray();
+    return components;
+  }
 
-    final Style style = context.deserialize(element, Style.class);
-    if(!style.isEmpty()) {
-      component.style(style);
+  static String readString(final JsonReader in) throws IOException {
+    final JsonToken token = in.peek();
+    if(token == JsonToken.STRING || token == JsonToken.NUMBER) {
+      return in.nextString();
+    } else if(token == JsonToken.BOOLEAN) {
+      return String.valueOf(in.nextBoolean());
+    } else if(token == JsonToken.BEGIN_ARRAY) {
+      // an array holding a single value is read as that value, as JsonArray#getAsString does
+      in.beginArray();
+      if(in.hasNext()) {
+        final String value = readString(in);
+        if(!in.hasNext()) {
+          in.endArray();
+          return value;
+        }
+      }
+      throw new JsonParseException("Expected an array with a single element at " + in.getPath());
     }
+    throw new JsonParseException("Expected a string but was " + token + " at " + in.getPath());
+  }
+
+  private static boolean has(final @Nullable Object value, final @Nullable Set<String> nulls, final String name) {
+    return value != null || isNull(nulls, name);
+  }
+
+  private static boolean isNull(final @Nullable Set<String> nulls, final String name) {
+    return nulls != null && nulls.contains(name);
+  }
+
+  private static <T> T nonNull(final @Nullable T value, final String name, final JsonReader in) {
+    if(value == null) throw nullEntry(name, in);
+    return value;
+  }
 
-    return component.build();
+  static JsonParseException nullEntry(final String name, final JsonReader in) {
+    return new JsonParseException("Expected a value for " + name + " but was null at " + in.getPath());
   }
 
   private static <C extends NBTComponent<C, B>, B extends NBTComponentBuilder<C, B>> B nbt(final B builder, final String nbt, final boolean interpret) {
@@ -170,64 +316,68 @@ final class ComponentSerializerImpl implements JsonDeserializer<Component>, Json
   }
 
   @Override
-  public JsonElement serialize(final Component src, final Type typeOfSrc, final JsonSerializationContext context) {
-    final JsonObject object = new JsonObject();
+  public void write(final JsonWriter out, Component src) throws IOException {
+    if(src instanceof LazyComponent) {
+      // the original JSON may only be used as a whole document, as it is not validated
+      src = ((LazyComponent) src).parsed();
+    }
+    out.beginObject();
 
+    // style entries are written inline, rather than as an object whose entries are then copied
     if(src.hasStyling()) {
-      final JsonElement style = context.serialize(src.style());
-      if(style.isJsonObject()) {
-        for(final Map.Entry<String, JsonElement> entry : ((JsonObject) style).entrySet()) {
-          object.add(entry.getKey(), entry.getValue());
-        }
-      }
+      this.style.writeFields(out, src.style());
     }
 
     final List<Component> children = src.children();
     if(!children.isEmpty()) {
-      final JsonArray extra = new JsonArray();
+      out.name(EXTRA);
+      out.beginArray();
       for(final Component child : children) {
-        extra.add(context.serialize(child));
+        this.write(out, child);
       }
-      object.add(EXTRA, extra);
+      out.endArray();
     }
 
     if(src instanceof TextComponent) {
-      object.addProperty(TEXT, ((TextComponent) src).content());
+      out.name(TEXT).value(((TextComponent) src).content());
     } else if(src instanceof TranslatableComponent) {
       final TranslatableComponent tc = (TranslatableComponent) src;
-      object.addProperty(TRANSLATE, tc.key());
+      out.name(TRANSLATE).value(tc.key());
       if(!tc.args().isEmpty()) {
-        final JsonArray with = new JsonArray();
+        out.name(TRANSLATE_WITH);
+        out.beginArray();
         for(final Component arg : tc.args()) {
-          with.add(context.serialize(arg));
+          this.write(out, arg);
         }
-        object.add(TRANSLATE_WITH, with);
+        out.endArray();
       }
     } else if(src instanceof ScoreComponent) {
       final ScoreComponent sc = (ScoreComponent) src;
-      final JsonObject score = new JsonObject();
-      score.addProperty(SCORE_NAME, sc.name());
-      score.addProperty(SCORE_OBJECTIVE, sc.objective());
+      out.name(SCORE);
+      out.beginObject();
+      out.name(SCORE_NAME).value(sc.name());
+      out.name(SCORE_OBJECTIVE).value(sc.objective());
       // score component value is optional
       @SuppressWarnings("deprecation")
       final @Nullable String value = sc.value();
-      if(value != null) score.addProperty(SCORE_VALUE, value);
-      object.add(SCORE, score);
+      if(value != null) out.name(SCORE_VALUE).value(value);
+      out.endObject();
     } else if(src instanceof SelectorComponent) {
-      object.addProperty(SELECTOR, ((SelectorComponent) src).pattern());
+      out.name(SELECTOR).value(((SelectorComponent) src).pattern());
     } else if(src instanceof KeybindComponent) {
-      object.addProperty(KEYBIND, ((KeybindComponent) src).keybind());
+      out.name(KEYBIND).value(((KeybindComponent) src).keybind());
     } else if(src instanceof NBTComponent) {
       final NBTComponent<?, ?> nc = (NBTComponent<?, ?>) src;
-      object.addProperty(NBT, nc.nbtPath());
-      object.addProperty(NBT_INTERPRET, nc.interpret());
+      out.name(NBT).value(nc.nbtPath());
+      out.name(NBT_INTERPRET).value(nc.interpret());
       if(src instanceof BlockNBTComponent) {
-        final JsonElement position = context.serialize(((BlockNBTComponent) nc).pos());
-        object.add(NBT_BLOCK, position);
+        out.name(NBT_BLOCK);
+        this.pos.write(out, ((BlockNBTComponent) nc).pos());
       } else if(src instanceof EntityNBTComponent) {
-        object.addProperty(NBT_ENTITY, ((EntityNBTComponent) nc).selector());
+        out.name(NBT_ENTITY).value(((EntityNBTComponent) nc).selector());
       } else if(src instanceof StorageNBTComponent) {
-        object.add(NBT_STORAGE, context.serialize(((StorageNBTComponent) nc).storage()));
+        out.name(NBT_STORAGE);
+        this.key.write(out, ((StorageNBTComponent) nc).storage());
       } else {
         throw notSureHowToSerialize(src);
       }
@@ -235,13 +385,17 @@ final class ComponentSerializerImpl implements JsonDeserializer<Component>, Json
       throw notSureHowToSerialize(src);
     }
 
-    return object;
+    out.endObject();
   }
 
   static JsonParseException notSureHowToDeserialize(final Object element) {
     return new JsonParseException("Don't know how to turn " + element + " into a Component");
   }
 
+  static JsonParseException notSureHowToDeserialize(final JsonReader in) {
+    return new JsonParseException("Don't know how to turn the value at " + in.getPath() + " into a Component");
+  }
+
   private static IllegalArgumentException notSureHowToSerialize(final Component component) {
     return new IllegalArgumentException("Don't know how to serialize " + component + " as a Component");
   }
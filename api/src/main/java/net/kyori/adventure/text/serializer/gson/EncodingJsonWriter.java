@@ -0,0 +1,62 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * The writer used by the serializer for its own output, which may be written fragments of JSON encoded in advance.
+ *
+ * <p>Writers created by Gson, such as those writing trees or pretty printing, cannot be written pre-encoded
+ * fragments, so fragments are only written to this writer.</p>
+ */
+final class EncodingJsonWriter extends JsonWriter {
+  EncodingJsonWriter(final Writer out) {
+    super(out);
+    // as configured by Gson#toJson
+    this.setLenient(true);
+    this.setHtmlSafe(true);
+    this.setSerializeNulls(false);
+  }
+
+  /**
+   * Encodes a string as a JSON string, exactly as this writer writes it.
+   *
+   * @param value the string
+   * @return the encoded string, including quotes
+   */
+  static String encode(final String value) {
+    final StringWriter writer = new StringWriter(value.length() + 2);
+    try {
+      new EncodingJsonWriter(writer).value(value);
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex); // not thrown when writing to a string
+    }
+    return writer.toString();
+  }
+}
@@ -26,10 +26,17 @@ package net.kyori.adventure.text.serializer.gson;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.function.UnaryOperator;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.ComponentSerializer;
 import net.kyori.adventure.util.Buildable;
+import net.kyori.adventure.util.CacheStatistics;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -65,6 +72,24 @@ public interface GsonComponentSerializer extends ComponentSerializer<Component,
     return GsonComponentSerializerImpl.LEGACY_INSTANCE;
   }
 
+  /**
+   * Serializes a component with each of {@code serializers}.
+   *
+   * <p>Serializers differ only in how they write colors and legacy hover events, so rather than serializing the
+   * component once for each serializer, the component is traversed once and only the differences are written
+   * for each serializer. This is useful when sending a message to clients of several protocol versions.</p>
+   *
+   * <p>The JSON produced for each serializer is identical to that of {@link #serialize(Component)}.</p>
+   *
+   * @param component the component
+   * @param serializers the serializers
+   * @return the JSON produced by each serializer, in the order of {@code serializers}
+   * @since 4.8.0
+   */
+  static @NonNull List<String> serializeVariants(final @NonNull Component component, final @NonNull GsonComponentSerializer@NonNull... serializers) {
+    return GsonComponentSerializerImpl.serializeVariants(component, serializers);
+  }
+
   /**
    * Creates a new {@link GsonComponentSerializer.Builder}.
    *
@@ -91,6 +116,46 @@ public interface GsonComponentSerializer extends ComponentSerializer<Component,
    */
   @NonNull UnaryOperator<GsonBuilder> populator();
 
+  /**
+   * Deserializes a component from JSON read from {@code reader}, without first reading the whole input.
+   *
+   * <p>The input is subject to the limits set by {@link Builder#maxDepth(int)}, {@link Builder#maxComponentCount(int)}
+   * and {@link Builder#maxStringLength(int)}, as is the input to {@link #deserialize(Object)}. Components are
+   * not {@link Builder#lazyDeserialization() deserialized lazily} from a reader. The reader is not closed.</p>
+   *
+   * @param reader the reader
+   * @return the component
+   * @throws com.google.gson.JsonParseException if the input is not a component, or exceeds a limit
+   * @throws com.google.gson.JsonIOException if an exception was encountered while reading
+   * @since 4.8.0
+   */
+  @NonNull Component deserialize(final @NonNull Reader reader);
+
+  /**
+   * Deserializes each of {@code inputs}.
+   *
+   * @param inputs the inputs
+   * @return the component of each input, in the order of {@code inputs}
+   * @since 4.8.0
+   */
+  @NonNull List<Component> deserializeAll(final @NonNull List<String> inputs);
+
+  /**
+   * Deserializes every document read from {@code reader}, where the documents are written one after another,
+   * optionally separated by whitespace.
+   *
+   * <p>A single reader is used for every document. The limits set by {@link Builder#maxDepth(int)},
+   * {@link Builder#maxComponentCount(int)} and {@link Builder#maxStringLength(int)} apply to each document.
+   * The reader is not closed.</p>
+   *
+   * @param reader the reader
+   * @return the component of each document, in the order they were read
+   * @throws com.google.gson.JsonParseException if a document is not a component, or exceeds a limit
+   * @throws com.google.gson.JsonIOException if an exception was encountered while reading
+   * @since 4.8.0
+   */
+  @NonNull List<Component> deserializeAll(final @NonNull Reader reader);
+
   /**
    * Deserialize a component from input of type {@link JsonElement}.
    *
@@ -109,6 +174,90 @@ public interface GsonComponentSerializer extends ComponentSerializer<Component,
    */
   @NonNull JsonElement serializeToTree(final @NonNull Component component);
 
+  /**
+   * Serializes a component as UTF-8 encoded JSON, written directly into {@code buffer}.
+   *
+   * <p>The bytes written are identical to those of {@link #serialize(Component)} encoded as UTF-8, without
+   * creating the intermediate string. If {@code buffer} does not have enough space remaining, its position
+   * is restored and a {@link BufferOverflowException} is thrown. {@link #serializedSizeEstimate(Component)}
+   * may be used to size the buffer.</p>
+   *
+   * @param component the component
+   * @param buffer the buffer
+   * @return the number of bytes written
+   * @throws BufferOverflowException if {@code buffer} does not have enough space remaining
+   * @since 4.8.0
+   */
+  int serialize(final @NonNull Component component, final @NonNull ByteBuffer buffer);
+
+  /**
+   * Serializes a component as UTF-8 encoded JSON, written directly to {@code stream}.
+   *
+   * <p>The bytes written are identical to those of {@link #serialize(Component)} encoded as UTF-8, without
+   * creating the intermediate string. The stream is not closed.</p>
+   *
+   * @param component the component
+   * @param stream the stream
+   * @throws IOException if an exception was encountered while writing
+   * @since 4.8.0
+   */
+  void serialize(final @NonNull Component component, final @NonNull OutputStream stream) throws IOException;
+
+  /**
+   * Serializes each of {@code components}.
+   *
+   * <p>A single writer and buffer are used for the whole batch, so this is cheaper than serializing each
+   * component individually. The JSON produced for each component is identical to that of {@link #serialize(Component)}.</p>
+   *
+   * @param components the components
+   * @return the JSON of each component, in the order of {@code components}
+   * @since 4.8.0
+   */
+  @NonNull List<String> serializeAll(final @NonNull List<? extends Component> components);
+
+  /**
+   * Serializes each of {@code components} as UTF-8 encoded JSON, written one after another into {@code buffer}.
+   *
+   * <p>The JSON of the first component starts at the position of the buffer when this method is called, and
+   * the JSON of every other component starts where the JSON of the previous component ends. The documents are
+   * not separated, but may be read back with {@link #deserializeAll(Reader)}.</p>
+   *
+   * <p>If {@code buffer} does not have enough space remaining, its position is restored and a
+   * {@link BufferOverflowException} is thrown.</p>
+   *
+   * @param components the components
+   * @param buffer the buffer
+   * @return the position in {@code buffer} at which the JSON of each component ends
+   * @throws BufferOverflowException if {@code buffer} does not have enough space remaining
+   * @since 4.8.0
+   */
+  int @NonNull [] serializeAll(final @NonNull List<? extends Component> components, final @NonNull ByteBuffer buffer);
+
+  /**
+   * Estimates the number of bytes {@code component} will occupy when serialized as UTF-8 encoded JSON.
+   *
+   * <p>The estimate is computed without serializing the component, and is intended to be an upper bound for
+   * components using only the standard keys. Legacy hover event values are written by the configured
+   * {@link LegacyHoverEventSerializer} and can only be guessed at, so when {@link Builder#emitLegacyHoverEvent()}
+   * is set the estimate is not guaranteed to be an upper bound. It is exact for components present in the
+   * {@link Builder#serializationCache(int, long) serialization cache}.</p>
+   *
+   * @param component the component
+   * @return the estimated size, in bytes
+   * @since 4.8.0
+   */
+  int serializedSizeEstimate(final @NonNull Component component);
+
+  /**
+   * Gets statistics for the cache of serialized components.
+   *
+   * @return the statistics, or {@code null} if this serializer does not {@link Builder#serializationCache(int, long) cache} serialized components
+   * @since 4.8.0
+   */
+  default @Nullable CacheStatistics cacheStatistics() {
+    return null;
+  }
+
   /**
    * A builder for {@link GsonComponentSerializer}.
    *
@@ -145,6 +294,86 @@ public interface GsonComponentSerializer extends ComponentSerializer<Component,
      */
     @NonNull Builder emitLegacyHoverEvent();
 
+    /**
+     * Sets that the JSON serialized for each component instance should be cached.
+     *
+     * <p>Components are immutable, so serializing the same instance again, such as when sending the same message
+     * to many players, can return the cached JSON instead of encoding the component again. Components are
+     * compared by identity rather than equality, and are held weakly so that caching a component does not
+     * prevent it from being garbage collected.</p>
+     *
+     * <p>The least recently used entries are evicted when the cache holds more than {@code maximumSize} entries,
+     * or the estimated memory retained by the cached JSON exceeds {@code maximumBytes}. The most recently
+     * serialized styles are also kept encoded, within the same bounds.</p>
+     *
+     * @param maximumSize the maximum number of entries
+     * @param maximumBytes the maximum estimated number of bytes retained by the entries
+     * @return this builder
+     * @throws IllegalArgumentException if either bound is not positive
+     * @see GsonComponentSerializer#cacheStatistics()
+     * @since 4.8.0
+     */
+    @NonNull Builder serializationCache(final int maximumSize, final long maximumBytes);
+
+    /**
+     * Sets that components should be parsed lazily.
+     *
+     * <p>{@link GsonComponentSerializer#deserialize(Object)} will return a component holding the JSON, which is
+     * only parsed once the component is first inspected. When serialized again by the same serializer, the
+     * component is serialized as the original JSON without being parsed, so components which are only passed
+     * along cost neither a parse nor an encode.</p>
+     *
+     * <p>The JSON is not validated until it is parsed, so an invalid document causes the first inspection of
+     * the component to throw instead. Lazy components are not instances of any specific component type, such as
+     * {@link net.kyori.adventure.text.TextComponent}: code that needs the specific type can use
+     * {@link Component#asComponent()} to get the parsed component. Flatteners and renderers do so themselves, and
+     * a lazy component is equal to any component which is equal to its parsed component.</p>
+     *
+     * <p>Components are parsed eagerly unless this is set.</p>
+     *
+     * @return this builder
+     * @since 4.8.0
+     */
+    @NonNull Builder lazyDeserialization();
+
+    /**
+     * Sets the maximum depth of nested JSON arrays and objects when deserializing.
+     *
+     * <p>The default depth is {@code 128}. Input nested more deeply is rejected rather than parsed, which
+     * could otherwise overflow the stack. Deserializing recurses once per level, so a higher limit may need a
+     * larger thread stack.</p>
+     *
+     * @param maxDepth the maximum depth
+     * @return this builder
+     * @throws IllegalArgumentException if {@code maxDepth} is not positive
+     * @since 4.8.0
+     */
+    @NonNull Builder maxDepth(final int maxDepth);
+
+    /**
+     * Sets the maximum total number of components when deserializing, counting every child, argument and hover text.
+     *
+     * <p>By default the number of components is not limited.</p>
+     *
+     * @param maxComponentCount the maximum number of components
+     * @return this builder
+     * @throws IllegalArgumentException if {@code maxComponentCount} is not positive
+     * @since 4.8.0
+     */
+    @NonNull Builder maxComponentCount(final int maxComponentCount);
+
+    /**
+     * Sets the maximum length, in characters, of a single string when deserializing, including the names of entries.
+     *
+     * <p>By default the length of strings is not limited.</p>
+     *
+     * @param maxStringLength the maximum string length
+     * @return this builder
+     * @throws IllegalArgumentException if {@code maxStringLength} is not positive
+     * @since 4.8.0
+     */
+    @NonNull Builder maxStringLength(final int maxStringLength);
+
     /**
      * Builds the serializer.
      *
@@ -26,47 +26,62 @@ package net.kyori.adventure.text.serializer.gson;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.UnaryOperator;
-import net.kyori.adventure.key.Key;
-import net.kyori.adventure.text.BlockNBTComponent;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.event.ClickEvent;
-import net.kyori.adventure.text.event.HoverEvent;
-import net.kyori.adventure.text.format.Style;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.util.BoundedCache;
+import net.kyori.adventure.util.CacheStatistics;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 final class GsonComponentSerializerImpl implements GsonComponentSerializer {
-  static final GsonComponentSerializer INSTANCE = new GsonComponentSerializerImpl(false, null, false);
-  static final GsonComponentSerializer LEGACY_INSTANCE = new GsonComponentSerializerImpl(true, null, true);
+  static final GsonComponentSerializer INSTANCE = new GsonComponentSerializerImpl(false, null, false, null, false, LimitedJsonReader.Limits.DEFAULT);
+  static final GsonComponentSerializer LEGACY_INSTANCE = new GsonComponentSerializerImpl(true, null, true, null, false, LimitedJsonReader.Limits.DEFAULT);
 
   private final Gson serializer;
+  private final TypeAdapter<Component> adapter; // called directly, rather than looked up by the type of each component
+  private final StyleSerializer style;
   private final UnaryOperator<GsonBuilder> populator;
   private final boolean downsampleColor;
   private final @Nullable LegacyHoverEventSerializer legacyHoverSerializer;
   private final boolean emitLegacyHover;
+  private final @Nullable BoundedCache<Component, String> cache;
+  private final boolean lazy;
+  private final LimitedJsonReader.Limits limits;
 
-  GsonComponentSerializerImpl(final boolean downsampleColor, final @Nullable LegacyHoverEventSerializer legacyHoverSerializer, final boolean emitLegacyHover) {
+  GsonComponentSerializerImpl(final boolean downsampleColor, final @Nullable LegacyHoverEventSerializer legacyHoverSerializer, final boolean emitLegacyHover, final @Nullable BoundedCache<Component, String> cache, final boolean lazy, final LimitedJsonReader.Limits limits) {
     this.downsampleColor = downsampleColor;
     this.legacyHoverSerializer = legacyHoverSerializer;
     this.emitLegacyHover = emitLegacyHover;
+    this.cache = cache;
+    this.lazy = lazy;
+    this.limits = limits;
+    final SerializerFactory factory = new SerializerFactory(downsampleColor, legacyHoverSerializer, emitLegacyHover, cache);
     this.populator = builder -> {
-      builder.registerTypeHierarchyAdapter(Key.class, KeySerializer.INSTANCE);
-      builder.registerTypeHierarchyAdapter(Component.class, new ComponentSerializerImpl());
-      builder.registerTypeHierarchyAdapter(Style.class, new StyleSerializer(legacyHoverSerializer, emitLegacyHover));
-      builder.registerTypeAdapter(ClickEvent.Action.class, IndexedSerializer.of("click action", ClickEvent.Action.NAMES));
-      builder.registerTypeAdapter(HoverEvent.Action.class, IndexedSerializer.of("hover action", HoverEvent.Action.NAMES));
-      builder.registerTypeAdapter(HoverEvent.ShowItem.class, new ShowItemSerializer());
-      builder.registerTypeAdapter(HoverEvent.ShowEntity.class, new ShowEntitySerializer());
-      builder.registerTypeAdapter(TextColorWrapper.class, new TextColorWrapper.Serializer());
-      builder.registerTypeHierarchyAdapter(TextColor.class, downsampleColor ? TextColorSerializer.DOWNSAMPLE_COLOR : TextColorSerializer.INSTANCE);
-      builder.registerTypeAdapter(TextDecoration.class, IndexedSerializer.of("text decoration", TextDecoration.NAMES));
-      builder.registerTypeHierarchyAdapter(BlockNBTComponent.Pos.class, BlockNBTComponentPosSerializer.INSTANCE);
+      builder.registerTypeAdapterFactory(factory);
       return builder;
     };
     this.serializer = this.populator.apply(new GsonBuilder()).create();
+    this.adapter = factory.component();
+    this.style = factory.style();
   }
 
   @Override
@@ -81,14 +96,251 @@ final class GsonComponentSerializerImpl implements GsonComponentSerializer {
 
   @Override
   public @NonNull Component deserialize(final @NonNull String string) {
-    final Component component = this.serializer().fromJson(string, Component.class);
+    if(this.lazy) return new LazyComponent(this, string);
+    return this.deserializeNow(string);
+  }
+
+  @NonNull Component deserializeNow(final @NonNull String string) {
+    final Component component = this.read(new StringReader(string));
     if(component == null) throw ComponentSerializerImpl.notSureHowToDeserialize(string);
     return component;
   }
 
+  @Override
+  public @NonNull List<Component> deserializeAll(final @NonNull List<String> inputs) {
+    final Component[] results = new Component[inputs.size()];
+    for(int i = 0; i < results.length; i++) {
+      results[i] = this.deserialize(inputs.get(i));
+    }
+    return Collections.unmodifiableList(Arrays.asList(results));
+  }
+
+  @Override
+  public @NonNull List<Component> deserializeAll(final @NonNull Reader reader) {
+    final LimitedJsonReader in = new LimitedJsonReader(reader, this.limits);
+    in.setLenient(true); // also allows several documents
+    final List<Component> results = new ArrayList<>();
+    try {
+      try {
+        in.peek();
+      } catch(final EOFException ex) {
+        return Collections.emptyList(); // no documents
+      }
+      while(in.peek() != JsonToken.END_DOCUMENT) {
+        in.resetComponentCount(); // the limits apply to each document
+        final Component component = this.adapter.read(in);
+        if(component == null) throw ComponentSerializerImpl.notSureHowToDeserialize(in);
+        results.add(component);
+      }
+    } catch(final MalformedJsonException | EOFException | IllegalStateException ex) {
+      throw new JsonSyntaxException(ex);
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex);
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  @Override
+  public @NonNull Component deserialize(final @NonNull Reader reader) {
+    final Component component = this.read(reader);
+    if(component == null) throw ComponentSerializerImpl.notSureHowToDeserialize("an empty or null document");
+    return component;
+  }
+
   @Override
   public @NonNull String serialize(final @NonNull Component component) {
-    return this.serializer().toJson(component);
+    final @Nullable String known = this.known(component);
+    if(known != null) return known;
+    final String json = this.write(component);
+    this.remember(component, json);
+    return json;
+  }
+
+  static @NonNull List<String> serializeVariants(final @NonNull Component component, final @NonNull GsonComponentSerializer@NonNull[] serializers) {
+    final String[] results = new String[serializers.length];
+    final GsonComponentSerializerImpl[] pending = new GsonComponentSerializerImpl[serializers.length];
+    final int[] pendingIndexes = new int[serializers.length];
+    int pendingCount = 0;
+    for(int i = 0; i < serializers.length; i++) {
+      final GsonComponentSerializer serializer = serializers[i];
+      if(!(serializer instanceof GsonComponentSerializerImpl)) {
+        results[i] = serializer.serialize(component);
+        continue;
+      }
+      final GsonComponentSerializerImpl impl = (GsonComponentSerializerImpl) serializer;
+      final @Nullable String known = impl.known(component);
+      if(known != null) {
+        results[i] = known;
+      } else {
+        pending[pendingCount] = impl;
+        pendingIndexes[pendingCount] = i;
+        pendingCount++;
+      }
+    }
+    if(pendingCount == 1) {
+      results[pendingIndexes[0]] = pending[0].serialize(component);
+    } else if(pendingCount > 1) {
+      final String[] written;
+      try {
+        written = VariantJsonWriter.write(component, Arrays.copyOf(pending, pendingCount));
+      } catch(final IOException ex) {
+        throw new JsonIOException(ex);
+      }
+      for(int i = 0; i < pendingCount; i++) {
+        results[pendingIndexes[i]] = written[i];
+        pending[i].remember(component, written[i]);
+      }
+    }
+    return Collections.unmodifiableList(Arrays.asList(results));
+  }
+
+  // the original JSON of a lazy component, or the cached JSON of a component
+  private @Nullable String known(final Component component) {
+    if(component instanceof LazyComponent) {
+      final @Nullable String json = ((LazyComponent) component).json(this);
+      if(json != null) return json;
+    }
+    return this.cache != null ? this.cache.get(component) : null;
+  }
+
+  private void remember(final Component component, final String json) {
+    if(this.cache != null) this.cache.put(component, json);
+  }
+
+  private @Nullable Component read(final Reader reader) {
+    final JsonReader in = new LimitedJsonReader(reader, this.limits);
+    in.setLenient(true); // as Gson#fromJson does
+    try {
+      try {
+        in.peek();
+      } catch(final EOFException ex) {
+        return null; // an empty document
+      }
+      final Component component = this.adapter.read(in);
+      in.setLenient(false);
+      if(component != null && in.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonIOException("JSON document was not fully consumed.");
+      }
+      return component;
+    } catch(final MalformedJsonException | EOFException | IllegalStateException ex) {
+      throw new JsonSyntaxException(ex);
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex);
+    }
+  }
+
+  private String write(final Component component) {
+    final StringBuilder builder = new StringBuilder();
+    try {
+      this.write(component, new StringBuilderWriter(builder));
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex); // not thrown when writing to a string
+    }
+    return builder.toString();
+  }
+
+  void write(final Component component, final Writer writer) throws IOException {
+    this.adapter.write(new EncodingJsonWriter(writer), component);
+  }
+
+  @Override
+  public @NonNull List<String> serializeAll(final @NonNull List<? extends Component> components) {
+    final String[] results = new String[components.size()];
+    // one writer and one buffer are used for the whole batch, as the writer is lenient enough to write several documents
+    final StringBuilder builder = new StringBuilder();
+    final JsonWriter out = new EncodingJsonWriter(new StringBuilderWriter(builder));
+    for(int i = 0; i < results.length; i++) {
+      final Component component = components.get(i);
+      final @Nullable String known = this.known(component);
+      if(known != null) {
+        results[i] = known;
+        continue;
+      }
+      try {
+        this.adapter.write(out, component);
+      } catch(final IOException ex) {
+        throw new JsonIOException(ex); // not thrown when writing to a string
+      }
+      results[i] = builder.toString();
+      builder.setLength(0);
+      this.remember(component, results[i]);
+    }
+    return Collections.unmodifiableList(Arrays.asList(results));
+  }
+
+  @Override
+  public int @NonNull [] serializeAll(final @NonNull List<? extends Component> components, final @NonNull ByteBuffer buffer) {
+    final int start = buffer.position();
+    final int[] ends = new int[components.size()];
+    try(final Utf8Writer writer = Utf8Writer.buffer(buffer)) {
+      final JsonWriter out = new EncodingJsonWriter(writer);
+      for(int i = 0; i < ends.length; i++) {
+        final Component component = components.get(i);
+        final @Nullable String known = this.known(component);
+        if(known != null) {
+          writer.write(known); // the json writer does not buffer, so this is written in order
+        } else {
+          this.adapter.write(out, component);
+        }
+        ends[i] = buffer.position();
+      }
+    } catch(final BufferOverflowException ex) {
+      buffer.position(start);
+      throw ex;
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex); // not thrown when writing to a buffer
+    }
+    return ends;
+  }
+
+  @Override
+  public int serialize(final @NonNull Component component, final @NonNull ByteBuffer buffer) {
+    final int start = buffer.position();
+    try(final Utf8Writer writer = Utf8Writer.buffer(buffer)) {
+      this.serialize(component, writer);
+    } catch(final BufferOverflowException ex) {
+      buffer.position(start);
+      throw ex;
+    } catch(final IOException ex) {
+      throw new JsonIOException(ex); // not thrown when writing to a buffer
+    }
+    return buffer.position() - start;
+  }
+
+  @Override
+  public void serialize(final @NonNull Component component, final @NonNull OutputStream stream) throws IOException {
+    try(final Utf8Writer writer = Utf8Writer.stream(stream)) {
+      this.serialize(component, writer);
+    }
+  }
+
+  private void serialize(final Component component, final Utf8Writer writer) throws IOException {
+    if(component instanceof LazyComponent) {
+      final @Nullable String json = ((LazyComponent) component).json(this);
+      if(json != null) {
+        writer.write(json);
+        return;
+      }
+    }
+    if(this.cache != null) {
+      // the cached string is encoded as it is written, so nothing is gained by caching the encoded bytes as well
+      writer.write(this.serialize(component));
+      return;
+    }
+    this.write(component, writer);
+  }
+
+  @Override
+  public int serializedSizeEstimate(final @NonNull Component component) {
+    if(component instanceof LazyComponent) {
+      final @Nullable String json = ((LazyComponent) component).json(this);
+      if(json != null) return SizeEstimator.utf8Length(json);
+    }
+    if(this.cache != null) {
+      final @Nullable String cached = this.cache.get(component);
+      if(cached != null) return SizeEstimator.utf8Length(cached);
+    }
+    return SizeEstimator.component(component, this.emitLegacyHover);
   }
 
   @Override
@@ -100,7 +352,33 @@ final class GsonComponentSerializerImpl implements GsonComponentSerializer {
 
   @Override
   public @NonNull JsonElement serializeToTree(final @NonNull Component component) {
-    return this.serializer().toJsonTree(component);
+    return this.serializer().toJsonTree(component); // the tree writer is configured by Gson, so it is not bypassed here
+  }
+
+  boolean downsampleColor() {
+    return this.downsampleColor;
+  }
+
+  boolean emitLegacyHover() {
+    return this.emitLegacyHover;
+  }
+
+  TypeAdapter<Component> adapter() {
+    return this.adapter;
+  }
+
+  StyleSerializer style() {
+    return this.style;
+  }
+
+  @Override
+  public @Nullable CacheStatistics cacheStatistics() {
+    return this.cache;
+  }
+
+  // strings retain two bytes per character, plus the array and object headers
+  static long weigh(final String json) {
+    return 2L * json.length() + 56;
   }
 
   @NonNull
@@ -113,6 +391,12 @@ final class GsonComponentSerializerImpl implements GsonComponentSerializer {
     private boolean downsampleColor = false;
     private @Nullable LegacyHoverEventSerializer legacyHoverSerializer;
     private boolean emitLegacyHover = false;
+    private int cacheMaximumSize;
+    private long cacheMaximumBytes;
+    private boolean lazy = false;
+    private int maxDepth = LimitedJsonReader.Limits.DEFAULT_MAX_DEPTH;
+    private int maxComponentCount = Integer.MAX_VALUE;
+    private int maxStringLength = Integer.MAX_VALUE;
 
     BuilderImpl() {
     }
@@ -121,6 +405,14 @@ final class GsonComponentSerializerImpl implements GsonComponentSerializer {
       this.downsampleColor = serializer.downsampleColor;
       this.emitLegacyHover = serializer.emitLegacyHover;
       this.legacyHoverSerializer = serializer.legacyHoverSerializer;
+      if(serializer.cache != null) {
+        this.cacheMaximumSize = serializer.cache.maximumSize();
+        this.cacheMaximumBytes = serializer.cache.maximumWeight();
+      }
+      this.lazy = serializer.lazy;
+      this.maxDepth = serializer.limits.maxDepth;
+      this.maxComponentCount = serializer.limits.maxComponentCount;
+      this.maxStringLength = serializer.limits.maxStringLength;
     }
 
     @Override
@@ -141,12 +433,54 @@ final class GsonComponentSerializerImpl implements GsonComponentSerializer {
       return this;
     }
 
+    @Override
+    public @NonNull Builder serializationCache(final int maximumSize, final long maximumBytes) {
+      if(maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be positive, was " + maximumSize);
+      if(maximumBytes <= 0) throw new IllegalArgumentException("maximumBytes must be positive, was " + maximumBytes);
+      this.cacheMaximumSize = maximumSize;
+      this.cacheMaximumBytes = maximumBytes;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder lazyDeserialization() {
+      this.lazy = true;
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder maxDepth(final int maxDepth) {
+      this.maxDepth = requirePositive(maxDepth, "maximum depth");
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder maxComponentCount(final int maxComponentCount) {
+      this.maxComponentCount = requirePositive(maxComponentCount, "maximum component count");
+      return this;
+    }
+
+    @Override
+    public @NonNull Builder maxStringLength(final int maxStringLength) {
+      this.maxStringLength = requirePositive(maxStringLength, "maximum string length");
+      return this;
+    }
+
+    private static int requirePositive(final int value, final String name) {
+      if(value <= 0) {
+        throw new IllegalArgumentException("The " + name + " must be greater than zero");
+      }
+      return value;
+    }
+
     @Override
     public @NonNull GsonComponentSerializer build() {
-      if(this.legacyHoverSerializer == null) {
+      final LimitedJsonReader.Limits limits = new LimitedJsonReader.Limits(this.maxDepth, this.maxComponentCount, this.maxStringLength);
+      if(this.legacyHoverSerializer == null && this.cacheMaximumSize == 0 && !this.lazy && limits.isDefault()) {
         return this.downsampleColor ? LEGACY_INSTANCE : INSTANCE;
       } else {
-        return new GsonComponentSerializerImpl(this.downsampleColor, this.legacyHoverSerializer, this.emitLegacyHover);
+        final @Nullable BoundedCache<Component, String> cache = this.cacheMaximumSize == 0 ? null : BoundedCache.weakKeys(this.cacheMaximumSize, this.cacheMaximumBytes, (component, json) -> weigh(json));
+        return new GsonComponentSerializerImpl(this.downsampleColor, this.legacyHoverSerializer, this.emitLegacyHover, cache, this.lazy, limits);
       }
     }
   }
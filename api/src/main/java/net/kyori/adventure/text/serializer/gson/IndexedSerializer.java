@@ -28,11 +28,14 @@ import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import net.kyori.adventure.util.Index;
 
 final class IndexedSerializer<E> extends TypeAdapter<E> {
   private final String name;
   private final Index<String, E> map;
+  private final Map<E, String> encoded = new HashMap<>();
 
   public static <E> TypeAdapter<E> of(final String name, final Index<String, E> map) {
     return new IndexedSerializer<>(name, map).nullSafe();
@@ -41,10 +44,17 @@ final class IndexedSerializer<E> extends TypeAdapter<E> {
   private IndexedSerializer(final String name, final Index<String, E> map) {
     this.name = name;
     this.map = map;
+    for(final E value : map.values()) {
+      this.encoded.put(value, EncodingJsonWriter.encode(map.key(value)));
+    }
   }
 
   @Override
   public void write(final JsonWriter out, final E value) throws IOException {
+    if(out instanceof EncodingJsonWriter) {
+      out.jsonValue(this.encoded.get(value));
+      return;
+    }
     out.value(this.map.key(value));
   }
 
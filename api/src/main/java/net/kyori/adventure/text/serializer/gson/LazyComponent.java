@@ -0,0 +1,148 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.util.examination.ExaminableProperty;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A component that defers parsing its JSON until it is first inspected.
+ *
+ * <p>The component is serialized by the serializer that created it as the original JSON, whether or not it
+ * has been parsed. Every other serializer serializes the parsed component.</p>
+ */
+final class LazyComponent implements Component {
+  private final GsonComponentSerializerImpl serializer;
+  private final String json;
+  private volatile @Nullable Component parsed;
+
+  LazyComponent(final GsonComponentSerializerImpl serializer, final String json) {
+    this.serializer = serializer;
+    this.json = json;
+  }
+
+  /**
+   * Gets the original JSON, if {@code serializer} created this component.
+   *
+   * @param serializer the serializer
+   * @return the JSON, or {@code null}
+   */
+  @Nullable String json(final GsonComponentSerializerImpl serializer) {
+    return serializer == this.serializer ? this.json : null;
+  }
+
+  /**
+   * Gets the parsed component, parsing it if this is the first access.
+   *
+   * @return the parsed component
+   */
+  Component parsed() {
+    @Nullable Component parsed = this.parsed;
+    if(parsed == null) {
+      // components are immutable, so parsing twice when racing with another thread is harmless
+      this.parsed = parsed = this.serializer.deserializeNow(this.json);
+    }
+    return parsed;
+  }
+
+  @Override
+  public @NonNull Component asComponent() {
+    return this.parsed();
+  }
+
+  @Override
+  public @NonNull List<Component> children() {
+    return this.parsed().children();
+  }
+
+  @Override
+  public @NonNull Component children(final @NonNull List<? extends ComponentLike> children) {
+    return this.parsed().children(children);
+  }
+
+  @Override
+  public @NonNull Component append(final @NonNull Component component) {
+    return this.parsed().append(component);
+  }
+
+  @Override
+  public @NonNull Style style() {
+    return this.parsed().style();
+  }
+
+  @Override
+  public @NonNull Component style(final @NonNull Style style) {
+    return this.parsed().style(style);
+  }
+
+  @Override
+  public @NonNull Component replaceText(final @NonNull Consumer<TextReplacementConfig.Builder> configurer) {
+    return this.parsed().replaceText(configurer);
+  }
+
+  @Override
+  public @NonNull Component replaceText(final @NonNull TextReplacementConfig config) {
+    return this.parsed().replaceText(config);
+  }
+
+  @Override
+  public @NonNull String examinableName() {
+    return this.parsed().examinableName();
+  }
+
+  @Override
+  public @NonNull Stream<? extends ExaminableProperty> examinableProperties() {
+    return this.parsed().examinableProperties();
+  }
+
+  @Override
+  public boolean equals(final @Nullable Object other) {
+    if(this == other) return true;
+    if(other instanceof LazyComponent) {
+      final LazyComponent that = (LazyComponent) other;
+      if(this.serializer == that.serializer && this.json.equals(that.json)) return true;
+      return this.parsed().equals(that.parsed());
+    }
+    // other components compare themselves with the parsed component in turn, keeping equality symmetric
+    return other instanceof Component && this.parsed().equals(((Component) other).asComponent());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.parsed().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.parsed().toString();
+  }
+}
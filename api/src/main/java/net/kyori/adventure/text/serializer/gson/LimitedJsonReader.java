@@ -0,0 +1,174 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A reader enforcing limits on the input, to fail fast on hostile input.
+ *
+ * <p>Every read of nested structure goes through {@link #beginArray()} and {@link #beginObject()}, including
+ * the trees Gson builds for buffered values, so the depth limit also prevents recursion from overflowing the stack.
+ * Skipped values are walked through the same methods, so unknown entries are held to the same limits.</p>
+ *
+ * <p>The length of a string is checked once it has been read, so a string over the limit is still buffered
+ * in full before being rejected. The limit bounds what is kept, not the size of the input.</p>
+ */
+final class LimitedJsonReader extends JsonReader {
+  private final Limits limits;
+  private int depth;
+  private int componentCount;
+
+  LimitedJsonReader(final Reader in, final Limits limits) {
+    super(in);
+    this.limits = limits;
+  }
+
+  /**
+   * Counts a component about to be read.
+   *
+   * @throws JsonParseException if the maximum number of components has been exceeded
+   */
+  void countComponent() {
+    if(++this.componentCount > this.limits.maxComponentCount) {
+      throw new JsonParseException("The read JSON contained more than the maximum allowed number of " + this.limits.maxComponentCount + " components, at " + this.getPath());
+    }
+  }
+
+  /**
+   * Resets the number of components read, for the start of another document.
+   */
+  void resetComponentCount() {
+    this.componentCount = 0;
+  }
+
+  @Override
+  public void beginArray() throws IOException {
+    this.enter();
+    super.beginArray();
+  }
+
+  @Override
+  public void endArray() throws IOException {
+    super.endArray();
+    this.depth--;
+  }
+
+  @Override
+  public void beginObject() throws IOException {
+    this.enter();
+    super.beginObject();
+  }
+
+  @Override
+  public void endObject() throws IOException {
+    super.endObject();
+    this.depth--;
+  }
+
+  private void enter() {
+    if(++this.depth > this.limits.maxDepth) {
+      throw new JsonParseException("JSON read exceeded maximum depth of " + this.limits.maxDepth + " at " + this.getPath());
+    }
+  }
+
+  @Override
+  public String nextName() throws IOException {
+    return this.checkLength(super.nextName());
+  }
+
+  @Override
+  public String nextString() throws IOException {
+    return this.checkLength(super.nextString());
+  }
+
+  @Override
+  public void skipValue() throws IOException {
+    int count = 0;
+    do {
+      switch(this.peek()) {
+        case BEGIN_ARRAY:
+          this.beginArray();
+          count++;
+          break;
+        case END_ARRAY:
+          this.endArray();
+          count--;
+          break;
+        case BEGIN_OBJECT:
+          this.beginObject();
+          count++;
+          break;
+        case END_OBJECT:
+          this.endObject();
+          count--;
+          break;
+        case NAME:
+          this.nextName();
+          break;
+        case STRING:
+        case NUMBER:
+          this.nextString();
+          break;
+        case BOOLEAN:
+          this.nextBoolean();
+          break;
+        case NULL:
+          this.nextNull();
+          break;
+        case END_DOCUMENT:
+          return;
+      }
+    } while(count > 0);
+  }
+
+  private String checkLength(final String string) {
+    if(string.length() > this.limits.maxStringLength) {
+      throw new JsonParseException("JSON string length of " + string.length() + " exceeded the maximum of " + this.limits.maxStringLength + " at " + this.getPath());
+    }
+    return string;
+  }
+
+  static final class Limits {
+    static final int DEFAULT_MAX_DEPTH = 128;
+    static final Limits DEFAULT = new Limits(DEFAULT_MAX_DEPTH, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    final int maxDepth;
+    final int maxComponentCount;
+    final int maxStringLength;
+
+    Limits(final int maxDepth, final int maxComponentCount, final int maxStringLength) {
+      this.maxDepth = maxDepth;
+      this.maxComponentCount = maxComponentCount;
+      this.maxStringLength = maxStringLength;
+    }
+
+    boolean isDefault() {
+      return this.maxDepth == DEFAULT_MAX_DEPTH && this.maxComponentCount == Integer.MAX_VALUE && this.maxStringLength == Integer.MAX_VALUE;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.BlockNBTComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.util.BoundedCache;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Creates the adapters for a serializer configuration.
+ *
+ * <p>The adapters are created once, and refer to each other directly. Gson is only consulted to find the
+ * adapter for the value being serialized, not for each of its children, style or hover values.</p>
+ */
+final class SerializerFactory implements TypeAdapterFactory {
+  private final TypeAdapter<TextColor> color;
+  private final ComponentSerializerImpl component;
+  private final StyleSerializer style;
+  private final TypeAdapter<TextDecoration> decoration = IndexedSerializer.of("text decoration", TextDecoration.NAMES);
+
+  SerializerFactory(final boolean downsampleColor, final @Nullable LegacyHoverEventSerializer legacyHoverSerializer, final boolean emitLegacyHover, final @Nullable BoundedCache<Component, String> cache) {
+    this.color = downsampleColor ? TextColorSerializer.DOWNSAMPLE_COLOR : TextColorSerializer.INSTANCE;
+    this.component = new ComponentSerializerImpl(legacyHoverSerializer, emitLegacyHover, this.color, cache);
+    this.style = this.component.style();
+  }
+
+  /**
+   * Gets the component adapter, for use without a lookup.
+   *
+   * @return the component adapter
+   */
+  TypeAdapter<Component> component() {
+    return this.component.nullSafeAdapter();
+  }
+
+  /**
+   * Gets the style adapter, for use without a lookup.
+   *
+   * @return the style adapter
+   */
+  StyleSerializer style() {
+    return this.style;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+    final Class<? super T> rawType = type.getRawType();
+    if(Component.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) this.component.nullSafeAdapter();
+    } else if(Key.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) KeySerializer.INSTANCE;
+    } else if(Style.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) this.style.nullSafe();
+    } else if(rawType == ClickEvent.Action.class) {
+      return (TypeAdapter<T>) this.style.clickAction();
+    } else if(rawType == HoverEvent.Action.class) {
+      return (TypeAdapter<T>) this.style.hoverAction();
+    } else if(rawType == HoverEvent.ShowItem.class) {
+      return (TypeAdapter<T>) this.style.showItem();
+    } else if(rawType == HoverEvent.ShowEntity.class) {
+      return (TypeAdapter<T>) this.style.showEntity();
+    } else if(rawType == TextColorWrapper.class) {
+      return (TypeAdapter<T>) TextColorWrapper.Serializer.INSTANCE;
+    } else if(TextColor.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) this.color;
+    } else if(rawType == TextDecoration.class) {
+      return (TypeAdapter<T>) this.decoration;
+    } else if(BlockNBTComponent.Pos.class.isAssignableFrom(rawType)) {
+      return (TypeAdapter<T>) BlockNBTComponentPosSerializer.INSTANCE;
+    }
+    return null;
+  }
+}
@@ -23,71 +23,82 @@
  */
 package net.kyori.adventure.text.serializer.gson;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-import java.lang.reflect.Type;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.nbt.api.BinaryTagHolder;
 import net.kyori.adventure.text.event.HoverEvent;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-final class ShowItemSerializer implements JsonDeserializer<HoverEvent.ShowItem>, JsonSerializer<HoverEvent.ShowItem> {
+final class ShowItemSerializer extends TypeAdapter<HoverEvent.ShowItem> {
   static final String ID = "id";
   static final String COUNT = "count";
   static final String TAG = "tag";
 
+  private final TypeAdapter<Key> key;
+
   ShowItemSerializer() {
+    this.key = KeySerializer.INSTANCE;
   }
 
   @Override
-  public HoverEvent.ShowItem deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) throws JsonParseException {
-    final JsonObject object = json.getAsJsonObject();
-
-    if(!object.has(ID)) {
-      throw new JsonParseException("Not sure how to deserialize show_item hover event");
-    }
-
-    final Key id = context.deserialize(object.getAsJsonPrimitive(ID), Key.class);
+  public HoverEvent.ShowItem read(final JsonReader in) throws IOException {
+    in.beginObject();
 
+    Key id = null;
     int count = 1;
-    if(object.has(COUNT)) {
-      count = object.get(COUNT).getAsInt();
-    }
-
     BinaryTagHolder nbt = null;
-    if(object.has(TAG)) {
-      final JsonElement tag = object.get(TAG);
-      if(tag.isJsonPrimitive()) {
-        nbt = BinaryTagHolder.of(tag.getAsString());
-      } else if(!tag.isJsonNull()) {
-        throw new JsonParseException("Expected " + TAG + " to be a string");
+    while(in.hasNext()) {
+      final String fieldName = in.nextName();
+      if(fieldName.equals(ID)) {
+        id = this.key.read(in);
+      } else if(fieldName.equals(COUNT)) {
+        count = in.nextInt();
+      } else if(fieldName.equals(TAG)) {
+        final JsonToken token = in.peek();
+        if(token == JsonToken.STRING || token == JsonToken.NUMBER) {
+          nbt = BinaryTagHolder.of(in.nextString());
+        } else if(token == JsonToken.BOOLEAN) {
+          nbt = BinaryTagHolder.of(String.valueOf(in.nextBoolean()));
+        } else if(token == JsonToken.NULL) {
+          in.nextNull();
+        } else {
+          throw new JsonParseException("Expected " + TAG + " to be a string");
+        }
+      } else {
+        in.skipValue();
       }
     }
 
+    if(id == null) {
+      throw new JsonParseException("Not sure how to deserialize show_item hover event");
+    }
+    in.endObject();
+
     return HoverEvent.ShowItem.of(id, count, nbt);
   }
 
   @Override
-  public JsonElement serialize(final HoverEvent.ShowItem src, final Type typeOfSrc, final JsonSerializationContext context) {
-    final JsonObject json = new JsonObject();
+  public void write(final JsonWriter out, final HoverEvent.ShowItem value) throws IOException {
+    out.beginObject();
 
-    json.add(ID, context.serialize(src.item()));
+    out.name(ID);
+    this.key.write(out, value.item());
 
-    final int count = src.count();
+    final int count = value.count();
     if(count != 1) {
-      json.addProperty(COUNT, count);
+      out.name(COUNT).value(count);
     }
 
-    final @Nullable BinaryTagHolder nbt = src.nbt();
+    final @Nullable BinaryTagHolder nbt = value.nbt();
     if(nbt != null) {
-      json.addProperty(TAG, nbt.string());
+      out.name(TAG).value(nbt.string());
     }
 
-    return json;
+    out.endObject();
   }
 }
@@ -0,0 +1,186 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import java.util.List;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.BlockNBTComponent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.EntityNBTComponent;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.NBTComponent;
+import net.kyori.adventure.text.ScoreComponent;
+import net.kyori.adventure.text.SelectorComponent;
+import net.kyori.adventure.text.StorageNBTComponent;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TranslatableComponent;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Estimates the size of serialized components, in UTF-8 encoded bytes.
+ *
+ * <p>Strings are measured exactly, counting every character that may be escaped as a six byte escape
+ * sequence. Everything else is measured by the longest form it can be written as, except legacy hover event
+ * values, which are produced by a {@link LegacyHoverEventSerializer} and are only guessed at.</p>
+ */
+final class SizeEstimator {
+  // "":,
+  private static final int ENTRY = 4;
+  // "strikethrough":false,
+  private static final int DECORATION = 22;
+  // "color":"light_purple",
+  private static final int COLOR = 24;
+  // "action":"suggest_command","value":
+  private static final int EVENT = 40;
+  private static final int UNKNOWN = 128;
+  private static final TextDecoration[] DECORATIONS = TextDecoration.values();
+
+  private SizeEstimator() {
+  }
+
+  static int component(Component component, final boolean emitLegacyHover) {
+    if(component instanceof LazyComponent) component = ((LazyComponent) component).parsed();
+    int size = 2 + style(component.style(), emitLegacyHover);
+    if(component instanceof TextComponent) {
+      size += ENTRY + 4 + string(((TextComponent) component).content());
+    } else if(component instanceof TranslatableComponent) {
+      final TranslatableComponent translatable = (TranslatableComponent) component;
+      size += ENTRY + 9 + string(translatable.key());
+      if(!translatable.args().isEmpty()) size += ENTRY + 4 + list(translatable.args(), emitLegacyHover);
+    } else if(component instanceof KeybindComponent) {
+      size += ENTRY + 7 + string(((KeybindComponent) component).keybind());
+    } else if(component instanceof ScoreComponent) {
+      final ScoreComponent score = (ScoreComponent) component;
+      size += ENTRY + 5 + 2 + ENTRY + 4 + string(score.name()) + ENTRY + 9 + string(score.objective());
+      @SuppressWarnings("deprecation")
+      final @Nullable String value = score.value();
+      if(value != null) size += ENTRY + 5 + string(value);
+    } else if(component instanceof SelectorComponent) {
+      size += ENTRY + 8 + string(((SelectorComponent) component).pattern());
+    } else if(component instanceof NBTComponent<?, ?>) {
+      size += ENTRY + 3 + string(((NBTComponent<?, ?>) component).nbtPath()) + ENTRY + 9 + 5;
+      if(component instanceof BlockNBTComponent) {
+        size += ENTRY + 5 + string(((BlockNBTComponent) component).pos().asString());
+      } else if(component instanceof EntityNBTComponent) {
+        size += ENTRY + 6 + string(((EntityNBTComponent) component).selector());
+      } else if(component instanceof StorageNBTComponent) {
+        size += ENTRY + 7 + key(((StorageNBTComponent) component).storage());
+      } else {
+        size += UNKNOWN;
+      }
+    } else {
+      size += UNKNOWN;
+    }
+    if(!component.children().isEmpty()) size += ENTRY + 5 + list(component.children(), emitLegacyHover);
+    return size;
+  }
+
+  private static int list(final List<Component> components, final boolean emitLegacyHover) {
+    int size = 2;
+    for(int i = 0, length = components.size(); i < length; i++) {
+      size += component(components.get(i), emitLegacyHover) + 1;
+    }
+    return size;
+  }
+
+  private static int style(final Style style, final boolean emitLegacyHover) {
+    int size = 0;
+    for(final TextDecoration decoration : DECORATIONS) {
+      if(style.decoration(decoration) != TextDecoration.State.NOT_SET) size += DECORATION;
+    }
+    if(style.color() != null) size += COLOR;
+    final @Nullable String insertion = style.insertion();
+    if(insertion != null) size += ENTRY + 9 + string(insertion);
+    final @Nullable Key font = style.font();
+    if(font != null) size += ENTRY + 4 + key(font);
+    final @Nullable ClickEvent clickEvent = style.clickEvent();
+    if(clickEvent != null) size += ENTRY + 10 + 2 + EVENT + string(clickEvent.value());
+    final @Nullable HoverEvent<?> hoverEvent = style.hoverEvent();
+    if(hoverEvent != null) {
+      final int value = hoverValue(hoverEvent.value(), emitLegacyHover);
+      size += ENTRY + 10 + 2 + EVENT + value;
+      // a guess: the legacy value is usually a component holding the contents as SNBT, so roughly twice as long
+      if(emitLegacyHover) size += ENTRY + 5 + value * 2;
+    }
+    return size;
+  }
+
+  private static int hoverValue(final Object value, final boolean emitLegacyHover) {
+    if(value instanceof Component) {
+      return component((Component) value, emitLegacyHover);
+    } else if(value instanceof HoverEvent.ShowItem) {
+      final HoverEvent.ShowItem item = (HoverEvent.ShowItem) value;
+      int size = 2 + ENTRY + 2 + key(item.item()) + ENTRY + 5 + 11;
+      if(item.nbt() != null) size += ENTRY + 3 + string(item.nbt().string());
+      return size;
+    } else if(value instanceof HoverEvent.ShowEntity) {
+      final HoverEvent.ShowEntity entity = (HoverEvent.ShowEntity) value;
+      int size = 2 + ENTRY + 4 + key(entity.type()) + ENTRY + 2 + 38;
+      final @Nullable Component name = entity.name();
+      if(name != null) size += ENTRY + 4 + component(name, emitLegacyHover);
+      return size;
+    }
+    return UNKNOWN;
+  }
+
+  private static int key(final Key key) {
+    return string(key.namespace()) + 1 + string(key.value());
+  }
+
+  static int string(final String string) {
+    int size = 2;
+    for(int i = 0, length = string.length(); i < length; i++) {
+      final char c = string.charAt(i);
+      if(c < 0x80) {
+        size += c < 0x20 || c == '"' || c == '\\' || c == '<' || c == '>' || c == '&' || c == '=' || c == '\'' ? 6 : 1;
+      } else if(c < 0x800) {
+        size += 2;
+      } else if(Character.isSurrogate(c)) {
+        size += 2; // a surrogate pair is four bytes
+      } else {
+        size += c == '\u2028' || c == '\u2029' ? 6 : 3;
+      }
+    }
+    return size;
+  }
+
+  static int utf8Length(final String string) {
+    int size = 0;
+    for(int i = 0, length = string.length(); i < length; i++) {
+      final char c = string.charAt(i);
+      if(c < 0x80) {
+        size++;
+      } else if(c < 0x800 || Character.isSurrogate(c)) {
+        size += 2;
+      } else {
+        size += 3;
+      }
+    }
+    return size;
+  }
+}
@@ -23,22 +23,19 @@
  */
 package net.kyori.adventure.text.serializer.gson;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.internal.Streams;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
-import java.io.StringReader;
-import java.lang.reflect.Type;
+import java.io.StringWriter;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Set;
 import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.Component;
@@ -47,10 +44,11 @@ import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.util.BoundedCache;
 import net.kyori.adventure.util.Codec;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-final class StyleSerializer implements JsonDeserializer<Style>, JsonSerializer<Style> {
+final class StyleSerializer extends TypeAdapter<Style> {
   @SuppressWarnings("checkstyle:NoWhitespaceAfter")
   private static final TextDecoration[] DECORATIONS = {
     // The order here is important -- Minecraft does string comparisons of some
@@ -84,105 +82,233 @@ final class StyleSerializer implements JsonDeserializer<Style>, JsonSerializer<S
   static final String HOVER_EVENT_CONTENTS = "contents";
   static final @Deprecated String HOVER_EVENT_VALUE = "value";
 
+  private static final int MAX_ENCODED_STYLES = 512;
+
   private final LegacyHoverEventSerializer legacyHover;
   private final boolean emitLegacyHover;
+  private final TypeAdapter<Key> key;
+  private final TypeAdapter<TextColor> color;
+  private final TypeAdapter<TextColorWrapper> colorWrapper;
+  private final TypeAdapter<ClickEvent.Action> clickAction;
+  private final TypeAdapter<HoverEvent.Action<?>> hoverAction;
+  private final TypeAdapter<Component> component;
+  private final TypeAdapter<HoverEvent.ShowItem> showItem;
+  private final TypeAdapter<HoverEvent.ShowEntity> showEntity;
+  // the most recently encoded style in each slot, replaced whole so that readers never see a partial entry
+  private final @Nullable EncodedStyle @Nullable[] encoded;
+  private final int encodedBits;
+  private final long maximumEncodedWeight;
 
-  StyleSerializer(final @Nullable LegacyHoverEventSerializer legacyHover, final boolean emitLegacyHover) {
+  StyleSerializer(final @Nullable LegacyHoverEventSerializer legacyHover, final boolean emitLegacyHover, final TypeAdapter<TextColor> color, final TypeAdapter<Component> component, final @Nullable BoundedCache<Component, String> cache) {
     this.legacyHover = legacyHover;
     this.emitLegacyHover = emitLegacyHover;
+    this.key = KeySerializer.INSTANCE;
+    this.color = color;
+    this.colorWrapper = TextColorWrapper.Serializer.INSTANCE;
+    this.clickAction = IndexedSerializer.of("click action", ClickEvent.Action.NAMES);
+    this.hoverAction = IndexedSerializer.of("hover action", HoverEvent.Action.NAMES);
+    this.component = component;
+    this.showItem = new ShowItemSerializer().nullSafe();
+    this.showEntity = new ShowEntitySerializer(component).nullSafe();
+    // styles are only kept encoded alongside a serialization cache, holding no more entries or bytes than it may
+    final int slots = cache == null ? 0 : Integer.highestOneBit(Math.min(cache.maximumSize(), MAX_ENCODED_STYLES));
+    if(slots < 2) {
+      this.encoded = null;
+      this.encodedBits = 0;
+      this.maximumEncodedWeight = 0;
+    } else {
+      this.encoded = new EncodedStyle[slots];
+      this.encodedBits = Integer.numberOfTrailingZeros(slots);
+      this.maximumEncodedWeight = cache.maximumWeight() / slots;
+    }
   }
 
-  @Override
-  public Style deserialize(final JsonElement json, final Type typeOfT, final JsonDeserializationContext context) throws JsonParseException {
-    final JsonObject object = json.getAsJsonObject();
-    return this.deserialize(object, context);
+  TypeAdapter<ClickEvent.Action> clickAction() {
+    return this.clickAction;
   }
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
-  private Style deserialize(final JsonObject json, final JsonDeserializationContext context) throws JsonParseException {
-    final Style.Builder style = Style.style();
+  TypeAdapter<HoverEvent.Action<?>> hoverAction() {
+    return this.hoverAction;
+  }
 
-    if(json.has(FONT)) {
-      style.font(context.deserialize(json.get(FONT), Key.class));
-    }
+  TypeAdapter<HoverEvent.ShowItem> showItem() {
+    return this.showItem;
+  }
 
-    if(json.has(COLOR)) {
-      final TextColorWrapper color = context.deserialize(json.get(COLOR), TextColorWrapper.class);
-      if(color.color != null) {
-        style.color(color.color);
-      } else if(color.decoration != null) {
-        // I know. Setting a decoration from the color is weird. This is, unfortunately, something we need to support.
-        style.decoration(color.decoration, true);
-      }
-    }
+  TypeAdapter<HoverEvent.ShowEntity> showEntity() {
+    return this.showEntity;
+  }
 
-    for(int i = 0, length = DECORATIONS.length; i < length; i++) {
-      final TextDecoration decoration = DECORATIONS[i];
-      final String name = TextDecoration.NAMES.key(decoration);
-      if(json.has(name)) {
-        style.decoration(decoration, json.get(name).getAsBoolean());
+  @Override
+  public Style read(final JsonReader in) throws IOException {
+    final Entries entries = new Entries();
+    in.beginObject();
+    while(in.hasNext()) {
+      final String name = in.nextName();
+      if(in.peek() == JsonToken.NULL) {
+        in.nextNull();
+      } else if(!this.readEntry(in, name, entries)) {
+        in.skipValue();
       }
     }
+    in.endObject();
+    return entries.build();
+  }
 
-    if(json.has(INSERTION)) {
-      style.insertion(json.get(INSERTION).getAsString());
+  /**
+   * Reads the value of an entry if it is a style entry.
+   *
+   * @param in the reader, positioned at a non-null value
+   * @param name the name of the entry
+   * @param entries the style entries read so far
+   * @return {@code true} if the entry was read, {@code false} if it is not a style entry and was not consumed
+   * @throws IOException if the value could not be read
+   */
+  // entries which may not be null, as they were rejected when styles were read from a tree
+  static boolean isNonNullEntry(final String name) {
+    switch(name) {
+      case COLOR:
+      case INSERTION:
+      case CLICK_EVENT:
+      case HOVER_EVENT:
+        return true;
+      default:
+        return TextDecoration.NAMES.value(name) != null;
     }
+  }
 
-    if(json.has(CLICK_EVENT)) {
-      final JsonObject clickEvent = json.getAsJsonObject(CLICK_EVENT);
-      if(clickEvent != null) {
-        final ClickEvent./*@Nullable*/ Action action = optionallyDeserialize(clickEvent.getAsJsonPrimitive(CLICK_EVENT_ACTION), context, ClickEvent.Action.class);
-        if(action != null && action.readable()) {
-          final @Nullable JsonPrimitive rawValue = clickEvent.getAsJsonPrimitive(CLICK_EVENT_VALUE);
-          final @Nullable String value = rawValue == null ? null : rawValue.getAsString();
-          if(value != null) {
-            style.clickEvent(ClickEvent.clickEvent(action, value));
-          }
+  boolean readEntry(final JsonReader in, final String name, final Entries entries) throws IOException {
+    switch(name) {
+      case FONT:
+        entries.builder().font(this.key.read(in));
+        return true;
+      case COLOR:
+        final TextColorWrapper color = this.colorWrapper.read(in);
+        if(color.color != null) {
+          entries.builder().color(color.color);
+        } else if(color.decoration != null) {
+          // I know. Setting a decoration from the color is weird. This is, unfortunately, something we need to support.
+          entries.colorDecoration = color.decoration;
         }
+        return true;
+      case INSERTION:
+        entries.builder().insertion(ComponentSerializerImpl.readString(in));
+        return true;
+      case CLICK_EVENT:
+        final @Nullable ClickEvent clickEvent = this.readClickEvent(in);
+        if(clickEvent != null) entries.builder().clickEvent(clickEvent);
+        return true;
+      case HOVER_EVENT:
+        final @Nullable HoverEvent<?> hoverEvent = this.readHoverEvent(in);
+        if(hoverEvent != null) entries.builder().hoverEvent(hoverEvent);
+        return true;
+      default:
+        final @Nullable TextDecoration decoration = TextDecoration.NAMES.value(name);
+        if(decoration == null) return false;
+        entries.builder().decoration(decoration, readBoolean(in));
+        entries.explicitDecorations |= 1 << decoration.ordinal();
+        return true;
+    }
+  }
+
+  private @Nullable ClickEvent readClickEvent(final JsonReader in) throws IOException {
+    ClickEvent.@Nullable Action action = null;
+    @Nullable String value = null;
+    boolean nullValue = false;
+    in.beginObject();
+    while(in.hasNext()) {
+      final String name = in.nextName();
+      if(in.peek() == JsonToken.NULL) {
+        if(name.equals(CLICK_EVENT_ACTION)) throw ComponentSerializerImpl.nullEntry(name, in);
+        nullValue |= name.equals(CLICK_EVENT_VALUE);
+        in.nextNull();
+      } else if(name.equals(CLICK_EVENT_ACTION)) {
+        action = this.clickAction.read(in);
+      } else if(name.equals(CLICK_EVENT_VALUE)) {
+        value = ComponentSerializerImpl.readString(in);
+      } else {
+        in.skipValue();
       }
     }
+    if(action != null && action.readable() && nullValue) {
+      throw ComponentSerializerImpl.nullEntry(CLICK_EVENT_VALUE, in);
+    }
+    in.endObject();
+    if(action != null && action.readable() && value != null) {
+      return ClickEvent.clickEvent(action, value);
+    }
+    return null;
+  }
 
-    if(json.has(HOVER_EVENT)) {
-      final JsonObject hoverEvent = json.getAsJsonObject(HOVER_EVENT);
-      if(hoverEvent != null) {
-        final HoverEvent./*@Nullable*/ Action action = optionallyDeserialize(hoverEvent.getAsJsonPrimitive(HOVER_EVENT_ACTION), context, HoverEvent.Action.class);
-        if(action != null && action.readable()) {
-          final @Nullable Object value;
-          if(hoverEvent.has(HOVER_EVENT_CONTENTS)) {
-            final @Nullable JsonElement rawValue = hoverEvent.get(HOVER_EVENT_CONTENTS);
-            value = context.deserialize(rawValue, action.type());
-          } else if(hoverEvent.has(HOVER_EVENT_VALUE)) {
-            final Component rawValue = context.deserialize(hoverEvent.get(HOVER_EVENT_VALUE), Component.class);
-            value = this.legacyHoverEventContents(action, rawValue, context);
-          } else {
-            value = null;
-          }
-
-          if(value != null) {
-            style.hoverEvent(HoverEvent.hoverEvent(action, value));
-          }
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private @Nullable HoverEvent<?> readHoverEvent(final JsonReader in) throws IOException {
+    HoverEvent.@Nullable Action action = null;
+    @Nullable Object contents = null;
+    @Nullable JsonElement rawContents = null; // contents which appeared before the action
+    @Nullable Component legacyValue = null;
+    in.beginObject();
+    while(in.hasNext()) {
+      final String name = in.nextName();
+      if(in.peek() == JsonToken.NULL) {
+        if(name.equals(HOVER_EVENT_ACTION)) throw ComponentSerializerImpl.nullEntry(name, in);
+        in.nextNull();
+      } else if(name.equals(HOVER_EVENT_ACTION)) {
+        action = this.hoverAction.read(in);
+      } else if(name.equals(HOVER_EVENT_CONTENTS)) {
+        if(action == null) {
+          rawContents = Streams.parse(in);
+        } else if(action.readable()) {
+          contents = this.hoverContents(action).read(in);
+        } else {
+          in.skipValue();
         }
+      } else if(name.equals(HOVER_EVENT_VALUE) && contents == null && rawContents == null) {
+        legacyValue = this.component.read(in);
+      } else {
+        in.skipValue();
       }
     }
+    in.endObject();
 
-    if(json.has(FONT)) {
-      style.font(context.deserialize(json.get(FONT), Key.class));
+    if(action == null || !action.readable()) return null;
+    final @Nullable Object value;
+    if(contents != null) {
+      value = contents;
+    } else if(rawContents != null) {
+      value = this.hoverContents(action).fromJsonTree(rawContents);
+    } else if(legacyValue != null) {
+      value = this.legacyHoverEventContents(action, legacyValue);
+    } else {
+      value = null;
     }
+    return value == null ? null : HoverEvent.hoverEvent(action, value);
+  }
 
-    return style.build();
+  private static boolean readBoolean(final JsonReader in) throws IOException {
+    if(in.peek() == JsonToken.BOOLEAN) {
+      return in.nextBoolean();
+    }
+    return Boolean.parseBoolean(ComponentSerializerImpl.readString(in));
   }
 
-  private static <T> T optionallyDeserialize(final JsonElement json, final JsonDeserializationContext context, final Class<T> type) {
-    return json == null ? null : context.deserialize(json, type);
+  private TypeAdapter<?> hoverContents(final HoverEvent.Action<?> action) {
+    if(action == HoverEvent.Action.SHOW_TEXT) {
+      return this.component;
+    } else if(action == HoverEvent.Action.SHOW_ITEM) {
+      return this.showItem;
+    } else if(action == HoverEvent.Action.SHOW_ENTITY) {
+      return this.showEntity;
+    }
+    throw new IllegalArgumentException("Don't know how to handle hover event contents for " + action);
   }
 
-  private Object legacyHoverEventContents(final HoverEvent.Action<?> action, final Component rawValue, final JsonDeserializationContext context) {
+  private Object legacyHoverEventContents(final HoverEvent.Action<?> action, final Component rawValue) {
     if(action == HoverEvent.Action.SHOW_TEXT) {
       return rawValue; // Passthrough -- no serialization needed
     } else if(this.legacyHover != null) {
       try {
         if(action == HoverEvent.Action.SHOW_ENTITY) {
-          return this.legacyHover.deserializeShowEntity(rawValue, this.decoder(context));
+          return this.legacyHover.deserializeShowEntity(rawValue, this.decoder());
         } else if(action == HoverEvent.Action.SHOW_ITEM) {
           return this.legacyHover.deserializeShowItem(rawValue);
         }
@@ -194,86 +320,195 @@ final class StyleSerializer implements JsonDeserializer<Style>, JsonSerializer<S
     throw new UnsupportedOperationException();
   }
 
-  private Codec.Decoder<Component, String, JsonParseException> decoder(final JsonDeserializationContext ctx) {
+  private Codec.Decoder<Component, String, JsonParseException> decoder() {
     return string -> {
-      final JsonReader reader = new JsonReader(new StringReader(string));
-      return ctx.deserialize(Streams.parse(reader), Component.class);
+      try {
+        return this.component.fromJson(string);
+      } catch(final IOException ex) {
+        throw new JsonParseException(ex);
+      }
     };
   }
 
   @Override
-  public JsonElement serialize(final Style src, final Type typeOfSrc, final JsonSerializationContext context) {
-    final JsonObject json = new JsonObject();
+  public void write(final JsonWriter out, final Style value) throws IOException {
+    out.beginObject();
+    this.writeFields(out, value);
+    out.endObject();
+  }
+
+  // write the entries of a style into an object which has already been opened
+  void writeFields(final JsonWriter out, final Style src) throws IOException {
+    // hover events can hold whole components, so only styles without one are kept encoded
+    if(this.encoded != null && out instanceof EncodingJsonWriter && src.hoverEvent() == null) {
+      final EncodedStyle encoded = this.encoded(this.encoded, src);
+      for(int i = 0; i < encoded.names.length; i++) {
+        out.name(encoded.names[i]).jsonValue(encoded.values[i]);
+      }
+      return;
+    }
+    this.writeEntries(out, src);
+  }
 
+  private EncodedStyle encoded(final @Nullable EncodedStyle[] encoded, final Style style) throws IOException {
+    final int slot = (style.hashCode() * 0x9e3779b1) >>> (32 - this.encodedBits); // the upper bits of a multiplicative hash
+    final @Nullable EncodedStyle cached = encoded[slot];
+    if(cached != null && cached.style.equals(style)) {
+      return cached;
+    }
+    // each entry is encoded as a whole value, which is then written after its name
+    final JsonObject object = this.toJsonTree(style).getAsJsonObject();
+    final String[] names = new String[object.size()];
+    final String[] values = new String[names.length];
+    long weight = 0;
+    int i = 0;
+    for(final Map.Entry<String, JsonElement> entry : object.entrySet()) {
+      final StringWriter writer = new StringWriter();
+      Streams.write(entry.getValue(), new EncodingJsonWriter(writer));
+      names[i] = entry.getKey();
+      values[i] = writer.toString();
+      weight += GsonComponentSerializerImpl.weigh(values[i]);
+      i++;
+    }
+    final EncodedStyle result = new EncodedStyle(style, names, values);
+    if(weight <= this.maximumEncodedWeight) {
+      encoded[slot] = result;
+    }
+    return result;
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  private void writeEntries(final JsonWriter out, final Style src) throws IOException {
     for(int i = 0, length = DECORATIONS.length; i < length; i++) {
       final TextDecoration decoration = DECORATIONS[i];
       final TextDecoration.State state = src.decoration(decoration);
       if(state != TextDecoration.State.NOT_SET) {
         final String name = TextDecoration.NAMES.key(decoration);
         assert name != null; // should never be null
-        json.addProperty(name, state == TextDecoration.State.TRUE);
+        out.name(name).value(state == TextDecoration.State.TRUE);
       }
     }
 
     final @Nullable TextColor color = src.color();
     if(color != null) {
-      json.add(COLOR, context.serialize(color));
+      out.name(COLOR);
+      if(out instanceof VariantJsonWriter) {
+        ((VariantJsonWriter) out).color(color);
+      } else {
+        this.color.write(out, color);
+      }
     }
 
     final @Nullable String insertion = src.insertion();
     if(insertion != null) {
-      json.addProperty(INSERTION, insertion);
+      out.name(INSERTION).value(insertion);
     }
 
     final @Nullable ClickEvent clickEvent = src.clickEvent();
     if(clickEvent != null) {
-      final JsonObject eventJson = new JsonObject();
-      eventJson.add(CLICK_EVENT_ACTION, context.serialize(clickEvent.action()));
-      eventJson.addProperty(CLICK_EVENT_VALUE, clickEvent.value());
-      json.add(CLICK_EVENT, eventJson);
+      out.name(CLICK_EVENT);
+      out.beginObject();
+      out.name(CLICK_EVENT_ACTION);
+      this.clickAction.write(out, clickEvent.action());
+      out.name(CLICK_EVENT_VALUE).value(clickEvent.value());
+      out.endObject();
     }
 
     final @Nullable HoverEvent<?> hoverEvent = src.hoverEvent();
     if(hoverEvent != null) {
-      final JsonObject eventJson = new JsonObject();
-      eventJson.add(HOVER_EVENT_ACTION, context.serialize(hoverEvent.action()));
-      final JsonElement modernContents = context.serialize(hoverEvent.value());
-      eventJson.add(HOVER_EVENT_CONTENTS, modernContents);
-      if(this.emitLegacyHover) {
-        eventJson.add(HOVER_EVENT_VALUE, this.serializeLegacyHoverEvent(hoverEvent, modernContents, context));
+      out.name(HOVER_EVENT);
+      out.beginObject();
+      out.name(HOVER_EVENT_ACTION);
+      this.hoverAction.write(out, hoverEvent.action());
+      out.name(HOVER_EVENT_CONTENTS);
+      ((TypeAdapter) this.hoverContents(hoverEvent.action())).write(out, hoverEvent.value());
+      if(out instanceof VariantJsonWriter) {
+        ((VariantJsonWriter) out).legacyHoverValue(hoverEvent);
+      } else if(this.emitLegacyHover) {
+        out.name(HOVER_EVENT_VALUE);
+        final @Nullable Component value = this.legacyHoverValue(hoverEvent);
+        if(value == null) {
+          out.nullValue();
+        } else {
+          this.component.write(out, value);
+        }
       }
-      json.add(HOVER_EVENT, eventJson);
+      out.endObject();
     }
 
     final @Nullable Key font = src.font();
     if(font != null) {
-      json.add(FONT, context.serialize(font));
+      out.name(FONT);
+      this.key.write(out, font);
     }
-
-    return json;
   }
 
-  private JsonElement serializeLegacyHoverEvent(final HoverEvent<?> hoverEvent, final JsonElement modernContents, final JsonSerializationContext context) {
+  /**
+   * Gets the component written as the legacy value of a hover event.
+   *
+   * @param hoverEvent the hover event
+   * @return the component, or {@code null} if there is no legacy value
+   */
+  @Nullable Component legacyHoverValue(final HoverEvent<?> hoverEvent) {
     if(hoverEvent.action() == HoverEvent.Action.SHOW_TEXT) { // serialization is the same
-      return modernContents;
+      return (Component) hoverEvent.value();
     } else if(this.legacyHover != null) { // for data formats that require knowledge of SNBT
-      Component serialized = null;
       try {
         if(hoverEvent.action() == HoverEvent.Action.SHOW_ENTITY) {
-          serialized = this.legacyHover.serializeShowEntity((HoverEvent.ShowEntity) hoverEvent.value(), this.encoder(context));
+          return this.legacyHover.serializeShowEntity((HoverEvent.ShowEntity) hoverEvent.value(), this.encoder());
         } else if(hoverEvent.action() == HoverEvent.Action.SHOW_ITEM) {
-          serialized = this.legacyHover.serializeShowItem((HoverEvent.ShowItem) hoverEvent.value());
+          return this.legacyHover.serializeShowItem((HoverEvent.ShowItem) hoverEvent.value());
         }
       } catch(final IOException ex) {
         throw new JsonSyntaxException(ex);
       }
-      return serialized == null ? JsonNull.INSTANCE : context.serialize(serialized);
-    } else {
-      return JsonNull.INSTANCE;
+    }
+    return null;
+  }
+
+  private Codec.Encoder<Component, String, RuntimeException> encoder() {
+    return this.component::toJson;
+  }
+
+  /**
+   * The entries of a style, encoded in advance.
+   *
+   * <p>The first name is written as a name, so the writer knows an entry has been written, and the remaining
+   * entries are written verbatim as if they were its value.</p>
+   */
+  static final class EncodedStyle {
+    final Style style;
+    final String[] names;
+    final String[] values;
+
+    EncodedStyle(final Style style, final String[] names, final String[] values) {
+      this.style = style;
+      this.names = names;
+      this.values = values;
     }
   }
 
-  private Codec.Encoder<Component, String, RuntimeException> encoder(final JsonSerializationContext ctx) {
-    return component -> ctx.serialize(component).toString();
+  /**
+   * The style entries of an object, collected as they are read.
+   */
+  static final class Entries {
+    private Style.@Nullable Builder builder;
+    @Nullable TextDecoration colorDecoration;
+    int explicitDecorations;
+
+    Style.Builder builder() {
+      if(this.builder == null) {
+        this.builder = Style.style();
+      }
+      return this.builder;
+    }
+
+    Style build() {
+      // a decoration set through the color never overrides one set explicitly, regardless of the order of the entries
+      if(this.colorDecoration != null && (this.explicitDecorations & (1 << this.colorDecoration.ordinal())) == 0) {
+        this.builder().decoration(this.colorDecoration, true);
+      }
+      return this.builder == null ? Style.empty() : this.builder.build();
+    }
   }
 }
@@ -27,6 +27,8 @@ import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -36,6 +38,14 @@ final class TextColorSerializer extends TypeAdapter<TextColor> {
   static final TypeAdapter<TextColor> INSTANCE = new TextColorSerializer(false).nullSafe();
   static final TypeAdapter<TextColor> DOWNSAMPLE_COLOR = new TextColorSerializer(true).nullSafe();
 
+  private static final Map<NamedTextColor, String> ENCODED_NAMES = new HashMap<>();
+
+  static {
+    for(final NamedTextColor color : NamedTextColor.NAMES.values()) {
+      ENCODED_NAMES.put(color, EncodingJsonWriter.encode(NamedTextColor.NAMES.key(color)));
+    }
+  }
+
   private final boolean downsampleColor;
 
   private TextColorSerializer(final boolean downsampleColor) {
@@ -44,12 +54,27 @@ final class TextColorSerializer extends TypeAdapter<TextColor> {
 
   @Override
   public void write(final JsonWriter out, final TextColor value) throws IOException {
-    if(value instanceof NamedTextColor) {
-      out.value(NamedTextColor.NAMES.key((NamedTextColor) value));
-    } else if(this.downsampleColor) {
-      out.value(NamedTextColor.NAMES.key(NamedTextColor.nearestTo(value)));
+    if(out instanceof EncodingJsonWriter && (value instanceof NamedTextColor || this.downsampleColor)) {
+      out.jsonValue(ENCODED_NAMES.get(NamedTextColor.nearestTo(value)));
+      return;
+    }
+    out.value(toString(value, this.downsampleColor));
+  }
+
+  /**
+   * Gets the string a color is serialized as.
+   *
+   * @param color the color
+   * @param downsample whether to downsample the color to the nearest named color
+   * @return the string
+   */
+  static String toString(final TextColor color, final boolean downsample) {
+    if(color instanceof NamedTextColor) {
+      return NamedTextColor.NAMES.key((NamedTextColor) color);
+    } else if(downsample) {
+      return NamedTextColor.NAMES.key(NamedTextColor.nearestTo(color));
     } else {
-      out.value(value.asHexString());
+      return color.asHexString();
     }
   }
 
@@ -48,6 +48,8 @@ final class TextColorWrapper {
   }
 
   static class Serializer extends TypeAdapter<TextColorWrapper> {
+    static final Serializer INSTANCE = new Serializer();
+
     @Override
     public void write(final JsonWriter out, final TextColorWrapper value) {
       throw new JsonSyntaxException("Cannot write TextColorWrapper instances");
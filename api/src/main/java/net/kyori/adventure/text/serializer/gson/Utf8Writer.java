@@ -0,0 +1,154 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A writer encoding characters as UTF-8 straight into a {@link ByteBuffer}, or an {@link OutputStream}.
+ *
+ * <p>Unpaired surrogates are encoded as {@code ?}, matching {@link String#getBytes(java.nio.charset.Charset)}.
+ * Closing the writer flushes it, but does not close the stream.</p>
+ */
+final class Utf8Writer extends Writer {
+  private static final int STREAM_BUFFER_SIZE = 8192;
+  private static final byte REPLACEMENT = '?';
+  private final ByteBuffer buffer;
+  private final @Nullable OutputStream stream;
+  private char highSurrogate;
+
+  private Utf8Writer(final ByteBuffer buffer, final @Nullable OutputStream stream) {
+    this.buffer = buffer;
+    this.stream = stream;
+  }
+
+  /**
+   * Creates a writer that writes into {@code buffer}.
+   *
+   * <p>A {@link java.nio.BufferOverflowException} is thrown if the buffer does not have enough space remaining.</p>
+   *
+   * @param buffer the buffer
+   * @return a writer
+   */
+  static Utf8Writer buffer(final ByteBuffer buffer) {
+    return new Utf8Writer(buffer, null);
+  }
+
+  /**
+   * Creates a writer that writes to {@code stream}.
+   *
+   * @param stream the stream
+   * @return a writer
+   */
+  static Utf8Writer stream(final OutputStream stream) {
+    return new Utf8Writer(ByteBuffer.allocate(STREAM_BUFFER_SIZE), stream);
+  }
+
+  @Override
+  public void write(final int c) throws IOException {
+    this.ensureRemaining(4);
+    this.encode((char) c);
+  }
+
+  @Override
+  public void write(final char[] chars, final int offset, final int length) throws IOException {
+    for(int i = offset, end = offset + length; i < end; i++) {
+      this.ensureRemaining(4);
+      this.encode(chars[i]);
+    }
+  }
+
+  @Override
+  public void write(final String string, final int offset, final int length) throws IOException {
+    // overridden, as the default implementation copies the string into a temporary array
+    for(int i = offset, end = offset + length; i < end; i++) {
+      this.ensureRemaining(4);
+      this.encode(string.charAt(i));
+    }
+  }
+
+  private void encode(final char c) {
+    final ByteBuffer buffer = this.buffer;
+    if(this.highSurrogate != 0) {
+      final char high = this.highSurrogate;
+      this.highSurrogate = 0;
+      if(Character.isLowSurrogate(c)) {
+        final int codePoint = Character.toCodePoint(high, c);
+        buffer.put((byte) (0xf0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+        return;
+      }
+      buffer.put(REPLACEMENT);
+    }
+    if(c < 0x80) {
+      buffer.put((byte) c);
+    } else if(c < 0x800) {
+      buffer.put((byte) (0xc0 | (c >> 6)));
+      buffer.put((byte) (0x80 | (c & 0x3f)));
+    } else if(Character.isHighSurrogate(c)) {
+      this.highSurrogate = c;
+    } else if(Character.isLowSurrogate(c)) {
+      buffer.put(REPLACEMENT);
+    } else {
+      buffer.put((byte) (0xe0 | (c >> 12)));
+      buffer.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+      buffer.put((byte) (0x80 | (c & 0x3f)));
+    }
+  }
+
+  private void ensureRemaining(final int length) throws IOException {
+    if(this.stream != null && this.buffer.remaining() < length) {
+      this.drain();
+    }
+  }
+
+  private void drain() throws IOException {
+    if(this.stream != null && this.buffer.position() > 0) {
+      this.stream.write(this.buffer.array(), this.buffer.arrayOffset(), this.buffer.position());
+      this.buffer.clear();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.drain();
+    if(this.stream != null) this.stream.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if(this.highSurrogate != 0) {
+      this.highSurrogate = 0;
+      this.ensureRemaining(1);
+      this.buffer.put(REPLACEMENT);
+    }
+    this.drain();
+  }
+}
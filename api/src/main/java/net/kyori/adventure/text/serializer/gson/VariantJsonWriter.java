@@ -0,0 +1,218 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.Writer;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.TextColor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A writer producing the JSON of several serializers in a single traversal of a component.
+ *
+ * <p>Each serializer has its own writer, to which everything written to this writer is passed on. The serializers
+ * differ only in how colors and legacy hover event values are written, which are instead written to the writer
+ * of each serializer individually.</p>
+ */
+final class VariantJsonWriter extends JsonWriter {
+  // everything is written to the writers of the serializers, so writing to this writer itself is a mistake
+  private static final Writer UNSUPPORTED = new Writer() {
+    @Override
+    public void write(final char[] chars, final int offset, final int length) {
+      throw new UnsupportedOperationException("Writing to a variant writer directly is not supported");
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  };
+
+  private final GsonComponentSerializerImpl[] variants;
+  private final StringBuilder[] builders;
+  private final JsonWriter[] writers;
+
+  private VariantJsonWriter(final GsonComponentSerializerImpl[] variants) {
+    super(UNSUPPORTED);
+    // as configured for the writers of the serializers, for any adapter which checks
+    this.setLenient(true);
+    this.setHtmlSafe(true);
+    this.setSerializeNulls(false);
+    this.variants = variants;
+    this.builders = new StringBuilder[variants.length];
+    this.writers = new JsonWriter[variants.length];
+    for(int i = 0; i < variants.length; i++) {
+      this.builders[i] = new StringBuilder();
+      this.writers[i] = new EncodingJsonWriter(new StringBuilderWriter(this.builders[i]));
+    }
+  }
+
+  /**
+   * Serializes a component with each serializer.
+   *
+   * @param component the component
+   * @param variants the serializers
+   * @return the JSON produced by each serializer
+   * @throws IOException if an exception was encountered while writing
+   */
+  static String[] write(final Component component, final GsonComponentSerializerImpl[] variants) throws IOException {
+    final VariantJsonWriter out = new VariantJsonWriter(variants);
+    // any of the serializers can traverse the component, as all the differences go through this writer
+    variants[0].adapter().write(out, component);
+    final String[] results = new String[variants.length];
+    for(int i = 0; i < results.length; i++) {
+      results[i] = out.builders[i].toString();
+    }
+    return results;
+  }
+
+  /**
+   * Writes the value of the current {@code color} entry.
+   *
+   * @param color the color
+   * @throws IOException if an exception was encountered while writing
+   */
+  void color(final TextColor color) throws IOException {
+    for(int i = 0; i < this.variants.length; i++) {
+      this.writers[i].value(TextColorSerializer.toString(color, this.variants[i].downsampleColor()));
+    }
+  }
+
+  /**
+   * Writes the legacy {@code value} entry of a hover event, for each serializer emitting one.
+   *
+   * <p>The entry is written last, after the contents of the hover event.</p>
+   *
+   * @param hoverEvent the hover event
+   * @throws IOException if an exception was encountered while writing
+   */
+  @SuppressWarnings("deprecation")
+  void legacyHoverValue(final HoverEvent<?> hoverEvent) throws IOException {
+    for(int i = 0; i < this.variants.length; i++) {
+      final GsonComponentSerializerImpl variant = this.variants[i];
+      if(!variant.emitLegacyHover()) continue;
+      final @Nullable Component value = variant.style().legacyHoverValue(hoverEvent);
+      this.writers[i].name(StyleSerializer.HOVER_EVENT_VALUE);
+      if(value == null) {
+        this.writers[i].nullValue();
+      } else {
+        variant.adapter().write(this.writers[i], value);
+      }
+    }
+  }
+
+  @Override
+  public JsonWriter beginArray() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.beginArray();
+    return this;
+  }
+
+  @Override
+  public JsonWriter endArray() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.endArray();
+    return this;
+  }
+
+  @Override
+  public JsonWriter beginObject() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.beginObject();
+    return this;
+  }
+
+  @Override
+  public JsonWriter endObject() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.endObject();
+    return this;
+  }
+
+  @Override
+  public JsonWriter name(final String name) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.name(name);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final String value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter jsonValue(final String value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.jsonValue(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter nullValue() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.nullValue();
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final boolean value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final Boolean value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final double value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final long value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public JsonWriter value(final Number value) throws IOException {
+    for(final JsonWriter writer : this.writers) writer.value(value);
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    for(final JsonWriter writer : this.writers) writer.close();
+  }
+}
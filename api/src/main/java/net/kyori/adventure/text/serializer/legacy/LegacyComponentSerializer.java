@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.text.serializer.legacy;
 
+import java.io.IOException;
 import java.util.regex.Pattern;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
@@ -32,6 +33,7 @@ import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.flattener.ComponentFlattener;
 import net.kyori.adventure.text.serializer.ComponentSerializer;
 import net.kyori.adventure.util.Buildable;
+import net.kyori.adventure.util.CacheStatistics;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -150,6 +152,31 @@ public interface LegacyComponentSerializer extends ComponentSerializer<Component
   @Override
   @NonNull String serialize(final @NonNull Component component);
 
+  /**
+   * Serializes a component into legacy text, appending it to {@code output}.
+   *
+   * <p>This avoids building an intermediate {@link String} when the text is written elsewhere, such as to a
+   * buffer reused for many messages.</p>
+   *
+   * @param component the component
+   * @param output the output to append to
+   * @throws IOException if an error occurs appending to {@code output}
+   * @since 4.8.0
+   */
+  default void serialize(final @NonNull Component component, final @NonNull Appendable output) throws IOException {
+    output.append(this.serialize(component));
+  }
+
+  /**
+   * Gets statistics for the cache of deserialized components.
+   *
+   * @return the statistics, or {@code null} if this serializer does not {@link Builder#parseCache(int, long) cache} deserialized components
+   * @since 4.8.0
+   */
+  default @Nullable CacheStatistics cacheStatistics() {
+    return null;
+  }
+
   /**
    * A builder for {@link LegacyComponentSerializer}.
    *
@@ -253,6 +280,26 @@ public interface LegacyComponentSerializer extends ComponentSerializer<Component
      */
     @NonNull Builder flattener(final @NonNull ComponentFlattener flattener);
 
+    /**
+     * Sets that the component deserialized from each input should be cached.
+     *
+     * <p>Components are immutable, so deserializing the same input again, such as a message prefix read from
+     * configuration, can return the same component instead of parsing the input again.</p>
+     *
+     * <p>The least recently used entries are evicted when the cache holds more than {@code maximumSize} entries,
+     * or the estimated memory retained by the cached inputs and components exceeds {@code maximumBytes}.</p>
+     *
+     * @param maximumSize the maximum number of entries
+     * @param maximumBytes the maximum estimated number of bytes retained by the entries
+     * @return this builder
+     * @throws IllegalArgumentException if either bound is not positive
+     * @see LegacyComponentSerializer#cacheStatistics()
+     * @since 4.8.0
+     */
+    default @NonNull Builder parseCache(final int maximumSize, final long maximumBytes) {
+      return this;
+    }
+
     /**
      * Builds the serializer.
      *
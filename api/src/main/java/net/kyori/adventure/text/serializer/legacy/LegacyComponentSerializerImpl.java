@@ -23,18 +23,22 @@
  */
 package net.kyori.adventure.text.serializer.legacy;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.TextComponent;
-import net.kyori.adventure.text.TextReplacementConfig;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
@@ -43,6 +47,8 @@ import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.format.TextFormat;
 import net.kyori.adventure.text.flattener.ComponentFlattener;
 import net.kyori.adventure.text.flattener.FlattenerListener;
+import net.kyori.adventure.util.BoundedCache;
+import net.kyori.adventure.util.CacheStatistics;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -55,6 +61,13 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
   private static final char LEGACY_BUNGEE_HEX_CHAR = 'x';
   private static final List<TextFormat> FORMATS;
   private static final String LEGACY_CHARS;
+  private static final DecodedFormat[] LEGACY_DECODED;
+  // the number of hex colors whose codes each serializer keeps, rather than building a code on every color change
+  private static final int MAXIMUM_HEX_CODES = 1024;
+  // pooled output buffers which have grown larger than this are discarded rather than retained
+  private static final int MAXIMUM_POOLED_CAPACITY = 8192;
+  // shared by every serializer, which is only referenced while serializing so that the pool does not keep it alive
+  private static final ThreadLocal<Cereal> POOLED = ThreadLocal.withInitial(Cereal::new);
 
   static {
     // Enumeration order may change - manually
@@ -89,49 +102,46 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
     FORMATS = Collections.unmodifiableList(new ArrayList<>(formats.keySet()));
     LEGACY_CHARS = String.join("", formats.values());
 
+    LEGACY_DECODED = new DecodedFormat[FORMATS.size()];
+    for(int i = 0; i < LEGACY_DECODED.length; i++) {
+      LEGACY_DECODED[i] = new DecodedFormat(FormatCodeType.MOJANG_LEGACY, FORMATS.get(i));
+    }
+
     // assert same length
     if(FORMATS.size() != LEGACY_CHARS.length()) {
       throw new IllegalStateException("FORMATS length differs from LEGACY_CHARS length");
     }
   }
 
-  static final LegacyComponentSerializer SECTION_SERIALIZER = new LegacyComponentSerializerImpl(SECTION_CHAR, HEX_CHAR, null, false, false, ComponentFlattener.basic());
-  static final LegacyComponentSerializer AMPERSAND_SERIALIZER = new LegacyComponentSerializerImpl(AMPERSAND_CHAR, HEX_CHAR, null, false, false, ComponentFlattener.basic());
+  static final LegacyComponentSerializer SECTION_SERIALIZER = new LegacyComponentSerializerImpl(SECTION_CHAR, HEX_CHAR, null, null, false, false, ComponentFlattener.basic(), null);
+  static final LegacyComponentSerializer AMPERSAND_SERIALIZER = new LegacyComponentSerializerImpl(AMPERSAND_CHAR, HEX_CHAR, null, null, false, false, ComponentFlattener.basic(), null);
 
   private final char character;
   private final char hexCharacter;
-  private final @Nullable TextReplacementConfig urlReplacementConfig;
+  private final @Nullable Pattern urlPattern;
+  private final @Nullable Style urlStyle;
   private final boolean hexColours;
   private final boolean useTerriblyStupidHexFormat; // (╯°□°)╯︵ ┻━┻
   private final ComponentFlattener flattener;
+  private final @Nullable BoundedCache<String, TextComponent> cache;
+  private final Map<TextFormat, String> codes;
+  private final Map<TextColor, String> hexCodes = new ConcurrentHashMap<>();
 
-  LegacyComponentSerializerImpl(final char character, final char hexCharacter, final @Nullable TextReplacementConfig urlReplacementConfig, final boolean hexColours, final boolean useTerriblyStupidHexFormat, final ComponentFlattener flattener) {
+  LegacyComponentSerializerImpl(final char character, final char hexCharacter, final @Nullable Pattern urlPattern, final @Nullable Style urlStyle, final boolean hexColours, final boolean useTerriblyStupidHexFormat, final ComponentFlattener flattener, final @Nullable BoundedCache<String, TextComponent> cache) {
     this.character = character;
     this.hexCharacter = hexCharacter;
-    this.urlReplacementConfig = urlReplacementConfig;
+    this.urlPattern = urlPattern;
+    this.urlStyle = urlStyle;
     this.hexColours = hexColours;
     this.useTerriblyStupidHexFormat = useTerriblyStupidHexFormat;
     this.flattener = flattener;
-  }
+    this.cache = cache;
 
-  private @Nullable FormatCodeType determineFormatType(final char legacy, final String input, final int pos) {
-    if(pos >= 14) {
-      // The BungeeCord RGB color format uses a repeating sequence of RGB values, each character formatted
-      // as their own color format string, and to make things interesting, all the colors are also valid
-      // Mojang colors. To differentiate this, we do a lookback check for &x (or equivalent) for its position
-      // in the string if it is indeed a BungeeCord-style RGB color.
-      final int expectedCharacterPosition = pos - 14;
-      final int expectedIndicatorPosition = pos - 13;
-      if(input.charAt(expectedCharacterPosition) == this.character && input.charAt(expectedIndicatorPosition) == LEGACY_BUNGEE_HEX_CHAR) {
-        return FormatCodeType.BUNGEECORD_UNUSUAL_HEX;
-      }
-    }
-    if(legacy == this.hexCharacter && input.length() - pos >= 6) {
-      return FormatCodeType.KYORI_HEX;
-    } else if(LEGACY_CHARS.indexOf(legacy) != -1) {
-      return FormatCodeType.MOJANG_LEGACY;
+    final Map<TextFormat, String> codes = new HashMap<>(FORMATS.size() * 2);
+    for(int i = 0, size = FORMATS.size(); i < size; i++) {
+      codes.put(FORMATS.get(i), new String(new char[]{character, LEGACY_CHARS.charAt(i)}));
     }
-    return null;
+    this.codes = codes;
   }
 
   static @Nullable LegacyFormat legacyFormat(final char character) {
@@ -149,160 +159,265 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
     return null;
   }
 
-  private @Nullable DecodedFormat decodeTextFormat(final char legacy, final String input, final int pos) {
-    final FormatCodeType foundFormat = this.determineFormatType(legacy, input, pos);
-    if(foundFormat == null) {
-      return null;
-    }
-    if(foundFormat == FormatCodeType.KYORI_HEX) {
-      final @Nullable TextColor parsed = tryParseHexColor(input.substring(pos, pos + 6));
+  private @Nullable DecodedFormat decodeTextFormat(final String input, final int pos) {
+    final char legacy = input.charAt(pos);
+    if(legacy == LEGACY_BUNGEE_HEX_CHAR && input.length() - pos > 12) {
+      // The BungeeCord RGB color format uses a repeating sequence of RGB values, each character formatted
+      // as their own color format string, and to make things interesting, all the colors are also valid
+      // Mojang colors. To differentiate this, we look ahead from the &x (or equivalent) and consume the
+      // whole sequence at once if it is indeed a BungeeCord-style RGB color.
+      final @Nullable TextColor parsed = this.tryParseBungeeHexColor(input, pos + 1);
       if(parsed != null) {
-        return new DecodedFormat(foundFormat, parsed);
-      }
-    } else if(foundFormat == FormatCodeType.MOJANG_LEGACY) {
-      return new DecodedFormat(foundFormat, FORMATS.get(LEGACY_CHARS.indexOf(legacy)));
-    } else if(foundFormat == FormatCodeType.BUNGEECORD_UNUSUAL_HEX) {
-      final StringBuilder foundHex = new StringBuilder(6);
-      for(int i = pos - 1; i >= pos - 11; i -= 2) {
-        foundHex.append(input.charAt(i));
+        return new DecodedFormat(FormatCodeType.BUNGEECORD_UNUSUAL_HEX, parsed);
       }
-      final @Nullable TextColor parsed = tryParseHexColor(foundHex.reverse().toString());
-      if(parsed != null) {
-        return new DecodedFormat(foundFormat, parsed);
+    }
+    if(legacy == this.hexCharacter && input.length() - pos > 6) {
+      final @Nullable TextColor parsed = tryParseHexColor(input, pos + 1, 1);
+      return parsed == null ? null : new DecodedFormat(FormatCodeType.KYORI_HEX, parsed);
+    }
+    final int index = LEGACY_CHARS.indexOf(legacy);
+    return index == -1 ? null : LEGACY_DECODED[index];
+  }
+
+  private @Nullable TextColor tryParseBungeeHexColor(final String input, final int from) {
+    for(int i = from; i < from + 12; i += 2) {
+      if(input.charAt(i) != this.character) {
+        return null;
       }
     }
-    return null;
+    return tryParseHexColor(input, from + 1, 2);
   }
 
-  private static @Nullable TextColor tryParseHexColor(final String hexDigits) {
-    try {
-      final int color = Integer.parseInt(hexDigits, 16);
-      return TextColor.color(color);
-    } catch(final NumberFormatException ex) {
-      return null;
+  private static @Nullable TextColor tryParseHexColor(final String input, final int from, final int stride) {
+    int color = 0;
+    for(int i = 0; i < 6; i++) {
+      final int digit = Character.digit(input.charAt(from + i * stride), 16);
+      if(digit == -1) {
+        return null;
+      }
+      color = (color << 4) | digit;
     }
+    return TextColor.color(color);
   }
 
   private static boolean isHexTextColor(final TextFormat format) {
     return format instanceof TextColor && !(format instanceof NamedTextColor);
   }
 
-  private String toLegacyCode(TextFormat format) {
+  // the full code for a format, including the legacy character
+  private String toLegacyCode(final TextFormat format) {
     if(isHexTextColor(format)) {
       final TextColor color = (TextColor) format;
-      if(this.hexColours) {
-        final String hex = String.format("%06x", color.value());
-        if(this.useTerriblyStupidHexFormat) {
-          // ah yes, wonderful. A 14 digit long completely unreadable string.
-          final StringBuilder legacy = new StringBuilder(String.valueOf(LEGACY_BUNGEE_HEX_CHAR));
-          for(final char character : hex.toCharArray()) {
-            legacy.append(this.character).append(character);
-          }
-          return legacy.toString();
-        } else {
-          // this is a bit nicer, hey?
-          return this.hexCharacter + hex;
+      @Nullable String code = this.hexCodes.get(color);
+      if(code == null) {
+        code = this.toHexCode(color);
+        if(this.hexCodes.size() < MAXIMUM_HEX_CODES) {
+          this.hexCodes.put(color, code);
         }
-      } else {
-        // if we are not using hex colours, then convert the hex colour
-        // to the "nearest" possible named/standard text colour
-        format = NamedTextColor.nearestTo(color);
       }
+      return code;
     }
-    final int index = FORMATS.indexOf(format);
-    return Character.toString(LEGACY_CHARS.charAt(index));
+    return this.codes.get(format);
   }
 
-  private TextComponent extractUrl(final TextComponent component) {
-    if(this.urlReplacementConfig == null) return component;
-    final Component newComponent = component.replaceText(this.urlReplacementConfig);
-    if(newComponent instanceof TextComponent) return (TextComponent) newComponent;
-    return TextComponent.ofChildren(newComponent);
+  private String toHexCode(final TextColor color) {
+    if(this.hexColours) {
+      final int value = color.value();
+      if(this.useTerriblyStupidHexFormat) {
+        // ah yes, wonderful. A 14 digit long completely unreadable string.
+        final char[] legacy = new char[14];
+        legacy[0] = this.character;
+        legacy[1] = LEGACY_BUNGEE_HEX_CHAR;
+        for(int i = 0; i < 6; i++) {
+          legacy[2 + i * 2] = this.character;
+          legacy[3 + i * 2] = Character.forDigit((value >> (20 - i * 4)) & 0xf, 16);
+        }
+        return new String(legacy);
+      } else {
+        // this is a bit nicer, hey?
+        final char[] legacy = new char[8];
+        legacy[0] = this.character;
+        legacy[1] = this.hexCharacter;
+        for(int i = 0; i < 6; i++) {
+          legacy[2 + i] = Character.forDigit((value >> (20 - i * 4)) & 0xf, 16);
+        }
+        return new String(legacy);
+      }
+    }
+    // if we are not using hex colours, then convert the hex colour
+    // to the "nearest" possible named/standard text colour
+    return this.codes.get(NamedTextColor.nearestTo(color));
   }
 
   @Override
   public @NonNull TextComponent deserialize(final @NonNull String input) {
-    int next = input.lastIndexOf(this.character, input.length() - 2);
-    if(next == -1) {
-      return this.extractUrl(Component.text(input));
+    if(this.cache == null) {
+      return this.parse(input);
     }
+    final @Nullable TextComponent cached = this.cache.get(input);
+    if(cached != null) {
+      return cached;
+    }
+    final TextComponent component = this.parse(input);
+    this.cache.put(input, component);
+    return component;
+  }
 
-    final List<TextComponent> parts = new ArrayList<>();
-
-    TextComponent.Builder current = null;
-    boolean reset = false;
-
-    int pos = input.length();
-    do {
-      final DecodedFormat decoded = this.decodeTextFormat(input.charAt(next + 1), input, next + 2);
+  private @NonNull TextComponent parse(final @NonNull String input) {
+    // A single forward pass: every run of text between formats becomes a sibling carrying the style
+    // accumulated from the formats before it, so no nesting or reordering is ever required.
+    final int length = input.length();
+    final List<Component> parts = new ArrayList<>();
+    @Nullable String head = null;
+    Style style = Style.empty();
+
+    int from = 0;
+    int next = input.indexOf(this.character);
+    while(next != -1 && next < length - 1) {
+      final @Nullable DecodedFormat decoded = this.decodeTextFormat(input, next + 1);
       if(decoded != null) {
-        final int from = next + (decoded.encodedFormat == FormatCodeType.KYORI_HEX ? 8 : 2);
-        if(from != pos) {
-          if(current != null) {
-            if(reset) {
-              parts.add(current.build());
-              reset = false;
-              current = Component.text();
-            } else {
-              current = Component.text().append(current.build());
-            }
-          } else {
-            current = Component.text();
-          }
-
-          current.content(input.substring(from, pos));
-        } else if(current == null) {
-          current = Component.text();
+        if(head == null) {
+          head = this.appendHead(parts, input.substring(0, next));
+        } else if(from != next) {
+          this.appendText(parts, input.substring(from, next), style);
         }
+        style = applyFormat(style, decoded.format);
+        from = next + decoded.encodedFormat.length;
+        next = input.indexOf(this.character, from);
+      } else {
+        next = input.indexOf(this.character, next + 1);
+      }
+    }
 
-        if(!reset) {
-          reset = applyFormat(current, decoded.format);
-        }
-        if(decoded.encodedFormat == FormatCodeType.BUNGEECORD_UNUSUAL_HEX) {
-          // BungeeCord hex characters are a repeating set of characters, all of which are also valid
-          // legacy Mojang chat colors. Subtract the number of characters in the format, and only then
-          // skip ahead.
-          next -= 12;
-        }
-        pos = next;
+    if(head == null) {
+      head = this.appendHead(parts, input);
+      if(parts.isEmpty()) {
+        return Component.text(head);
       }
+    } else {
+      // formats at the very end of the input are kept as an empty component
+      this.appendText(parts, input.substring(from), style);
+    }
 
-      next = input.lastIndexOf(this.character, next - 1);
-    } while(next != -1);
+    if(parts.size() == 1 && head.isEmpty()) {
+      return (TextComponent) parts.get(0);
+    }
+    return Component.text().content(head).append(parts).build();
+  }
 
-    if(current != null) {
-      parts.add(current.build());
+  // the unformatted text before any format is the content of the root component, up to the first URL
+  private String appendHead(final List<Component> parts, final String text) {
+    final @Nullable Matcher urls = this.findUrl(text);
+    if(urls == null) {
+      return text;
     }
+    final int start = urls.start();
+    this.appendUrls(parts, text, Style.empty(), urls, start);
+    return text.substring(0, start);
+  }
 
-    final String remaining = pos > 0 ? input.substring(0, pos) : "";
-    if(parts.size() == 1 && remaining.isEmpty()) {
-      return this.extractUrl(parts.get(0));
+  private void appendText(final List<Component> parts, final String text, final Style style) {
+    final @Nullable Matcher urls = this.findUrl(text);
+    if(urls == null) {
+      parts.add(Component.text(text, style));
     } else {
-      Collections.reverse(parts);
-      return this.extractUrl(Component.text().content(remaining).append(parts).build());
+      this.appendUrls(parts, text, style, urls, 0);
     }
   }
 
+  private void appendUrls(final List<Component> parts, final String text, final Style style, final Matcher urls, final int start) {
+    int from = start;
+    do {
+      if(urls.start() > from) {
+        parts.add(Component.text(text.substring(from, urls.start()), style));
+      }
+      parts.add(this.url(urls.group(), style));
+      from = urls.end();
+    } while(urls.find());
+    if(from < text.length()) {
+      parts.add(Component.text(text.substring(from), style));
+    }
+  }
+
+  // a matcher positioned at the first URL in the text, or null if there is none
+  private @Nullable Matcher findUrl(final String text) {
+    if(this.urlPattern == null) {
+      return null;
+    }
+    // every URL matched by the default pattern contains a dot, so most text never reaches the regex
+    if(this.urlPattern == DEFAULT_URL_PATTERN && text.indexOf('.') == -1) {
+      return null;
+    }
+    final Matcher matcher = this.urlPattern.matcher(text);
+    return matcher.find() ? matcher : null;
+  }
+
+  private Component url(final String url, final Style style) {
+    final String clickUrl = URL_SCHEME_PATTERN.matcher(url).find() ? url : "http://" + url;
+    final Style urlStyle = this.urlStyle == null ? style : style.merge(this.urlStyle);
+    return Component.text(url, urlStyle.clickEvent(ClickEvent.openUrl(clickUrl)));
+  }
+
   @Override
   public @NonNull String serialize(final @NonNull Component component) {
-    final Cereal state = new Cereal();
-    this.flattener.flatten(component, state);
-    return state.toString();
+    final Cereal state = this.acquire();
+    try {
+      final StringBuilder sb = state.buffer;
+      state.flatten(component, sb);
+      return sb.toString();
+    } finally {
+      state.release();
+    }
+  }
+
+  @Override
+  public void serialize(final @NonNull Component component, final @NonNull Appendable output) throws IOException {
+    final Cereal state = this.acquire();
+    try {
+      state.flatten(component, output);
+      if(state.failure != null) {
+        throw state.failure;
+      }
+    } finally {
+      state.release();
+    }
+  }
+
+  private Cereal acquire() {
+    Cereal state = POOLED.get();
+    if(state.inUse) {
+      // serializing from within a flattener, while this thread is already serializing
+      state = new Cereal();
+    } else {
+      state.inUse = true;
+    }
+    state.serializer = this;
+    return state;
   }
 
-  private static boolean applyFormat(final TextComponent.@NonNull Builder builder, final @NonNull TextFormat format) {
+  private static @NonNull Style applyFormat(final @NonNull Style style, final @NonNull TextFormat format) {
     if(format instanceof TextColor) {
-      builder.colorIfAbsent((TextColor) format);
-      return true;
+      // a color also resets any decorations
+      return Style.style((TextColor) format);
     } else if(format instanceof TextDecoration) {
-      builder.decoration((TextDecoration) format, TextDecoration.State.TRUE);
-      return false;
+      return style.decoration((TextDecoration) format, TextDecoration.State.TRUE);
     } else if(format instanceof Reset) {
-      return true;
+      return Style.empty();
     }
     throw new IllegalArgumentException(String.format("unknown format '%s'", format.getClass()));
   }
 
+  @Override
+  public @Nullable CacheStatistics cacheStatistics() {
+    return this.cache;
+  }
+
+  // the input retains two bytes per character, and the contents of the component at most as many again,
+  // plus the headers of each string and an allowance for each component and its style
+  private static long weigh(final String input, final TextComponent component) {
+    return 4L * input.length() + 56 + 96L * (1 + component.children().size());
+  }
+
   @Override
   public @NonNull Builder toBuilder() {
     return new BuilderImpl(this);
@@ -313,13 +428,43 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
   }
 
   // Are you hungry?
-  private final class Cereal implements FlattenerListener {
-    private final StringBuilder sb = new StringBuilder();
+  private static final class Cereal implements FlattenerListener {
+    final StringBuilder buffer = new StringBuilder();
+    private @Nullable LegacyComponentSerializerImpl serializer;
     private final StyleState style = new StyleState();
+    private @Nullable Appendable out;
+    @Nullable IOException failure;
+    boolean inUse;
     private @Nullable TextFormat lastWritten;
     private StyleState[] styles = new StyleState[8];
     private int head = -1;
 
+    void flatten(final @NonNull Component component, final @NonNull Appendable out) {
+      this.out = out;
+      this.serializer.flattener.flatten(component, this);
+    }
+
+    // restore the state of a new instance, so that it may be used again
+    void release() {
+      this.serializer = null;
+      if(this.buffer.capacity() > MAXIMUM_POOLED_CAPACITY) {
+        if(this.inUse) {
+          POOLED.set(new Cereal());
+        }
+        return;
+      }
+      this.buffer.setLength(0);
+      this.style.reset();
+      this.out = null;
+      this.failure = null;
+      this.lastWritten = null;
+      for(final StyleState state : this.styles) {
+        if(state != null) state.reset();
+      }
+      this.head = -1;
+      this.inUse = false;
+    }
+
     @Override
     public void pushStyle(final @NonNull Style pushed) {
       final int idx = ++this.head;
@@ -349,7 +494,7 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
         if(this.head < 0) throw new IllegalStateException("No style has been pushed!");
 
         this.styles[this.head].applyFormat();
-        this.sb.append(text);
+        this.write(text);
       }
     }
 
@@ -362,14 +507,19 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
 
     void append(final @NonNull TextFormat format) {
       if(this.lastWritten != format) {
-        this.sb.append(LegacyComponentSerializerImpl.this.character).append(LegacyComponentSerializerImpl.this.toLegacyCode(format));
+        this.write(this.serializer.toLegacyCode(format));
       }
       this.lastWritten = format;
     }
 
-    @Override
-    public String toString() {
-      return this.sb.toString();
+    // the flattener cannot be interrupted, so the first failure is kept and nothing more is written
+    private void write(final @NonNull String string) {
+      if(this.failure != null) return;
+      try {
+        this.out.append(string);
+      } catch(final IOException ex) {
+        this.failure = ex;
+      }
     }
 
     private final class StyleState {
@@ -392,6 +542,11 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
         this.decorations.clear();
       }
 
+      void reset() {
+        this.clear();
+        this.needsReset = false;
+      }
+
       void apply(final @NonNull Style component) {
         final TextColor color = component.color();
         if(color != null) {
@@ -414,7 +569,7 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
       }
 
       void applyFormat() {
-        final boolean colorChanged = this.color != Cereal.this.style.color;
+        final boolean colorChanged = !Objects.equals(this.color, Cereal.this.style.color);
         if(this.needsReset) {
           if(!colorChanged) {
             Cereal.this.append(Reset.INSTANCE);
@@ -465,10 +620,13 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
   static final class BuilderImpl implements Builder {
     private char character = LegacyComponentSerializer.SECTION_CHAR;
     private char hexCharacter = LegacyComponentSerializer.HEX_CHAR;
-    private TextReplacementConfig urlReplacementConfig = null;
+    private @Nullable Pattern urlPattern = null;
+    private @Nullable Style urlStyle = null;
     private boolean hexColours = false;
     private boolean useTerriblyStupidHexFormat = false;
     private ComponentFlattener flattener = ComponentFlattener.basic();
+    private int cacheMaximumSize;
+    private long cacheMaximumBytes;
 
     BuilderImpl() {
     }
@@ -476,9 +634,14 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
     BuilderImpl(final @NonNull LegacyComponentSerializerImpl serializer) {
       this.character = serializer.character;
       this.hexCharacter = serializer.hexCharacter;
-      this.urlReplacementConfig = serializer.urlReplacementConfig;
+      this.urlPattern = serializer.urlPattern;
+      this.urlStyle = serializer.urlStyle;
       this.hexColours = serializer.hexColours;
       this.useTerriblyStupidHexFormat = serializer.useTerriblyStupidHexFormat;
+      if(serializer.cache != null) {
+        this.cacheMaximumSize = serializer.cache.maximumSize();
+        this.cacheMaximumBytes = serializer.cache.maximumWeight();
+      }
     }
 
     @Override
@@ -511,16 +674,8 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
     @Override
     public @NonNull Builder extractUrls(final @NonNull Pattern pattern, final @Nullable Style style) {
       requireNonNull(pattern, "pattern");
-      this.urlReplacementConfig = TextReplacementConfig.builder()
-        .match(pattern)
-        .replacement(url -> {
-          String clickUrl = url.content();
-          if(!URL_SCHEME_PATTERN.matcher(clickUrl).find()) {
-            clickUrl = "http://" + clickUrl;
-          }
-          return (style == null ? url : url.style(style)).clickEvent(ClickEvent.openUrl(clickUrl));
-        })
-        .build();
+      this.urlPattern = pattern;
+      this.urlStyle = style;
       return this;
     }
 
@@ -542,16 +697,32 @@ final class LegacyComponentSerializerImpl implements LegacyComponentSerializer {
       return this;
     }
 
+    @Override
+    public @NonNull Builder parseCache(final int maximumSize, final long maximumBytes) {
+      if(maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be positive, was " + maximumSize);
+      if(maximumBytes <= 0) throw new IllegalArgumentException("maximumBytes must be positive, was " + maximumBytes);
+      this.cacheMaximumSize = maximumSize;
+      this.cacheMaximumBytes = maximumBytes;
+      return this;
+    }
+
     @Override
     public @NonNull LegacyComponentSerializer build() {
-      return new LegacyComponentSerializerImpl(this.character, this.hexCharacter, this.urlReplacementConfig, this.hexColours, this.useTerriblyStupidHexFormat, this.flattener);
+      final @Nullable BoundedCache<String, TextComponent> cache = this.cacheMaximumSize == 0 ? null : BoundedCache.create(this.cacheMaximumSize, this.cacheMaximumBytes, LegacyComponentSerializerImpl::weigh);
+      return new LegacyComponentSerializerImpl(this.character, this.hexCharacter, this.urlPattern, this.urlStyle, this.hexColours, this.useTerriblyStupidHexFormat, this.flattener, cache);
     }
   }
 
   enum FormatCodeType {
-    MOJANG_LEGACY,
-    KYORI_HEX,
-    BUNGEECORD_UNUSUAL_HEX;
+    MOJANG_LEGACY(2),
+    KYORI_HEX(8),
+    BUNGEECORD_UNUSUAL_HEX(14);
+
+    final int length;
+
+    FormatCodeType(final int length) {
+      this.length = length;
+    }
   }
 
   static final class DecodedFormat {
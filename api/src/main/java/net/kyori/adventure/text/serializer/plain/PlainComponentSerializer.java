@@ -23,6 +23,8 @@
  */
 package net.kyori.adventure.text.serializer.plain;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.function.Function;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.KeybindComponent;
@@ -109,7 +111,7 @@ public class PlainComponentSerializer implements ComponentSerializer<Component,
 
   @Override
   public @NonNull String serialize(final @NonNull Component component) {
-    final StringBuilder sb = new StringBuilder();
+    final StringBuilder sb = new StringBuilder(estimateLength(component));
     this.serialize(sb, component);
     return sb.toString();
   }
@@ -121,9 +123,41 @@ public class PlainComponentSerializer implements ComponentSerializer<Component,
    * @param component the component
    * @since 4.0.0
    */
-  @SuppressWarnings("deprecation")
   public void serialize(final @NonNull StringBuilder sb, final @NonNull Component component) {
-    this.flattener.flatten(requireNonNull(component, "component"), sb::append);
+    try {
+      this.flattener.flattenText(requireNonNull(component, "component"), sb);
+    } catch(final IOException ex) {
+      // appending to a StringBuilder does not fail
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Serializes a component into plain text, appending it to {@code output}.
+   *
+   * @param component the component
+   * @param output the output to append to
+   * @throws IOException if an error occurs appending to {@code output}
+   * @since 4.8.0
+   */
+  public void serialize(final @NonNull Component component, final @NonNull Appendable output) throws IOException {
+    this.flattener.flattenText(requireNonNull(component, "component"), output);
+  }
+
+  // text is mostly held by text components, either the root or its children
+  private static int estimateLength(final @NonNull Component component) {
+    int length = estimateOwnLength(component);
+    final List<Component> children = component.children();
+    for(int i = 0, size = children.size(); i < size; i++) {
+      length += estimateOwnLength(children.get(i));
+    }
+    return length;
+  }
+
+  private static int estimateOwnLength(final @NonNull Component component) {
+    final int length = component instanceof TextComponent ? ((TextComponent) component).content().length() : 16;
+    // leave some room for anything deeper, rather than walking the whole tree
+    return component.children().isEmpty() ? length : length + 16;
   }
 
   @Override
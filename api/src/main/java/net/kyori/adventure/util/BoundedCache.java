@@ -0,0 +1,263 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongBiFunction;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * A bounded cache, shared by the serializers which cache their results.
+ *
+ * <p>Entries are evicted in least-recently-used order once the cache exceeds either its maximum number of entries
+ * or its maximum weight, an estimate of the memory retained by the cached keys and values.</p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 4.8.0
+ */
+@ApiStatus.Internal
+public final class BoundedCache<K, V> implements CacheStatistics {
+  private final int maximumSize;
+  private final long maximumWeight;
+  private final ToLongBiFunction<? super K, ? super V> weigher;
+  private final @Nullable ReferenceQueue<K> queue;
+  private final LinkedHashMap<Object, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true); // access order
+  private long weight;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private BoundedCache(final int maximumSize, final long maximumWeight, final ToLongBiFunction<? super K, ? super V> weigher, final boolean weakKeys) {
+    if(maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be positive, was " + maximumSize);
+    if(maximumWeight <= 0) throw new IllegalArgumentException("maximumWeight must be positive, was " + maximumWeight);
+    this.maximumSize = maximumSize;
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    this.queue = weakKeys ? new ReferenceQueue<>() : null;
+  }
+
+  /**
+   * Creates a cache comparing its keys by equality.
+   *
+   * @param maximumSize the maximum number of entries
+   * @param maximumWeight the maximum estimated number of bytes retained by the entries
+   * @param weigher a function estimating the number of bytes retained by an entry
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a cache
+   * @throws IllegalArgumentException if either bound is not positive
+   * @since 4.8.0
+   */
+  public static <K, V> @NonNull BoundedCache<K, V> create(final int maximumSize, final long maximumWeight, final @NonNull ToLongBiFunction<? super K, ? super V> weigher) {
+    return new BoundedCache<>(maximumSize, maximumWeight, weigher, false);
+  }
+
+  /**
+   * Creates a cache holding its keys weakly and comparing them by identity.
+   *
+   * <p>An entry is discarded once its key is no longer referenced elsewhere.</p>
+   *
+   * @param maximumSize the maximum number of entries
+   * @param maximumWeight the maximum estimated number of bytes retained by the entries
+   * @param weigher a function estimating the number of bytes retained by an entry
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a cache
+   * @throws IllegalArgumentException if either bound is not positive
+   * @since 4.8.0
+   */
+  public static <K, V> @NonNull BoundedCache<K, V> weakKeys(final int maximumSize, final long maximumWeight, final @NonNull ToLongBiFunction<? super K, ? super V> weigher) {
+    return new BoundedCache<>(maximumSize, maximumWeight, weigher, true);
+  }
+
+  /**
+   * Gets the maximum number of entries.
+   *
+   * @return the maximum number of entries
+   * @since 4.8.0
+   */
+  public int maximumSize() {
+    return this.maximumSize;
+  }
+
+  /**
+   * Gets the maximum estimated number of bytes retained by the entries.
+   *
+   * @return the maximum weight, in bytes
+   * @since 4.8.0
+   */
+  public long maximumWeight() {
+    return this.maximumWeight;
+  }
+
+  /**
+   * Gets the value cached for a key.
+   *
+   * @param key the key
+   * @return the value, or {@code null} if none is cached
+   * @since 4.8.0
+   */
+  public @Nullable V get(final @NonNull K key) {
+    final @Nullable Entry<V> entry;
+    synchronized(this) {
+      this.expunge();
+      entry = this.entries.get(this.queue == null ? key : new Lookup(key));
+    }
+    if(entry == null) {
+      this.misses.increment();
+      return null;
+    }
+    this.hits.increment();
+    return entry.value;
+  }
+
+  /**
+   * Caches a value for a key.
+   *
+   * <p>A value weighing more than the maximum weight is not cached.</p>
+   *
+   * @param key the key
+   * @param value the value
+   * @since 4.8.0
+   */
+  public void put(final @NonNull K key, final @NonNull V value) {
+    final long weight = this.weigher.applyAsLong(key, value);
+    if(weight > this.maximumWeight) return; // would evict everything else, and then itself
+    synchronized(this) {
+      this.expunge();
+      final @Nullable Entry<V> previous = this.entries.put(this.queue == null ? key : new WeakKey<>(key, this.queue), new Entry<>(value, weight));
+      if(previous != null) this.weight -= previous.weight;
+      this.weight += weight;
+      final Iterator<Map.Entry<Object, Entry<V>>> it = this.entries.entrySet().iterator();
+      while((this.entries.size() > this.maximumSize || this.weight > this.maximumWeight) && it.hasNext()) {
+        this.weight -= it.next().getValue().weight;
+        it.remove();
+        this.evictions.increment();
+      }
+    }
+  }
+
+  // remove the entries of keys which have been garbage collected
+  private void expunge() {
+    if(this.queue == null) return;
+    Reference<? extends K> reference;
+    while((reference = this.queue.poll()) != null) {
+      final @Nullable Entry<V> entry = this.entries.remove(reference);
+      if(entry != null) this.weight -= entry.weight;
+    }
+  }
+
+  @Override
+  public long hits() {
+    return this.hits.sum();
+  }
+
+  @Override
+  public long misses() {
+    return this.misses.sum();
+  }
+
+  @Override
+  public long evictions() {
+    return this.evictions.sum();
+  }
+
+  @Override
+  public synchronized int size() {
+    this.expunge();
+    return this.entries.size();
+  }
+
+  @Override
+  public synchronized long weight() {
+    this.expunge();
+    return this.weight;
+  }
+
+  @Override
+  public String toString() {
+    return "BoundedCache{hits=" + this.hits() + ", misses=" + this.misses() + ", evictions=" + this.evictions() + ", size=" + this.size() + ", weight=" + this.weight() + "}";
+  }
+
+  static final class Entry<V> {
+    final V value;
+    final long weight;
+
+    Entry(final V value, final long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  // the key stored in the map for weak keys, compared by the identity of its referent
+  static final class WeakKey<K> extends WeakReference<K> {
+    private final int hash;
+
+    WeakKey(final K referent, final ReferenceQueue<K> queue) {
+      super(referent, queue);
+      this.hash = System.identityHashCode(referent);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(this == other) return true;
+      if(!(other instanceof WeakKey<?>)) return false;
+      final @Nullable K referent = this.get();
+      return referent != null && referent == ((WeakKey<?>) other).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  // a key used to look up entries without creating a reference
+  static final class Lookup {
+    private final Object key;
+
+    Lookup(final Object key) {
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof WeakKey<?> && ((WeakKey<?>) other).get() == this.key;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this.key);
+    }
+  }
+}
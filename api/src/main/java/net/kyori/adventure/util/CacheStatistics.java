@@ -0,0 +1,78 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Statistics for a bounded cache.
+ *
+ * <p>The values are updated as the cache is used, and may be read while other threads are using it.</p>
+ *
+ * @since 4.8.0
+ */
+@ApiStatus.NonExtendable
+public interface CacheStatistics {
+  /**
+   * Gets the number of times a value was returned from the cache.
+   *
+   * @return the number of hits
+   * @since 4.8.0
+   */
+  long hits();
+
+  /**
+   * Gets the number of times a value had to be computed because it was not in the cache.
+   *
+   * @return the number of misses
+   * @since 4.8.0
+   */
+  long misses();
+
+  /**
+   * Gets the number of entries evicted to keep the cache within its bounds.
+   *
+   * <p>Entries discarded because their key was garbage collected are not counted.</p>
+   *
+   * @return the number of evictions
+   * @since 4.8.0
+   */
+  long evictions();
+
+  /**
+   * Gets the number of entries in the cache.
+   *
+   * @return the number of entries
+   * @since 4.8.0
+   */
+  int size();
+
+  /**
+   * Gets the estimated number of bytes retained by the entries in the cache.
+   *
+   * @return the weight, in bytes
+   * @since 4.8.0
+   */
+  long weight();
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryTagCodecTest {
+  private static final BinaryTagSchema<Slot> SLOT;
+  private static final BinaryTagSchema<Inventory> INVENTORY;
+
+  static {
+    final BinaryTagSchema.Builder<Slot> slot = BinaryTagSchema.builder();
+    final BinaryTagSchema.Field<String> s = slot.field("s", BinaryTagCodec.STRING, it -> it.id);
+    final BinaryTagSchema.Field<Byte> count = slot.field("Count", BinaryTagCodec.BYTE, it -> it.count, (byte) 1);
+    SLOT = slot.build(values -> new Slot(values.get(s), values.get(count)));
+
+    final BinaryTagSchema.Builder<Inventory> inventory = BinaryTagSchema.builder();
+    final BinaryTagSchema.Field<String> name = inventory.field("name", BinaryTagCodec.STRING, it -> it.name, null);
+    final BinaryTagSchema.Field<List<Slot>> list = inventory.field("list", BinaryTagCodec.list(SLOT), it -> it.slots);
+    final BinaryTagSchema.Field<int[]> sizes = inventory.field("sizes", BinaryTagCodec.INT_ARRAY, it -> it.sizes);
+    INVENTORY = inventory.build(values -> new Inventory(values.get(name), values.get(list), values.get(sizes)));
+  }
+
+  @Test
+  void testRoundTrip() throws IOException {
+    final Inventory inventory = new Inventory("chest", Arrays.asList(new Slot("stone", (byte) 3), new Slot("dirt", (byte) 64)), new int[] {1, 2, 3});
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagIO.writer().write(inventory, INVENTORY, bytes, BinaryTagIO.Compression.GZIP);
+
+    assertEquals(inventory, BinaryTagIO.reader().read(new ByteArrayInputStream(bytes.toByteArray()), BinaryTagIO.Compression.GZIP, INVENTORY));
+    // the same bytes are readable as tags
+    final CompoundBinaryTag tag = BinaryTagIO.reader().read(new ByteArrayInputStream(bytes.toByteArray()), BinaryTagIO.Compression.GZIP);
+    assertEquals("chest", tag.getString("name"));
+    assertEquals(2, tag.getList("list").size());
+    assertArrayEquals(new int[] {1, 2, 3}, tag.getIntArray("sizes"));
+  }
+
+  @Test
+  void testDecodeFromTags() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.builder()
+        .add(CompoundBinaryTag.builder().putString("s", "stone").putString("unknown", "skipped").build())
+        .build())
+      .putIntArray("sizes", new int[0])
+      .putLong("other", 5L)
+      .build();
+    final Inventory inventory = read(tag, INVENTORY);
+
+    assertNull(inventory.name);
+    // unknown entries are skipped, and absent optional entries take their default value
+    assertEquals(Arrays.asList(new Slot("stone", (byte) 1)), inventory.slots);
+  }
+
+  @Test
+  void testTypeMismatchReportsPath() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.builder()
+        .add(CompoundBinaryTag.builder().putInt("s", 1).build())
+        .build())
+      .putIntArray("sizes", new int[0])
+      .build();
+    final BinaryTagDecodeException ex = assertThrows(BinaryTagDecodeException.class, () -> read(tag, INVENTORY));
+
+    assertEquals("list[0].s", ex.path());
+    assertEquals("Expected a " + BinaryTagTypes.STRING + ", was " + BinaryTagTypes.INT + " (at list[0].s)", ex.getMessage());
+  }
+
+  @Test
+  void testListElementTypeMismatchReportsPath() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.builder().add(StringBinaryTag.of("stone")).build())
+      .putIntArray("sizes", new int[0])
+      .build();
+
+    assertEquals("list[0]", assertThrows(BinaryTagDecodeException.class, () -> read(tag, INVENTORY)).path());
+  }
+
+  @Test
+  void testMissingRequiredField() {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.empty())
+      .build();
+
+    assertEquals("sizes", assertThrows(BinaryTagDecodeException.class, () -> read(tag, INVENTORY)).path());
+  }
+
+  @Test
+  void testMappedConversionFailure() throws IOException {
+    final BinaryTagCodec<Integer> positive = BinaryTagCodec.INT.map(value -> {
+      if(value <= 0) throw new IllegalArgumentException("not positive");
+      return value;
+    }, value -> value);
+    final BinaryTagSchema.Builder<Integer> builder = BinaryTagSchema.builder();
+    final BinaryTagSchema.Field<Integer> value = builder.field("value", positive, it -> it);
+    final BinaryTagSchema<Integer> schema = builder.build(values -> values.get(value));
+
+    assertEquals(Integer.valueOf(3), read(CompoundBinaryTag.builder().putInt("value", 3).build(), schema));
+    assertEquals("value", assertThrows(BinaryTagDecodeException.class, () -> read(CompoundBinaryTag.builder().putInt("value", -1).build(), schema)).path());
+  }
+
+  @Test
+  void testRequiresCompoundRoot() {
+    assertThrows(IOException.class, () -> BinaryTagIO.writer().write(1, BinaryTagCodec.INT, new DataOutputStream(new ByteArrayOutputStream())));
+    assertThrows(IOException.class, () -> BinaryTagIO.reader().read(new DataInputStream(new ByteArrayInputStream(new byte[] {10, 0, 0, 0})), BinaryTagCodec.INT));
+  }
+
+  @Test
+  void testDefaultsDecodeThroughTags() throws IOException {
+    final Inventory inventory = new Inventory(null, Arrays.asList(new Slot("stone", (byte) 3)), new int[] {4});
+    final CompoundBinaryTag tag = BinaryTagCodecImpl.encode(inventory, INVENTORY);
+
+    assertEquals(CompoundBinaryTag.builder()
+      .put("list", ListBinaryTag.builder().add(CompoundBinaryTag.builder().putString("s", "stone").putByte("Count", (byte) 3).build()).build())
+      .putIntArray("sizes", new int[] {4})
+      .build(), tag);
+    assertEquals(inventory, BinaryTagCodecImpl.decode(tag, INVENTORY));
+  }
+
+  private static <T> T read(final CompoundBinaryTag tag, final BinaryTagCodec<T> codec) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagIO.writer().write(tag, bytes);
+    return BinaryTagIO.reader().read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), codec);
+  }
+
+  static final class Slot {
+    final String id;
+    final byte count;
+
+    Slot(final String id, final byte count) {
+      this.id = id;
+      this.count = count;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(!(other instanceof Slot)) return false;
+      final Slot that = (Slot) other;
+      return this.id.equals(that.id) && this.count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+      return this.id.hashCode() * 31 + this.count;
+    }
+  }
+
+  static final class Inventory {
+    final String name;
+    final List<Slot> slots;
+    final int[] sizes;
+
+    Inventory(final String name, final List<Slot> slots, final int[] sizes) {
+      this.name = name;
+      this.slots = slots;
+      this.sizes = sizes;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if(!(other instanceof Inventory)) return false;
+      final Inventory that = (Inventory) other;
+      return Objects.equals(this.name, that.name) && this.slots.equals(that.slots) && Arrays.equals(this.sizes, that.sizes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.name, this.slots, Arrays.hashCode(this.sizes));
+    }
+  }
+}
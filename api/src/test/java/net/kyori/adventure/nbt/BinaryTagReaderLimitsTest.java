@@ -0,0 +1,146 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryTagReaderLimitsTest {
+  @Test
+  void testMaxDepth() throws IOException {
+    CompoundBinaryTag tag = CompoundBinaryTag.empty();
+    for(int i = 0; i < 10; i++) {
+      tag = CompoundBinaryTag.builder().put("a", tag).build();
+    }
+    final byte[] data = write(tag);
+
+    assertEquals(tag, BinaryTagIO.readerBuilder().maxDepth(10).build().read(data, BinaryTagIO.Compression.NONE));
+    assertThrows(IOException.class, () -> BinaryTagIO.readerBuilder().maxDepth(5).build().read(data, BinaryTagIO.Compression.NONE));
+  }
+
+  @Test
+  void testMaxListLength() throws IOException {
+    final ListBinaryTag.Builder<BinaryTag> list = ListBinaryTag.builder();
+    for(int i = 0; i < 10; i++) {
+      list.add(IntBinaryTag.of(i));
+    }
+    final byte[] data = write(CompoundBinaryTag.builder().put("list", list.build()).build());
+
+    BinaryTagIO.readerBuilder().maxListLength(10).build().read(data, BinaryTagIO.Compression.NONE);
+    assertThrows(IOException.class, () -> BinaryTagIO.readerBuilder().maxListLength(9).build().read(data, BinaryTagIO.Compression.NONE));
+  }
+
+  @Test
+  void testMaxArrayLength() throws IOException {
+    final byte[] bytes = write(CompoundBinaryTag.builder().putByteArray("a", new byte[10]).build());
+    final byte[] ints = write(CompoundBinaryTag.builder().putIntArray("a", new int[10]).build());
+    final byte[] longs = write(CompoundBinaryTag.builder().putLongArray("a", new long[10]).build());
+    final BinaryTagIO.Reader reader = BinaryTagIO.readerBuilder().maxArrayLength(9).build();
+
+    BinaryTagIO.readerBuilder().maxArrayLength(10).build().read(longs, BinaryTagIO.Compression.NONE);
+    assertThrows(IOException.class, () -> reader.read(bytes, BinaryTagIO.Compression.NONE));
+    assertThrows(IOException.class, () -> reader.read(ints, BinaryTagIO.Compression.NONE));
+    assertThrows(IOException.class, () -> reader.read(longs, BinaryTagIO.Compression.NONE));
+  }
+
+  @Test
+  void testMaxStringLength() throws IOException {
+    final byte[] data = write(CompoundBinaryTag.builder().putString("s", "abcdefghij").build());
+    final BinaryTagIO.Reader reader = BinaryTagIO.readerBuilder().maxStringLength(9).build();
+
+    BinaryTagIO.readerBuilder().maxStringLength(10).build().read(data, BinaryTagIO.Compression.NONE);
+    assertThrows(IOException.class, () -> reader.read(data, BinaryTagIO.Compression.NONE));
+    // entries a schema does not declare are skipped, which must apply the limit too
+    final BinaryTagSchema.Builder<String> builder = BinaryTagSchema.builder();
+    final BinaryTagSchema.Field<String> other = builder.field("other", BinaryTagCodec.STRING, it -> it, "");
+    final BinaryTagSchema<String> schema = builder.build(values -> values.get(other));
+    assertThrows(IOException.class, () -> reader.read(new DataInputStream(new ByteArrayInputStream(data)), schema));
+  }
+
+  @Test
+  void testMaxTagCount() throws IOException {
+    final CompoundBinaryTag.Builder builder = CompoundBinaryTag.builder();
+    for(int i = 0; i < 10; i++) {
+      builder.putInt("i" + i, i);
+    }
+    final byte[] data = write(builder.build());
+
+    BinaryTagIO.readerBuilder().maxTagCount(11).build().read(data, BinaryTagIO.Compression.NONE);
+    assertThrows(IOException.class, () -> BinaryTagIO.readerBuilder().maxTagCount(5).build().read(data, BinaryTagIO.Compression.NONE));
+  }
+
+  @Test
+  void testMaxBytesWhenDecompressing() throws IOException {
+    final byte[] data = write(CompoundBinaryTag.builder().putByteArray("a", new byte[1 << 20]).build());
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try(final GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+
+    assertEquals(1 << 20, BinaryTagIO.unlimitedReader().read(compressed.toByteArray(), BinaryTagIO.Compression.GZIP).getByteArray("a").length);
+    assertThrows(IOException.class, () -> BinaryTagIO.reader(1 << 16).read(compressed.toByteArray(), BinaryTagIO.Compression.GZIP));
+  }
+
+  @Test
+  void testHostileLengthsWithoutLimits() throws IOException {
+    for(final byte type : new byte[] {7, 11, 12}) {
+      // an array claiming the largest possible length, followed by nothing
+      final byte[] array = header(type, 0x7fffffff, -1);
+      assertThrows(EOFException.class, () -> BinaryTagIO.unlimitedReader().read(array, BinaryTagIO.Compression.NONE));
+    }
+    final byte[] list = header((byte) 9, 0x7fffffff, 10);
+    assertThrows(EOFException.class, () -> BinaryTagIO.unlimitedReader().read(list, BinaryTagIO.Compression.NONE));
+    final BinaryTagIO.Reader parallel = BinaryTagIO.readerBuilder().maxBytes(0).parallel(ForkJoinPool.commonPool()).build();
+    assertThrows(EOFException.class, () -> parallel.read(list, BinaryTagIO.Compression.NONE));
+  }
+
+  // a compound holding a single entry of type, with only the length prefix of its payload
+  private static byte[] header(final byte type, final int length, final int elementType) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream output = new DataOutputStream(bytes);
+    output.writeByte(BinaryTagTypes.COMPOUND.id());
+    output.writeUTF("");
+    output.writeByte(type);
+    output.writeUTF("a");
+    if(elementType >= 0) output.writeByte(elementType);
+    output.writeInt(length);
+    return bytes.toByteArray();
+  }
+
+  private static byte[] write(final CompoundBinaryTag tag) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagIO.writer().write(tag, bytes);
+    return bytes.toByteArray();
+  }
+}
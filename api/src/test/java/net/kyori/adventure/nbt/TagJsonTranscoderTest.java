@@ -0,0 +1,149 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagJsonTranscoderTest {
+  private static final TagJsonTranscoder TYPED = TagJsonTranscoder.builder().typedNumbers(true).typedArrays(true).build();
+
+  @Test
+  void testUntyped() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putByte("b", (byte) 1)
+      .putFloat("f", 0.1f)
+      .putDouble("d", 2.5)
+      .putString("s", "text")
+      .putIntArray("i", new int[]{1, 2})
+      .put("l", ListBinaryTag.builder().add(LongBinaryTag.of(1L << 40)).add(LongBinaryTag.of(2)).build())
+      .build();
+    final String json = "{\"b\":1,\"f\":0.1,\"d\":2.5,\"s\":\"text\",\"i\":[1,2],\"l\":[1099511627776,2]}";
+    assertJsonEquals(json, toJson(TagJsonTranscoder.get(), tag));
+    assertJsonEquals(json, toJsonStreaming(TagJsonTranscoder.get(), tag));
+
+    final CompoundBinaryTag read = CompoundBinaryTag.builder()
+      .putInt("b", 1)
+      .putDouble("f", 0.1)
+      .putDouble("d", 2.5)
+      .putString("s", "text")
+      .put("i", ListBinaryTag.builder().add(IntBinaryTag.of(1)).add(IntBinaryTag.of(2)).build())
+      .put("l", ListBinaryTag.builder().add(LongBinaryTag.of(1L << 40)).add(LongBinaryTag.of(2)).build())
+      .build();
+    assertEquals(read, fromJson(TagJsonTranscoder.get(), json));
+  }
+
+  @Test
+  void testTypedRoundTrip() throws IOException {
+    final CompoundBinaryTag tag = CompoundBinaryTag.builder()
+      .putByte("b", (byte) 1)
+      .putShort("s", (short) 2)
+      .putLong("l", 3)
+      .putFloat("f", 4.5f)
+      .putDouble("d", 6)
+      .putByteArray("ba", new byte[]{1, -1})
+      .putLongArray("la", new long[]{7})
+      .put("list", ListBinaryTag.builder().add(CompoundBinaryTag.builder().putString("x", "y").build()).build())
+      .build();
+    final String json = toJson(TYPED, tag);
+    assertJsonEquals("{\"b\":\"1b\",\"s\":\"2s\",\"l\":\"3L\",\"f\":\"4.5f\",\"d\":6.0,\"ba\":[\"B;\",1,-1],\"la\":[\"L;\",7],\"list\":[{\"x\":\"y\"}]}", json);
+    assertJsonEquals(json, toJsonStreaming(TYPED, tag));
+    assertEquals(tag, fromJson(TYPED, json));
+  }
+
+  @Test
+  void testNonFiniteNumbersRejected() {
+    final float[] floats = {Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY};
+    for(final float value : floats) {
+      final CompoundBinaryTag tag = CompoundBinaryTag.builder().putFloat("f", value).build();
+      assertThrows(IOException.class, () -> toJson(TYPED, tag));
+      assertThrows(IOException.class, () -> toJsonStreaming(TYPED, tag));
+      assertThrows(IOException.class, () -> toJson(TagJsonTranscoder.get(), tag));
+      assertThrows(IOException.class, () -> toJsonStreaming(TagJsonTranscoder.get(), tag));
+    }
+    final double[] doubles = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    for(final double value : doubles) {
+      final CompoundBinaryTag tag = CompoundBinaryTag.builder().putDouble("d", value).build();
+      assertThrows(IOException.class, () -> toJson(TYPED, tag));
+      assertThrows(IOException.class, () -> toJsonStreaming(TagJsonTranscoder.get(), tag));
+    }
+  }
+
+  @Test
+  void testListTypeMismatchPath() {
+    final IOException scalar = assertThrows(IOException.class, () -> fromJson(TagJsonTranscoder.get(), "{\"a\":[1,2,\"x\"]}"));
+    assertTrue(scalar.getMessage().endsWith(" at $.a[2]"), scalar.getMessage());
+    final IOException compound = assertThrows(IOException.class, () -> fromJson(TagJsonTranscoder.get(), "{\"a\":[1,{}]}"));
+    assertTrue(compound.getMessage().endsWith(" at $.a[1]"), compound.getMessage());
+    final IOException list = assertThrows(IOException.class, () -> fromJson(TagJsonTranscoder.get(), "{\"a\":[[1],[2],3]}"));
+    assertTrue(list.getMessage().endsWith(" at $.a[2]"), list.getMessage());
+    final IOException nested = assertThrows(IOException.class, () -> fromJson(TagJsonTranscoder.get(), "{\"a\":[{\"b\":[true,[]]}]}"));
+    assertTrue(nested.getMessage().endsWith(" at $.a[0].b[1]"), nested.getMessage());
+  }
+
+  @Test
+  void testUntypedNumbersWiden() throws IOException {
+    final CompoundBinaryTag expected = CompoundBinaryTag.builder()
+      .put("a", ListBinaryTag.builder().add(DoubleBinaryTag.of(1)).add(DoubleBinaryTag.of(1L << 40)).add(DoubleBinaryTag.of(1.5)).build())
+      .build();
+    assertEquals(expected, fromJson(TagJsonTranscoder.get(), "{\"a\":[1,1099511627776,1.5]}"));
+    assertThrows(IOException.class, () -> fromJson(TYPED, "{\"a\":[\"1b\",2]}"));
+  }
+
+  private static void assertJsonEquals(final String expected, final String actual) {
+    // compound entries are not ordered
+    assertEquals(JsonParser.parseString(expected), JsonParser.parseString(actual));
+  }
+
+  private static String toJson(final TagJsonTranscoder transcoder, final CompoundBinaryTag tag) throws IOException {
+    final StringWriter json = new StringWriter();
+    transcoder.toJson(tag, new JsonWriter(json));
+    return json.toString();
+  }
+
+  private static String toJsonStreaming(final TagJsonTranscoder transcoder, final CompoundBinaryTag tag) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    BinaryTagIO.writer().write(tag, (java.io.DataOutput) new DataOutputStream(bytes));
+    final StringWriter json = new StringWriter();
+    transcoder.toJson(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), new JsonWriter(json));
+    return json.toString();
+  }
+
+  private static CompoundBinaryTag fromJson(final TagJsonTranscoder transcoder, final String json) throws IOException {
+    return transcoder.fromJson(new JsonReader(new StringReader(json)));
+  }
+}
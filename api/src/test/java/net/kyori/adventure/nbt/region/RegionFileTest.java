@@ -0,0 +1,236 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.nbt.region;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.kyori.adventure.nbt.BinaryTagIO;
+import net.kyori.adventure.nbt.CompoundBinaryTag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+  private static final int SECTOR_SIZE = 4096;
+
+  @Test
+  void testWriteAndRead() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final Path path = directory.resolve("r.0.0.mca");
+      final CompoundBinaryTag first = CompoundBinaryTag.builder().putString("name", "first").putInt("x", 1).build();
+      final CompoundBinaryTag second = CompoundBinaryTag.builder().putString("name", "second").putLongArray("data", new long[]{1, 2, 3}).build();
+      try(final RegionFile region = RegionFile.openWritable(path)) {
+        region.writeChunk(1, 0, first);
+        region.writeChunk(31, 31, second, BinaryTagIO.Compression.GZIP);
+        assertTrue(region.hasChunk(1, 0));
+        assertFalse(region.hasChunk(0, 0));
+        assertTrue(region.timestamp(1, 0) > 0);
+        assertEquals(0, region.timestamp(0, 0));
+        assertEquals(first, region.readChunk(1, 0));
+        assertNull(region.readChunk(0, 0));
+      }
+
+      try(final RegionFile region = RegionFile.open(path)) {
+        assertEquals(first, region.readChunk(1, 0));
+        assertEquals(second, region.readChunk(31, 31));
+        // coordinates are relative to the region
+        assertEquals(second, region.readChunk(-1, -1));
+        assertThrows(IOException.class, () -> region.writeChunk(2, 0, first));
+
+        final List<RegionFile.Chunk<CompoundBinaryTag>> chunks = region.chunks().parallel()
+          .sorted(Comparator.comparingInt(RegionFile.Chunk::z))
+          .collect(Collectors.toList());
+        assertEquals(2, chunks.size());
+        assertEquals(1, chunks.get(0).x());
+        assertEquals(first, chunks.get(0).value());
+        assertEquals(31, chunks.get(1).x());
+        assertEquals(31, chunks.get(1).z());
+        assertEquals(second, chunks.get(1).value());
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void testRemoveChunk() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final Path path = directory.resolve("r.0.0.mca");
+      try(final RegionFile region = RegionFile.openWritable(path)) {
+        region.writeChunk(0, 0, CompoundBinaryTag.builder().putInt("x", 0).build());
+        region.removeChunk(0, 0);
+        assertFalse(region.hasChunk(0, 0));
+      }
+      try(final RegionFile region = RegionFile.open(path)) {
+        assertFalse(region.hasChunk(0, 0));
+        assertEquals(0L, region.chunks().count());
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void testExternalChunk() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final Path path = directory.resolve("r.1.-1.mca");
+      final Path external = directory.resolve("c.33.-30.mcc");
+      // random data does not compress, so this chunk cannot fit within the 255 sectors of a region
+      final byte[] data = new byte[SECTOR_SIZE * 256];
+      new Random(42).nextBytes(data);
+      final CompoundBinaryTag large = CompoundBinaryTag.builder().putByteArray("data", data).build();
+      final CompoundBinaryTag small = CompoundBinaryTag.builder().putInt("x", 1).build();
+
+      try(final RegionFile region = RegionFile.openWritable(path)) {
+        region.writeChunk(1, 2, large);
+        assertTrue(Files.exists(external));
+        // only the header of an external chunk is kept in the region
+        assertEquals(3L * SECTOR_SIZE, Files.size(path));
+        // the default reader does not accept chunks this large
+        assertThrows(IOException.class, () -> region.readChunk(1, 2));
+      }
+
+      try(final RegionFile region = RegionFile.openWritable(path, BinaryTagIO.unlimitedReader())) {
+        assertEquals(large, region.readChunk(1, 2));
+        region.writeChunk(1, 2, small);
+        assertFalse(Files.exists(external));
+        assertEquals(small, region.readChunk(1, 2));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void testExternalChunkRequiresRegionName() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final byte[] data = new byte[SECTOR_SIZE * 256];
+      new Random(42).nextBytes(data);
+      try(final RegionFile region = RegionFile.openWritable(directory.resolve("region.mca"))) {
+        assertThrows(IOException.class, () -> region.writeChunk(0, 0, CompoundBinaryTag.builder().putByteArray("data", data).build()));
+        assertFalse(region.hasChunk(0, 0));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void testFreedSectorsAreReused() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final Path path = directory.resolve("r.0.0.mca");
+      final CompoundBinaryTag large = CompoundBinaryTag.builder().putByteArray("data", new byte[SECTOR_SIZE * 8]).build();
+      final CompoundBinaryTag medium = CompoundBinaryTag.builder().putByteArray("data", new byte[SECTOR_SIZE * 6]).build();
+      final CompoundBinaryTag small = CompoundBinaryTag.builder().putInt("x", 1).build();
+
+      try(final RegionFile region = RegionFile.openWritable(path)) {
+        region.writeChunk(0, 0, large, BinaryTagIO.Compression.NONE);
+        region.writeChunk(1, 0, small);
+        // the old chunk is kept until the new one is written, so shrinking it frees its sectors afterwards
+        region.writeChunk(0, 0, small);
+        final long size = Files.size(path);
+
+        region.writeChunk(2, 0, small);
+        region.writeChunk(3, 0, small);
+        region.removeChunk(1, 0);
+        region.writeChunk(4, 0, medium, BinaryTagIO.Compression.NONE);
+        assertEquals(size, Files.size(path));
+
+        assertEquals(small, region.readChunk(0, 0));
+        assertNull(region.readChunk(1, 0));
+        assertEquals(small, region.readChunk(2, 0));
+        assertEquals(small, region.readChunk(3, 0));
+        assertEquals(medium, region.readChunk(4, 0));
+      }
+
+      // the sectors in use are recovered from the header when the region is reopened
+      try(final RegionFile region = RegionFile.openWritable(path)) {
+        final long size = Files.size(path);
+        region.writeChunk(4, 0, small);
+        region.writeChunk(5, 0, medium, BinaryTagIO.Compression.NONE);
+        assertEquals(size, Files.size(path));
+        assertEquals(small, region.readChunk(0, 0));
+        assertEquals(small, region.readChunk(4, 0));
+        assertEquals(medium, region.readChunk(5, 0));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void testDefaultReaderIsLimited() throws IOException {
+    final Path directory = Files.createTempDirectory("region");
+    try {
+      final Path path = directory.resolve("r.0.0.mca");
+      // an uncompressed chunk holding a byte array which claims to be 2 GiB long
+      final ByteBuffer chunk = ByteBuffer.allocate(SECTOR_SIZE);
+      chunk.putInt(0).put((byte) 3);
+      chunk.put((byte) 10).putShort((short) 0);
+      chunk.put((byte) 7).putShort((short) 1).put((byte) 'a').putInt(Integer.MAX_VALUE);
+      chunk.putInt(0, chunk.position() - 4);
+      chunk.rewind();
+      final ByteBuffer header = ByteBuffer.allocate(SECTOR_SIZE * 2);
+      header.putInt(0, (2 << 8) | 1);
+      try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        channel.write(header, 0);
+        channel.write(chunk, SECTOR_SIZE * 2);
+      }
+
+      try(final RegionFile region = RegionFile.open(path)) {
+        assertTrue(region.hasChunk(0, 0));
+        assertThrows(IOException.class, () -> region.readChunk(0, 0));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  private static void delete(final Path directory) throws IOException {
+    try(final Stream<Path> files = Files.list(directory)) {
+      for(final Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+}
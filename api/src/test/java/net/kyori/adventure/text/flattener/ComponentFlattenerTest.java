@@ -23,10 +23,12 @@
  */
 package net.kyori.adventure.text.flattener;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import net.kyori.adventure.key.Key;
 import net.kyori.adventure.text.BlockNBTComponent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.NBTComponent;
@@ -34,6 +36,9 @@ import net.kyori.adventure.text.TranslatableComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainComponentSerializer;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -233,6 +238,107 @@ class ComponentFlattenerTest {
       .assertContents("my.key");
   }
 
+  @Test
+  void testFlattenText() throws IOException {
+    final ComponentFlattener flattener = ComponentFlattener.basic().toBuilder()
+      .complexMapper(TranslatableComponent.class, (component, accepter) -> {
+        accepter.accept(Component.text("<" + component.key() + ">"));
+        component.args().forEach(accepter);
+      })
+      .build();
+    final Component input = Component.text()
+      .content("Hi ")
+      .append(Component.translatable("my.key", Component.text("a"), Component.keybind("key.jump").append(Component.text("b"))).append(Component.text(" c")))
+      .append(Component.empty())
+      .append(Component.text(" friend", NamedTextColor.BLUE))
+      .build();
+
+    final StringBuilder text = new StringBuilder();
+    flattener.flattenText(input, text);
+    assertEquals("Hi <my.key>akey.jumpb c friend", text.toString());
+    assertEquals(String.join("", this.testFlatten(flattener, input).strings), text.toString());
+  }
+
+  @Test
+  void testFlattenTextFailsWhenTooDeep() {
+    Component input = Component.text("x");
+    for(int i = 0; i < 600; i++) {
+      input = Component.text("y").append(input);
+    }
+    final Component deep = input;
+    assertThrows(IllegalStateException.class, () -> ComponentFlattener.basic().flattenText(deep, new StringBuilder()));
+  }
+
+  @Test
+  void testMeasure() {
+    final Key font = Key.key("adventure", "test");
+    final Component input = Component.text()
+      .content("ab")
+      .append(Component.text("cd", Style.style().font(font).build()).append(Component.text("e\uD83D\uDE00")))
+      .append(Component.translatable("my.key"))
+      .append(Component.text("f"))
+      .build();
+    final GlyphWidths widths = GlyphWidths.builder()
+      .font(Style.DEFAULT_FONT, new int[] {0, 1, 2}, 6)
+      .font(font, codePoint -> 10)
+      .build();
+
+    assertEquals(14, ComponentFlattener.basic().length(input, Integer.MAX_VALUE));
+    assertEquals(13, ComponentFlattener.basic().codePointCount(input, Integer.MAX_VALUE));
+    // the font is inherited by children, and the default font is used when none is set
+    assertEquals(12 + 20 + 20 + 36 + 6, ComponentFlattener.basic().width(input, widths, Integer.MAX_VALUE));
+  }
+
+  @Test
+  void testMeasureStopsAtLimit() {
+    final Component input = Component.text("ab").append(Component.text("cd")).append(Component.text("ef"));
+    final GlyphWidths widths = font -> codePoint -> 6;
+
+    assertEquals(4, ComponentFlattener.basic().length(input, 3));
+    assertEquals(6, ComponentFlattener.basic().length(input, 6));
+    assertEquals(4, ComponentFlattener.basic().codePointCount(input, 3));
+    assertEquals(24, ComponentFlattener.basic().width(input, widths, 20));
+  }
+
+  @Test
+  void testMeasureWithListenerOnlyFlattener() {
+    final ComponentFlattener flattener = new ComponentFlattener() {
+      @Override
+      public void flatten(final @NonNull Component input, final @NonNull FlattenerListener listener) {
+        ComponentFlattener.basic().flatten(input, listener);
+      }
+
+      @Override
+      public @NonNull Builder toBuilder() {
+        return ComponentFlattener.basic().toBuilder();
+      }
+    };
+    final Key font = Key.key("adventure", "test");
+    final Component input = Component.text("abc")
+      .append(Component.text("de", Style.style().font(font).build()).append(Component.text("fg")))
+      .append(Component.text("h"));
+    final GlyphWidths widths = font1 -> font1.equals(font) ? codePoint -> 10 : codePoint -> 6;
+
+    assertEquals(8, flattener.length(input, Integer.MAX_VALUE));
+    assertEquals(5, flattener.length(input, 3));
+    assertEquals(8, flattener.codePointCount(input, Integer.MAX_VALUE));
+    assertEquals(18 + 40 + 6, flattener.width(input, widths, Integer.MAX_VALUE));
+    assertEquals(ComponentFlattener.basic().width(input, widths, 30), flattener.width(input, widths, 30));
+  }
+
+  @Test
+  void testFlattenLazyComponent() {
+    final GsonComponentSerializer gson = GsonComponentSerializer.builder().lazyDeserialization().build();
+    final Component lazy = gson.deserialize("{\"text\":\"x\",\"color\":\"red\",\"extra\":[{\"text\":\"y\"}]}");
+    final Component child = Component.text("a").append(gson.deserialize("{\"text\":\"b\"}"));
+
+    assertEquals("xy", PlainComponentSerializer.plain().serialize(lazy));
+    assertEquals("ab", PlainComponentSerializer.plain().serialize(child));
+    assertEquals("\u00A7cxy", LegacyComponentSerializer.legacySection().serialize(lazy));
+    assertEquals("ab", LegacyComponentSerializer.legacySection().serialize(child));
+    assertEquals(2, ComponentFlattener.basic().length(lazy, Integer.MAX_VALUE));
+  }
+
   @Test
   void testFailsWhenInSameHierarchy() {
     final ComponentFlattener.Builder builder = ComponentFlattener.builder();
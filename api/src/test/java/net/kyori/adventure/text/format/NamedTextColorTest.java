@@ -23,6 +23,7 @@
  */
 package net.kyori.adventure.text.format;
 
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -55,6 +56,22 @@ class NamedTextColorTest {
     assertNearest(NamedTextColor.DARK_GRAY, 0x4c4c4c);
   }
 
+  @Test
+  void testRememberedMatchesAreUnchanged() {
+    final Random random = new Random(0x5eed);
+    final int[] values = new int[10_000];
+    for(int i = 0; i < values.length; i++) {
+      values[i] = random.nextInt(0x1000000);
+    }
+    // matched twice, to compare both searched and remembered results to colours which are never remembered
+    for(int pass = 0; pass < 2; pass++) {
+      for(final int value : values) {
+        final TextColor other = () -> value;
+        assertEquals(NamedTextColor.nearestTo(other), NamedTextColor.nearestTo(TextColor.color(value)), () -> TextColor.color(value).asHexString());
+      }
+    }
+  }
+
   private static void assertNearest(final NamedTextColor expected, final int value) {
     final NamedTextColor nearest = NamedTextColor.nearestTo(TextColor.color(value));
     assertEquals(expected, nearest);
@@ -163,6 +163,24 @@ class StyleTest {
     assertThat(s0.decorations()).containsExactlyEntriesIn(overrideNotSet(ImmutableMap.of(TextDecoration.BOLD, TextDecoration.State.TRUE)));
   }
 
+  @Test
+  void testUnchangedStyleIsReturned() {
+    final Style s0 = Style.style(NamedTextColor.GREEN, TextDecoration.BOLD).insertion("x");
+    assertSame(s0, s0.color(NamedTextColor.GREEN));
+    assertSame(s0, s0.decoration(TextDecoration.BOLD, TextDecoration.State.TRUE));
+    assertSame(s0, s0.decorations(ImmutableMap.of(TextDecoration.ITALIC, TextDecoration.State.NOT_SET)));
+    assertSame(s0, s0.insertion("x"));
+    assertSame(s0, s0.merge(Style.style(NamedTextColor.RED), Style.Merge.Strategy.IF_ABSENT_ON_TARGET));
+    assertSame(s0, s0.edit(builder -> builder.decorate(TextDecoration.BOLD)));
+    assertSame(Style.empty(), Style.style(TextDecoration.ITALIC).decoration(TextDecoration.ITALIC, TextDecoration.State.NOT_SET));
+  }
+
+  @Test
+  void testColorAndDecorationStylesAreReused() {
+    assertSame(Style.style(NamedTextColor.GOLD, TextDecoration.BOLD), Style.style().color(NamedTextColor.GOLD).decorate(TextDecoration.BOLD).build());
+    assertSame(Style.style(TextColor.color(0x123456)), Style.empty().color(TextColor.color(0x123456)));
+  }
+
   @Test
   void testMerge() {
     final Style s0 = Style.empty();
@@ -255,6 +273,22 @@ class StyleTest {
     assertEquals(NamedTextColor.BLACK, s2.color());
   }
 
+  @Test
+  void testMergeStrategy_decorations() {
+    final Style s0 = Style.style(TextDecoration.BOLD).decoration(TextDecoration.ITALIC, false);
+    final Style s1 = Style.style(TextDecoration.ITALIC, TextDecoration.UNDERLINED).decoration(TextDecoration.BOLD, false);
+    assertDecorations(s0.merge(s1, Style.Merge.Strategy.ALWAYS), ImmutableSet.of(TextDecoration.ITALIC, TextDecoration.UNDERLINED), ImmutableSet.of(TextDecoration.BOLD));
+    assertDecorations(s0.merge(s1, Style.Merge.Strategy.IF_ABSENT_ON_TARGET), ImmutableSet.of(TextDecoration.BOLD, TextDecoration.UNDERLINED), ImmutableSet.of(TextDecoration.ITALIC));
+  }
+
+  @Test
+  void testMergeReturnsExistingStyle() {
+    final Style s0 = Style.style(NamedTextColor.RED).insertion("x");
+    assertSame(s0, Style.empty().merge(s0, Style.Merge.of(Style.Merge.COLOR, Style.Merge.INSERTION)));
+    assertSame(s0, s0.merge(Style.style(NamedTextColor.RED), Style.Merge.colorAndDecorations()));
+    assertSame(s0, s0.merge(Style.style().insertion("y").build(), Style.Merge.colorAndDecorations()));
+  }
+
   @Test
   void testBuilderColorIfAbsent() {
     assertEquals(NamedTextColor.GREEN, Style.style().colorIfAbsent(NamedTextColor.GREEN).build().color());
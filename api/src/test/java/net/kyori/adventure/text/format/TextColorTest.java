@@ -24,12 +24,14 @@
 package net.kyori.adventure.text.format;
 
 import com.google.common.testing.EqualsTester;
+import net.kyori.adventure.util.HSVLike;
 import net.kyori.adventure.util.RGBLike;
 import org.checkerframework.common.value.qual.IntRange;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class TextColorTest {
   @Test
@@ -96,6 +98,20 @@ class TextColorTest {
     assertEquals(0x04, color.blue());
   }
 
+  @Test
+  void testRecentColorsAreReused() {
+    final TextColor color = TextColor.color(0x7f1e2d);
+    assertSame(color, TextColor.color(0x7f, 0x1e, 0x2d));
+    assertEquals(0x7f1e2d, color.value());
+  }
+
+  @Test
+  void testHSVIsConvertedOnce() {
+    final TextColor color = TextColor.color(0xbada04);
+    assertEquals(HSVLike.fromRGB(0xba, 0xda, 0x04), color.asHSV());
+    assertSame(color.asHSV(), color.asHSV());
+  }
+
   @Test
   void testEquality() {
     new EqualsTester()
@@ -0,0 +1,159 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares reading components against the output of the tree based serializer which preceded the streaming one.
+ */
+class GsonComponentSerializerGoldenTest {
+  private static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.gson();
+
+  // input, and the input read then written again by the tree based serializer
+  private static final String[][] ACCEPTED = {
+    {"\"plain\"", "{\"text\":\"plain\"}"},
+    {"12", "{\"text\":\"12\"}"},
+    {"true", "{\"text\":\"true\"}"},
+    {"[\"a\",\"b\",{\"text\":\"c\",\"bold\":true}]", "{\"extra\":[{\"text\":\"b\"},{\"bold\":true,\"text\":\"c\"}],\"text\":\"a\"}"},
+    {"{\"text\":\"x\"}", "{\"text\":\"x\"}"},
+    {"{\"text\":[\"x\"]}", "{\"text\":\"x\"}"},
+    {"{\"text\":[[\"x\"]]}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"extra\":[]}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"extra\":[\"y\",{\"text\":\"\"}]}", "{\"extra\":[{\"text\":\"y\"}],\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"font\":null}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"color\":\"red\",\"bold\":\"true\",\"italic\":1}", "{\"bold\":true,\"italic\":false,\"color\":\"red\",\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"color\":\"#ff0000\"}", "{\"color\":\"#ff0000\",\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"color\":\"reset\"}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"font\":\"minecraft:uniform\"}", "{\"font\":\"minecraft:uniform\",\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"clickEvent\":{\"action\":\"open_url\",\"value\":\"https://x\"}}", "{\"clickEvent\":{\"action\":\"open_url\",\"value\":\"https://x\"},\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"clickEvent\":{\"action\":\"open_url\"}}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_text\",\"contents\":\"y\"}}", "{\"hoverEvent\":{\"action\":\"show_text\",\"contents\":{\"text\":\"y\"}},\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_text\",\"value\":\"y\"}}", "{\"hoverEvent\":{\"action\":\"show_text\",\"contents\":{\"text\":\"y\"}},\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_item\",\"contents\":{\"id\":\"minecraft:stone\",\"count\":2}}}", "{\"hoverEvent\":{\"action\":\"show_item\",\"contents\":{\"id\":\"minecraft:stone\",\"count\":2}},\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_entity\",\"contents\":{\"type\":\"minecraft:pig\",\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":\"n\"}}}", "{\"hoverEvent\":{\"action\":\"show_entity\",\"contents\":{\"type\":\"minecraft:pig\",\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":{\"text\":\"n\"}}},\"text\":\"x\"}"},
+    {"{\"translate\":\"k\"}", "{\"translate\":\"k\"}"},
+    {"{\"translate\":\"k\",\"with\":[\"a\",{\"text\":\"b\"}]}", "{\"translate\":\"k\",\"with\":[{\"text\":\"a\"},{\"text\":\"b\"}]}"},
+    {"{\"translate\":null,\"text\":\"x\"}", "{\"text\":\"x\"}"},
+    {"{\"score\":{\"name\":\"n\",\"objective\":\"o\"}}", "{\"score\":{\"name\":\"n\",\"objective\":\"o\"}}"},
+    {"{\"score\":{\"name\":\"n\",\"objective\":\"o\",\"value\":\"v\"}}", "{\"score\":{\"name\":\"n\",\"objective\":\"o\",\"value\":\"v\"}}"},
+    {"{\"score\":null,\"text\":\"x\"}", "{\"text\":\"x\"}"},
+    {"{\"selector\":\"@p\"}", "{\"selector\":\"@p\"}"},
+    {"{\"keybind\":\"key.jump\"}", "{\"keybind\":\"key.jump\"}"},
+    {"{\"nbt\":\"a.b\",\"block\":\"1 2 3\"}", "{\"nbt\":\"a.b\",\"interpret\":false,\"block\":\"1 2 3\"}"},
+    {"{\"nbt\":\"a.b\",\"entity\":\"@p\",\"interpret\":true}", "{\"nbt\":\"a.b\",\"interpret\":true,\"entity\":\"@p\"}"},
+    {"{\"nbt\":\"a.b\",\"storage\":\"minecraft:x\"}", "{\"nbt\":\"a.b\",\"interpret\":false,\"storage\":\"minecraft:x\"}"},
+    {"{\"nbt\":\"a.b\",\"interpret\":\"true\",\"entity\":\"@p\"}", "{\"nbt\":\"a.b\",\"interpret\":true,\"entity\":\"@p\"}"},
+    {"{\"text\":\"x\",\"unknown\":{\"a\":[1,2]}}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"\",\"extra\":[]}", "{\"text\":\"\"}"},
+    {"{\"text\":\"\"}", "{\"text\":\"\"}"},
+    {"{\"keybind\":\"k\",\"selector\":\"s\"}", "{\"selector\":\"s\"}"},
+    {"{\"selector\":\"s\",\"text\":\"t\"}", "{\"text\":\"t\"}"},
+    {"{\"text\":\"a\",\"translate\":\"b\"}", "{\"text\":\"a\"}"},
+    {"{\"text\":\"x\",\"with\":null}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"score\":{\"name\":null}}", "{\"text\":\"x\"}"},
+    {"{\"score\":{\"name\":\"n\",\"objective\":\"o\",\"other\":null}}", "{\"score\":{\"name\":\"n\",\"objective\":\"o\"}}"},
+    {"{\"nbt\":\"a\",\"interpret\":null,\"entity\":\"@p\",\"text\":\"t\"}", "{\"text\":\"t\"}"},
+    {"{\"text\":\"x\",\"insertion\":[\"i\"]}", "{\"insertion\":\"i\",\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"bold\":[true]}", "{\"bold\":true,\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"bold\":\"yes\"}", "{\"bold\":false,\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_text\",\"contents\":null}}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_text\",\"value\":null}}", "{\"text\":\"x\"}"},
+    {"{\"text\":\"x\",\"hoverEvent\":{\"action\":\"show_text\",\"contents\":[\"a\",\"b\"]}}", "{\"hoverEvent\":{\"action\":\"show_text\",\"contents\":{\"extra\":[{\"text\":\"b\"}],\"text\":\"a\"}},\"text\":\"x\"}"},
+    {"{\"text\":[1]}", "{\"text\":\"1\"}"},
+    {"{\"text\":[true]}", "{\"text\":\"true\"}"},
+    {"{\"selector\":[\"@p\"]}", "{\"selector\":\"@p\"}"},
+    {"[[\"a\",\"b\"],\"c\"]", "{\"extra\":[{\"text\":\"b\"},{\"text\":\"c\"}],\"text\":\"a\"}"},
+    {"{\"text\":\"a\",\"extra\":[{\"text\":\"b\",\"extra\":[{\"text\":\"c\",\"italic\":true}]}],\"bold\":true}", "{\"bold\":true,\"extra\":[{\"extra\":[{\"italic\":true,\"text\":\"c\"}],\"text\":\"b\"}],\"text\":\"a\"}"}
+  };
+
+  // inputs rejected by the tree based serializer, with exceptions other than a JsonParseException in some cases
+  private static final String[] REJECTED = {
+    "[]",
+    "{\"text\":[\"x\",\"y\"]}",
+    "{\"text\":[]}",
+    "{\"text\":{}}",
+    "{\"text\":null}",
+    "{\"text\":\"x\",\"color\":null}",
+    "{\"text\":\"x\",\"extra\":null}",
+    "{\"text\":\"x\",\"bold\":null}",
+    "{\"text\":\"x\",\"insertion\":null}",
+    "{\"text\":\"x\",\"clickEvent\":null}",
+    "{\"text\":\"x\",\"hoverEvent\":null}",
+    "{\"text\":\"x\",\"color\":[\"red\"]}",
+    "{\"text\":\"x\",\"color\":\"nope\"}",
+    "{\"text\":\"x\",\"clickEvent\":{\"action\":\"nope\",\"value\":\"https://x\"}}",
+    "{\"translate\":\"k\",\"with\":null}",
+    "{\"translate\":\"k\",\"with\":\"a\"}",
+    "{\"score\":{\"name\":\"n\"}}",
+    "{\"nbt\":\"a.b\"}",
+    "{\"nbt\":\"a.b\",\"interpret\":null,\"entity\":\"@p\"}",
+    "{\"unknown\":1}",
+    "{}",
+    "null",
+    "{\"score\":{\"name\":null,\"objective\":\"o\"}}",
+    "{\"score\":{\"name\":\"n\",\"objective\":\"o\",\"value\":null}}",
+    "{\"score\":null,\"selector\":\"s\"}",
+    "{\"selector\":null,\"keybind\":\"k\"}",
+    "{\"keybind\":null}",
+    "{\"keybind\":\"k\",\"score\":null}",
+    "{\"nbt\":\"a\",\"block\":null,\"entity\":\"@p\"}",
+    "{\"nbt\":\"a\",\"entity\":null,\"storage\":\"minecraft:x\"}",
+    "{\"nbt\":null,\"entity\":\"@p\"}",
+    "{\"text\":\"x\",\"font\":[\"minecraft:uniform\"]}",
+    "{\"text\":\"x\",\"clickEvent\":{\"action\":null,\"value\":\"v\"}}",
+    "{\"text\":\"x\",\"clickEvent\":{\"action\":\"open_url\",\"value\":null}}",
+    "{\"text\":\"x\",\"hoverEvent\":{\"action\":null,\"contents\":\"y\"}}",
+    "{\"text\":\"x\",\"extra\":[null]}",
+    "{\"text\":\"x\",\"extra\":\"y\"}",
+    "{\"translate\":\"k\",\"with\":[null]}",
+    "{\"text\":[null]}",
+    "{\"text\":\"x\",\"color\":\"red\",\"color\":null}",
+    "[\"a\",null]"
+  };
+
+  @Test
+  void testAccepted() {
+    for(final String[] golden : ACCEPTED) {
+      assertEquals(golden[1], SERIALIZER.serialize(SERIALIZER.deserialize(golden[0])), golden[0]);
+    }
+  }
+
+  @Test
+  void testRejected() {
+    for(final String input : REJECTED) {
+      assertThrows(JsonParseException.class, () -> SERIALIZER.deserialize(input), input);
+    }
+  }
+
+  // entries are read as they appear, so a malformed entry is rejected even when the component does not use it
+  @Test
+  void testUnusedMalformedEntryRejected() {
+    assertThrows(JsonParseException.class, () -> SERIALIZER.deserialize("{\"text\":\"x\",\"with\":\"a\"}"));
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import com.google.gson.JsonParseException;
+import net.kyori.adventure.text.Component;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GsonComponentSerializerLimitsTest {
+  @Test
+  void testMaxDepth() {
+    final String json = "{\"text\":\"a\",\"extra\":[{\"text\":\"b\",\"extra\":[{\"text\":\"c\"}]}]}";
+    assertEquals(Component.text("a").append(Component.text("b").append(Component.text("c"))), GsonComponentSerializer.builder().maxDepth(5).build().deserialize(json));
+    assertThrows(JsonParseException.class, () -> GsonComponentSerializer.builder().maxDepth(4).build().deserialize(json));
+  }
+
+  @Test
+  void testDefaultMaxDepth() {
+    final GsonComponentSerializer serializer = GsonComponentSerializer.gson();
+    // the enclosing component takes one level
+    assertEquals(Component.text("a"), serializer.deserialize(nestedUnknown(LimitedJsonReader.Limits.DEFAULT_MAX_DEPTH - 1)));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize(nestedUnknown(LimitedJsonReader.Limits.DEFAULT_MAX_DEPTH)));
+  }
+
+  @Test
+  void testMaxComponentCount() {
+    final String json = "{\"text\":\"a\",\"extra\":[\"b\",\"c\"]}";
+    assertEquals(Component.text("a").append(Component.text("b")).append(Component.text("c")), GsonComponentSerializer.builder().maxComponentCount(3).build().deserialize(json));
+    assertThrows(JsonParseException.class, () -> GsonComponentSerializer.builder().maxComponentCount(2).build().deserialize(json));
+  }
+
+  @Test
+  void testMaxStringLength() {
+    final GsonComponentSerializer serializer = GsonComponentSerializer.builder().maxStringLength(5).build();
+    assertEquals(Component.text("abcde"), serializer.deserialize("{\"text\":\"abcde\"}"));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize("{\"text\":\"abcdef\"}"));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize("{\"abcdef\":1,\"text\":\"a\"}"));
+  }
+
+  @Test
+  void testUnknownEntriesAreLimited() {
+    final GsonComponentSerializer serializer = GsonComponentSerializer.builder().maxStringLength(5).maxDepth(4).build();
+    assertEquals(Component.text("a"), serializer.deserialize("{\"text\":\"a\",\"zz\":{\"a\":{\"b\":[\"c\",1,true,null]}}}"));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize("{\"text\":\"a\",\"zz\":{\"a\":{\"b\":{\"c\":{}}}}}"));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize("{\"text\":\"a\",\"zz\":{\"a\":{\"d\":\"abcdefghij\"}}}"));
+    assertThrows(JsonParseException.class, () -> serializer.deserialize("{\"text\":\"a\",\"zz\":{\"abcdefghij\":0}}"));
+  }
+
+  private static String nestedUnknown(final int depth) {
+    final StringBuilder json = new StringBuilder("{\"text\":\"a\",\"zz\":");
+    for(int i = 0; i < depth; i++) json.append('[');
+    for(int i = 0; i < depth; i++) json.append(']');
+    return json.append('}').toString();
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import java.util.List;
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.gson.legacyimpl.NBTLegacyHoverEventSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class GsonComponentSerializerVariantsTest {
+  // built afresh each time, so no serializer returns JSON cached by another test
+  private static GsonComponentSerializer[] serializers() {
+    return new GsonComponentSerializer[]{
+      GsonComponentSerializer.builder().build(),
+      GsonComponentSerializer.builder().downsampleColors().build(),
+      GsonComponentSerializer.builder().legacyHoverEventSerializer(NBTLegacyHoverEventSerializer.get()).emitLegacyHoverEvent().build(),
+      GsonComponentSerializer.builder().downsampleColors().legacyHoverEventSerializer(NBTLegacyHoverEventSerializer.get()).emitLegacyHoverEvent().build()
+    };
+  }
+
+  @Test
+  void testVariantsMatchSerialize() {
+    final Component hover = Component.text("hover", TextColor.color(0x123456)).append(Component.text("\"quoted\"", NamedTextColor.GOLD));
+    final Component component = Component.text()
+      .content("root")
+      .color(TextColor.color(0xabcdef))
+      .decoration(TextDecoration.BOLD, true)
+      .append(Component.text("child", Style.style(NamedTextColor.RED, TextDecoration.ITALIC)))
+      .append(Component.translatable("key", TextColor.color(0x00ff01), Component.text("arg", TextColor.color(0xfe0000))))
+      .append(Component.text("hovered").hoverEvent(HoverEvent.showText(hover)).clickEvent(ClickEvent.openUrl("https://example.com/<>")))
+      .append(Component.text("item").hoverEvent(HoverEvent.showItem(Key.key("stone"), 2)))
+      .append(Component.text("font").style(Style.style().font(Key.key("uniform")).insertion("insert").build()))
+      .build();
+
+    final GsonComponentSerializer[] expected = serializers();
+    final List<String> variants = GsonComponentSerializer.serializeVariants(component, serializers());
+    assertEquals(expected.length, variants.size());
+    for(int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i].serialize(component), variants.get(i));
+    }
+    assertNotEquals(variants.get(0), variants.get(1));
+    assertNotEquals(variants.get(0), variants.get(2));
+    assertEquals(component, expected[0].deserialize(variants.get(0)));
+    assertEquals(component, expected[0].deserialize(variants.get(2)));
+  }
+}
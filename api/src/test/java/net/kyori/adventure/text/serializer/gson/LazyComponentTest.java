@@ -0,0 +1,75 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyComponentTest {
+  private static final GsonComponentSerializer LAZY = GsonComponentSerializer.builder().lazyDeserialization().build();
+  private static final String JSON = "{\"color\":\"red\",\"text\":\"hello\"}";
+  private static final Component PARSED = Component.text("hello", NamedTextColor.RED);
+
+  @Test
+  void testEagerByDefault() {
+    assertTrue(GsonComponentSerializer.gson().deserialize(JSON) instanceof TextComponent);
+    assertFalse(LAZY.deserialize(JSON) instanceof TextComponent);
+  }
+
+  @Test
+  void testEqualsSymmetric() {
+    final Component lazy = LAZY.deserialize(JSON);
+    assertEquals(PARSED, lazy);
+    assertEquals(lazy, PARSED);
+    assertEquals(PARSED.hashCode(), lazy.hashCode());
+    assertEquals(lazy, LAZY.deserialize(JSON));
+    assertEquals(lazy, LAZY.deserialize("{\"text\":\"hello\",\"color\":\"red\"}"));
+
+    final Component other = Component.text("hello");
+    assertNotEquals(other, lazy);
+    assertNotEquals(lazy, other);
+    assertNotEquals(Component.translatable("hello"), lazy);
+  }
+
+  @Test
+  void testEqualsAsChild() {
+    final Component lazy = LAZY.deserialize(JSON);
+    assertEquals(Component.text().append(PARSED).build(), Component.text().append(lazy).build());
+  }
+
+  @Test
+  void testSerializedAsOriginalJson() {
+    final String json = "{\"text\":\"hello\",  \"color\":\"red\"}";
+    final Component lazy = LAZY.deserialize(json);
+    assertEquals(json, LAZY.serialize(lazy));
+    assertEquals(GsonComponentSerializer.gson().serialize(PARSED), GsonComponentSerializer.gson().serialize(lazy));
+  }
+}
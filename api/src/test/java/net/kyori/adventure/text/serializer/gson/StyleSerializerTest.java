@@ -0,0 +1,67 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.gson;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StyleSerializerTest {
+  private static final Style[] STYLES = {
+    Style.empty(),
+    Style.style(NamedTextColor.RED, TextDecoration.BOLD),
+    Style.style()
+      .color(TextColor.color(0x123456))
+      .decoration(TextDecoration.ITALIC, false)
+      .insertion("\"quoted\" <html>")
+      .clickEvent(ClickEvent.runCommand("/say \"hi\""))
+      .font(Key.key("uniform"))
+      .build()
+  };
+
+  @Test
+  void testEncodedStylesMatchWrittenStyles() {
+    final GsonComponentSerializer plain = GsonComponentSerializer.builder().build();
+    final GsonComponentSerializer cached = GsonComponentSerializer.builder().serializationCache(16, 1 << 20).build();
+    // a tiny byte limit leaves no room for encoded styles, which are then written without being kept
+    final GsonComponentSerializer small = GsonComponentSerializer.builder().serializationCache(16, 1).build();
+    for(int i = 0; i < 3; i++) {
+      for(final Style style : STYLES) {
+        // new instances each time, so the JSON of the component itself is not cached
+        final Component component = Component.text("parent", style).append(Component.text("child", style));
+        final String expected = plain.serialize(component);
+        assertEquals(expected, cached.serialize(component));
+        assertEquals(expected, small.serialize(component));
+        assertEquals(component, cached.deserialize(expected));
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.text.serializer.legacy;
+
+import java.io.IOException;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class LegacyComponentSerializerTest {
+  @Test
+  void testEqualColorsAreNotRepeated() {
+    final TextColor first = TextColor.color(0x565656);
+    final TextColor second = uncached(first);
+    assertNotSame(first, second);
+    final Component component = Component.text()
+      .append(Component.text("x", style(first)))
+      .append(Component.text("y", style(second)))
+      .build();
+
+    final LegacyComponentSerializer serializer = LegacyComponentSerializer.builder().character('&').hexColors().build();
+    assertEquals("&#565656&l&oxy", serializer.serialize(component));
+    // colors were compared by identity before, repeating the codes for each sibling, which renders the same
+    assertEquals("&#565656&l&oxy", serializer.serialize(serializer.deserialize("&#565656&l&ox&#565656&l&oy")));
+    assertEquals("&8&l&oxy", LegacyComponentSerializer.legacyAmpersand().serialize(component));
+  }
+
+  @Test
+  void testSerializeToAppendable() throws IOException {
+    final Component component = Component.text("a", TextColor.color(0x565656)).append(Component.text("b", Style.style(TextDecoration.BOLD)));
+    final LegacyComponentSerializer serializer = LegacyComponentSerializer.builder().character('&').hexColors().build();
+    final StringBuilder output = new StringBuilder("prefix ");
+    serializer.serialize(component, output);
+    assertEquals("prefix " + serializer.serialize(component), output.toString());
+  }
+
+  // an insertion is not written as legacy text, and keeps the style from being replaced by an equal one
+  private static Style style(final TextColor color) {
+    return Style.style().color(color).decoration(TextDecoration.BOLD, true).decoration(TextDecoration.ITALIC, true).insertion("i").build();
+  }
+
+  // text colors are reused while they remain cached, so create others until an equal color is no longer the same instance
+  private static TextColor uncached(final TextColor color) {
+    TextColor other = TextColor.color(color.value());
+    for(int value = 0; other == color; value++) {
+      TextColor.color(value);
+      other = TextColor.color(color.value());
+    }
+    return other;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of adventure, licensed under the MIT License.
+ *
+ * Copyright (c) 2017-2021 KyoriPowered
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package net.kyori.adventure.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedCacheTest {
+  @Test
+  void testEvictsLeastRecentlyUsed() {
+    final BoundedCache<String, String> cache = BoundedCache.create(2, Long.MAX_VALUE, (key, value) -> 1);
+    cache.put("a", "1");
+    cache.put("b", "2");
+    assertEquals("1", cache.get("a"));
+    cache.put("c", "3");
+    assertNull(cache.get("b"));
+    assertEquals("1", cache.get("a"));
+    assertEquals("3", cache.get("c"));
+    assertEquals(3, cache.hits());
+    assertEquals(1, cache.misses());
+    assertEquals(1, cache.evictions());
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.weight());
+  }
+
+  @Test
+  void testMaximumWeight() {
+    final BoundedCache<String, String> cache = BoundedCache.create(16, 10, (key, value) -> value.length());
+    cache.put("a", "12345");
+    cache.put("b", "123456");
+    assertNull(cache.get("a"));
+    assertEquals(6, cache.weight());
+    // heavier than the whole cache, so not kept
+    cache.put("c", "12345678901");
+    assertNull(cache.get("c"));
+    assertEquals("123456", cache.get("b"));
+  }
+
+  @Test
+  void testWeakKeysCompareByIdentity() {
+    final BoundedCache<String, String> cache = BoundedCache.weakKeys(16, Long.MAX_VALUE, (key, value) -> 1);
+    final String key = new String("key");
+    cache.put(key, "value");
+    assertEquals("value", cache.get(key));
+    assertNull(cache.get(new String("key")));
+  }
+
+  @Test
+  void testBoundsMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> BoundedCache.create(0, 1, (key, value) -> 1));
+    assertThrows(IllegalArgumentException.class, () -> BoundedCache.weakKeys(1, 0, (key, value) -> 1));
+  }
+}